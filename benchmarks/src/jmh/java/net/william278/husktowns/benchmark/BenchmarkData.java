@@ -0,0 +1,167 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.benchmark;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import net.william278.husktowns.BukkitHuskTowns;
+import net.william278.husktowns.claim.*;
+import net.william278.husktowns.town.Town;
+import net.william278.husktowns.user.BukkitUser;
+import net.william278.husktowns.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A synthetic dataset of towns, claims and online users, loaded into a mock server
+ * <p>
+ * Towns are laid out on a grid; each town claims a {@link #TOWN_WIDTH} by {@link #TOWN_HEIGHT} block of chunks, with a
+ * one-chunk gap of wilderness between neighbouring towns. The first {@link #ONLINE_USERS} towns each have an online
+ * mayor standing in one of their claims.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkData {
+
+    public static final int TOWNS = 10_000;
+    public static final int TOWN_WIDTH = 5;
+    public static final int TOWN_HEIGHT = 2;
+    public static final int CLAIMS = TOWNS * TOWN_WIDTH * TOWN_HEIGHT;
+    public static final int ONLINE_USERS = 500;
+    public static final int TOWN_MEMBERS = 8;
+    public static final int SAMPLES = 4096;
+
+    private static final int GRID_WIDTH = 100;
+    private static final long SEED = 278L;
+    private static final long LOAD_TIMEOUT_MILLIS = 60_000;
+
+    public ServerMock server;
+    public BukkitHuskTowns plugin;
+    public World world;
+    public ClaimWorld claimWorld;
+    public List<Town> towns;
+    public List<BukkitUser> users;
+
+    // Pre-generated samples, so benchmarks don't measure random number generation
+    public Chunk[] chunks;
+    public Position[] positions;
+    public BukkitUser[] sampleUsers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = MockBukkit.mock();
+        final org.bukkit.World bukkitWorld = server.addSimpleWorld("world");
+        plugin = MockBukkit.load(BukkitHuskTowns.class);
+        world = plugin.getWorld(bukkitWorld);
+        awaitDataLoaded();
+
+        // Create online users
+        users = new ArrayList<>(ONLINE_USERS);
+        for (int i = 0; i < ONLINE_USERS; i++) {
+            users.add(BukkitUser.adapt(server.addPlayer(), plugin));
+        }
+
+        // Create towns and their claims
+        final Random random = new Random(SEED);
+        towns = new ArrayList<>(TOWNS);
+        final ConcurrentMap<Integer, ConcurrentLinkedQueue<Claim>> claims = new ConcurrentHashMap<>();
+        for (int i = 0; i < TOWNS; i++) {
+            final User mayor = i < ONLINE_USERS ? users.get(i) : User.of(new UUID(random.nextLong(),
+                random.nextLong()), "Mayor" + i);
+            final Town town = Town.create("Town" + i, mayor, plugin);
+            town.setId(i + 1);
+            for (int m = 1; m < TOWN_MEMBERS; m++) {
+                town.addMember(new UUID(random.nextLong(), random.nextLong()), plugin.getRoles().getDefaultRole());
+            }
+            towns.add(town);
+
+            final ConcurrentLinkedQueue<Claim> townClaims = new ConcurrentLinkedQueue<>();
+            final Chunk origin = getTownOrigin(i);
+            for (int x = 0; x < TOWN_WIDTH; x++) {
+                for (int z = 0; z < TOWN_HEIGHT; z++) {
+                    townClaims.add(Claim.at(Chunk.at(origin.getX() + x, origin.getZ() + z)));
+                }
+            }
+            claims.put(town.getId(), townClaims);
+        }
+        claimWorld = ClaimWorld.of(1, claims, new ConcurrentLinkedQueue<>());
+        plugin.setTowns(towns);
+        plugin.setClaimWorlds(Map.of(world.getName(), claimWorld));
+        plugin.setLoaded(true);
+
+        // Place each online mayor in one of their town's claims
+        for (int i = 0; i < ONLINE_USERS; i++) {
+            final Chunk origin = getTownOrigin(i);
+            users.get(i).getPlayer().teleport(new org.bukkit.Location(bukkitWorld,
+                origin.getX() * 16 + 8, 64, origin.getZ() * 16 + 8));
+        }
+
+        // Sample chunks and positions across the claimed area and the wilderness around it
+        final int spanX = GRID_WIDTH * (TOWN_WIDTH + 1) + 4;
+        final int spanZ = (TOWNS / GRID_WIDTH) * (TOWN_HEIGHT + 1) + 4;
+        chunks = new Chunk[SAMPLES];
+        positions = new Position[SAMPLES];
+        sampleUsers = new BukkitUser[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            chunks[i] = Chunk.at(random.nextInt(spanX) - 2, random.nextInt(spanZ) - 2);
+            positions[i] = Position.at(chunks[i].getX() * 16 + random.nextInt(16), 64,
+                chunks[i].getZ() * 16 + random.nextInt(16), world);
+            sampleUsers[i] = users.get(random.nextInt(ONLINE_USERS));
+        }
+    }
+
+    // Enabling the plugin loads data from the (empty) database asynchronously; wait for it to finish, so it can't
+    // replace the synthetic dataset after it has been set
+    private void awaitDataLoaded() {
+        final long deadline = System.currentTimeMillis() + LOAD_TIMEOUT_MILLIS;
+        while (!plugin.isLoaded()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Timed out waiting for the plugin to load its data");
+            }
+            server.getScheduler().performOneTick();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for the plugin to load its data", e);
+            }
+        }
+        server.getScheduler().waitAsyncTasksFinished();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @NotNull
+    public static Chunk getTownOrigin(int townIndex) {
+        return Chunk.at((townIndex % GRID_WIDTH) * (TOWN_WIDTH + 1), (townIndex / GRID_WIDTH) * (TOWN_HEIGHT + 1));
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.benchmark;
+
+import net.william278.husktowns.claim.Chunk;
+import net.william278.husktowns.claim.TownClaim;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Benchmarks looking up claims in a {@link net.william278.husktowns.claim.ClaimWorld}
+ */
+@State(Scope.Thread)
+public class ClaimLookupBenchmark {
+
+    private int index;
+
+    @Benchmark
+    public Optional<TownClaim> getClaimAt(BenchmarkData data) {
+        return data.claimWorld.getClaimAt(next(data), data.plugin);
+    }
+
+    @Benchmark
+    public Optional<TownClaim> getClaimAtPosition(BenchmarkData data) {
+        index = (index + 1) & (BenchmarkData.SAMPLES - 1);
+        return data.plugin.getClaimAt(data.positions[index]);
+    }
+
+    @Benchmark
+    public List<TownClaim> getClaimsNear(BenchmarkData data) {
+        return data.claimWorld.getClaimsNear(next(data), 3, data.plugin);
+    }
+
+    private Chunk next(BenchmarkData data) {
+        index = (index + 1) & (BenchmarkData.SAMPLES - 1);
+        return data.chunks[index];
+    }
+
+}
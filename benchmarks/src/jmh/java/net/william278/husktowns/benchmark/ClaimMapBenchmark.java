@@ -0,0 +1,46 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.benchmark;
+
+import net.kyori.adventure.text.Component;
+import net.william278.husktowns.map.ClaimMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks rendering the claim map shown by {@code /town map}
+ */
+@State(Scope.Thread)
+public class ClaimMapBenchmark {
+
+    private int index;
+
+    @Benchmark
+    public Component toComponent(BenchmarkData data) {
+        index = (index + 1) & (BenchmarkData.SAMPLES - 1);
+        return ClaimMap.builder(data.plugin)
+            .center(data.chunks[index])
+            .world(data.world)
+            .build()
+            .toComponent(data.sampleUsers[index]);
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.benchmark;
+
+import de.themoep.minedown.adventure.MineDown;
+import net.kyori.adventure.text.Component;
+import net.william278.husktowns.config.Locales;
+import net.william278.husktowns.town.Town;
+import org.apache.commons.text.StringEscapeUtils;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+
+/**
+ * Benchmarks formatting the town entry and wilderness messages sent on every chunk crossing, comparing the compiled
+ * locale templates against parsing the raw locale on every call
+ */
+@State(Scope.Thread)
+public class LocaleBenchmark {
+
+    private int index;
+    private String rawEntering;
+    private String rawWilderness;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkData data) {
+        rawEntering = data.plugin.getLocales().getRawLocale("entering_town").orElseThrow();
+        rawWilderness = data.plugin.getLocales().getRawLocale("wilderness").orElseThrow();
+    }
+
+    @Benchmark
+    public Component templateWithReplacements(BenchmarkData data) {
+        final Town town = nextTown(data);
+        return data.plugin.getLocales()
+            .getLocaleComponent("entering_town", town.getName(), town.getColorRgb())
+            .orElseThrow();
+    }
+
+    @Benchmark
+    public Component parsedWithReplacements(BenchmarkData data) {
+        final Town town = nextTown(data);
+        return parse(rawEntering, town.getName(), town.getColorRgb());
+    }
+
+    @Benchmark
+    public Component templateWithoutReplacements(BenchmarkData data) {
+        return data.plugin.getLocales().getLocaleComponent("wilderness").orElseThrow();
+    }
+
+    @Benchmark
+    public Component parsedWithoutReplacements() {
+        return parse(rawWilderness);
+    }
+
+    @NotNull
+    private Town nextTown(@NotNull BenchmarkData data) {
+        index = (index + 1) % BenchmarkData.TOWNS;
+        return data.towns.get(index);
+    }
+
+    // The path locales took before they were compiled: unescape, replace each placeholder in turn, then parse
+    @NotNull
+    private static Component parse(@NotNull String locale, @NotNull String... replacements) {
+        String raw = StringEscapeUtils.unescapeJava(locale);
+        final String[] escaped = Arrays.stream(replacements).map(Locales::escapeText).toArray(String[]::new);
+        for (int i = 0; i < escaped.length; i++) {
+            raw = raw.replace("%" + (i + 1) + "%", escaped[i]);
+        }
+        return new MineDown(raw).toComponent();
+    }
+
+}
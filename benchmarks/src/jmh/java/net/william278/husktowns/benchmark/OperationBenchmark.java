@@ -0,0 +1,68 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.benchmark;
+
+import net.william278.cloplib.operation.Operation;
+import net.william278.cloplib.operation.OperationType;
+import net.william278.husktowns.claim.Claim;
+import net.william278.husktowns.claim.Rules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks checking whether to cancel operations, and the rule checks they rely on
+ */
+@State(Scope.Thread)
+public class OperationBenchmark {
+
+    private static final OperationType[] TYPES = {
+        OperationType.BLOCK_BREAK, OperationType.BLOCK_PLACE,
+        OperationType.BLOCK_INTERACT, OperationType.CONTAINER_OPEN
+    };
+
+    private static final OperationType[] NATURE_TYPES = {
+        OperationType.EXPLOSION_DAMAGE_TERRAIN, OperationType.MONSTER_DAMAGE_TERRAIN
+    };
+
+    private int index;
+
+    @Benchmark
+    public boolean cancelOperation(BenchmarkData data) {
+        index = (index + 1) & (BenchmarkData.SAMPLES - 1);
+        return data.plugin.cancelOperation(Operation.of(data.sampleUsers[index],
+            TYPES[index & (TYPES.length - 1)], data.positions[index]));
+    }
+
+    @Benchmark
+    public boolean cancelOperationWithoutUser(BenchmarkData data) {
+        index = (index + 1) & (BenchmarkData.SAMPLES - 1);
+        return data.plugin.cancelOperation(Operation.of(
+            NATURE_TYPES[index & (NATURE_TYPES.length - 1)], data.positions[index]));
+    }
+
+    @Benchmark
+    public boolean rulesCancelOperation(BenchmarkData data) {
+        index = (index + 1) & (BenchmarkData.SAMPLES - 1);
+        final Rules rules = data.towns.get(index).getRules().get(Claim.Type.CLAIM);
+        return rules.cancelOperation(TYPES[index & (TYPES.length - 1)], data.plugin.getFlags());
+    }
+
+}
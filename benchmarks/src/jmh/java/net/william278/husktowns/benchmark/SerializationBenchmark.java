@@ -0,0 +1,60 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.benchmark;
+
+import net.william278.husktowns.claim.ClaimWorld;
+import net.william278.husktowns.town.Town;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks serializing and deserializing towns and claim worlds, as done when saving and loading them
+ */
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    private int index;
+    private String claimWorldJson;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkData data) {
+        claimWorldJson = data.plugin.getGson().toJson(data.claimWorld);
+    }
+
+    @Benchmark
+    public Town townRoundTrip(BenchmarkData data) {
+        index = (index + 1) % BenchmarkData.TOWNS;
+        return data.plugin.getTownFromJson(data.plugin.getGson().toJson(data.towns.get(index)));
+    }
+
+    @Benchmark
+    public String claimWorldToJson(BenchmarkData data) {
+        return data.plugin.getGson().toJson(data.claimWorld);
+    }
+
+    @Benchmark
+    public ClaimWorld claimWorldFromJson(BenchmarkData data) {
+        return data.plugin.getClaimWorldFromJson(claimWorldJson);
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.benchmark;
+
+import net.william278.husktowns.town.Member;
+import net.william278.husktowns.town.Privilege;
+import net.william278.husktowns.town.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Optional;
+
+/**
+ * Benchmarks looking up users' towns and checking their role privileges
+ */
+@State(Scope.Thread)
+public class TownBenchmark {
+
+    private static final Privilege[] PRIVILEGES = Privilege.values();
+
+    private int index;
+
+    @Benchmark
+    public Optional<Member> getUserTown(BenchmarkData data) {
+        index = (index + 1) & (BenchmarkData.SAMPLES - 1);
+        return data.plugin.getUserTown(data.sampleUsers[index]);
+    }
+
+    @Benchmark
+    public boolean memberHasPrivilege(BenchmarkData data) {
+        index = (index + 1) & (BenchmarkData.SAMPLES - 1);
+        final Member mayor = data.plugin.getUserTown(data.users.get(index % BenchmarkData.ONLINE_USERS))
+            .orElseThrow();
+        return mayor.hasPrivilege(data.plugin, PRIVILEGES[index % PRIVILEGES.length]);
+    }
+
+    @Benchmark
+    public boolean roleHasPrivilege(BenchmarkData data) {
+        index = (index + 1) & (BenchmarkData.SAMPLES - 1);
+        final Role role = data.plugin.getRoles().fromWeight(data.plugin.getRoles().getDefaultRole().getWeight())
+            .orElseThrow();
+        return role.hasPrivilege(data.plugin, PRIVILEGES[index % PRIVILEGES.length]);
+    }
+
+}
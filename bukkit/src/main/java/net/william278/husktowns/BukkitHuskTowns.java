@@ -34,6 +34,7 @@ import net.roxeez.advancement.trigger.TriggerType;
 import net.william278.desertwell.util.Version;
 import net.william278.husktowns.advancement.Advancement;
 import net.william278.husktowns.api.BukkitHuskTownsAPI;
+import net.william278.husktowns.claim.ClaimTracker;
 import net.william278.husktowns.claim.ClaimWorld;
 import net.william278.husktowns.claim.Position;
 import net.william278.husktowns.claim.World;
@@ -46,7 +47,9 @@ import net.william278.husktowns.hook.map.BlueMapHook;
 import net.william278.husktowns.hook.map.DynmapHook;
 import net.william278.husktowns.hook.map.Pl3xMapHook;
 import net.william278.husktowns.listener.BukkitListener;
+import net.william278.husktowns.listener.OperationCache;
 import net.william278.husktowns.manager.Manager;
+import net.william278.husktowns.map.ClaimMapCache;
 import net.william278.husktowns.network.Broker;
 import net.william278.husktowns.network.PluginMessageBroker;
 import net.william278.husktowns.town.Invite;
@@ -54,10 +57,15 @@ import net.william278.husktowns.town.Town;
 import net.william278.husktowns.user.BukkitUser;
 import net.william278.husktowns.user.OnlineUser;
 import net.william278.husktowns.user.Preferences;
-import net.william278.husktowns.user.User;
 import net.william278.husktowns.util.BukkitTask;
+import net.william278.husktowns.util.GlobalUserList;
+import net.william278.husktowns.util.InactiveTownPruner;
+import net.william278.husktowns.util.OnlineMemberIndex;
+import net.william278.husktowns.util.TownNameIndex;
+import net.william278.husktowns.util.PerformanceMetrics;
 import net.william278.husktowns.util.Validator;
 import net.william278.husktowns.visualizer.Visualizer;
+import net.william278.husktowns.visualizer.VisualizerTicker;
 import org.bstats.bukkit.Metrics;
 import org.bstats.charts.SimplePie;
 import org.bukkit.Bukkit;
@@ -100,8 +108,22 @@ public class BukkitHuskTowns extends JavaPlugin implements HuskTowns, BukkitTask
     private final Map<UUID, Deque<Invite>> invites = Maps.newConcurrentMap();
     private final Map<UUID, Preferences> userPreferences = Maps.newConcurrentMap();
     private final Map<UUID, Visualizer> visualizers = Maps.newConcurrentMap();
-    private final Map<String, List<User>> globalUserList = Maps.newConcurrentMap();
+    private final VisualizerTicker visualizerTicker = new VisualizerTicker(this);
+    private final GlobalUserList networkUserList = new GlobalUserList();
+    private final PerformanceMetrics metrics = new PerformanceMetrics();
     private final Validator validator = new Validator(this);
+    private final ClaimTracker claimTracker = new ClaimTracker(this);
+    private final OperationCache operationCache = new OperationCache(this);
+    private final ClaimMapCache claimMapCache = new ClaimMapCache(this);
+    private final InactiveTownPruner townPruner = new InactiveTownPruner(this);
+    private final OnlineMemberIndex onlineMemberIndex = new OnlineMemberIndex(this);
+    private final TownNameIndex townNameIndex = new TownNameIndex(this);
+    @Getter(AccessLevel.NONE)
+    private final Map<UUID, World> worldHandles = Maps.newConcurrentMap();
+    @Getter(AccessLevel.NONE)
+    private final Map<UUID, BukkitUser> onlineUsers = Maps.newConcurrentMap();
+    @Getter(AccessLevel.NONE)
+    private final Set<UUID> quittingUsers = Sets.newConcurrentHashSet();
     @Setter
     private boolean loaded = false;
     @Setter
@@ -215,6 +237,7 @@ public class BukkitHuskTowns extends JavaPlugin implements HuskTowns, BukkitTask
 
         // Register event listener
         new BukkitListener(this).register();
+        getRepeatingTask(this::reconcileGlobalUserList, USER_LIST_RECONCILIATION_TICKS).run();
 
         // Register API
         BukkitHuskTownsAPI.register(this);
@@ -227,10 +250,16 @@ public class BukkitHuskTowns extends JavaPlugin implements HuskTowns, BukkitTask
 
     @Override
     public void onDisable() {
+        townPruner.cancel();
+        if (manager != null) {
+            manager.close();
+        }
         if (database != null) {
             getDatabase().close();
         }
         visualizers.values().forEach(Visualizer::cancel);
+        visualizerTicker.cancel();
+        getMapHook().ifPresent(MapHook::cancelUpdates);
         getMessageBroker().ifPresent(Broker::close);
         log(Level.INFO, "Disabled HuskTowns v" + getVersion());
     }
@@ -266,10 +295,60 @@ public class BukkitHuskTowns extends JavaPlugin implements HuskTowns, BukkitTask
     @NotNull
     public List<World> getWorlds() {
         return Bukkit.getWorlds().stream()
-            .map(world -> World.of(
-                world.getUID(), world.getName(),
-                world.getEnvironment().name().toLowerCase())
-            ).toList();
+            .map(this::getWorld)
+            .toList();
+    }
+
+    /**
+     * Get the {@link World} for a Bukkit world. The same instance is returned for a world each time it is requested
+     *
+     * @param world the Bukkit world
+     * @return the world
+     */
+    @NotNull
+    public World getWorld(@NotNull org.bukkit.World world) {
+        final World handle = worldHandles.get(world.getUID());
+        if (handle != null) {
+            return handle;
+        }
+        return worldHandles.computeIfAbsent(world.getUID(), uuid -> World.of(
+            uuid, world.getName(), world.getEnvironment().name().toLowerCase()));
+    }
+
+    public void unloadWorld(@NotNull org.bukkit.World world) {
+        worldHandles.remove(world.getUID());
+    }
+
+    /**
+     * Get the {@link BukkitUser} for a player. While the player is online, the same instance is returned each time.
+     * Players who are quitting are not cached again, even though they are still online until the end of the tick
+     *
+     * @param player the player
+     * @return the user
+     */
+    @NotNull
+    public BukkitUser getOnlineUser(@NotNull Player player) {
+        final BukkitUser cached = onlineUsers.get(player.getUniqueId());
+        if (cached != null && cached.getPlayer() == player) {
+            return cached;
+        }
+        final BukkitUser user = BukkitUser.create(player, this);
+        if (player.isOnline() && !quittingUsers.contains(player.getUniqueId())) {
+            onlineUsers.put(player.getUniqueId(), user);
+        }
+        return user;
+    }
+
+    public void removeOnlineUser(@NotNull Player player) {
+        final UUID uuid = player.getUniqueId();
+        quittingUsers.add(uuid);
+        onlineUsers.remove(uuid);
+
+        // The player stays online for the rest of the tick; stop treating them as quitting once they have left
+        runSyncDelayed(() -> {
+            quittingUsers.remove(uuid);
+            onlineUsers.computeIfPresent(uuid, (id, cached) -> cached.getPlayer() == player ? null : cached);
+        }, null, 1L);
     }
 
     @Override
@@ -312,7 +391,7 @@ public class BukkitHuskTowns extends JavaPlugin implements HuskTowns, BukkitTask
     @NotNull
     public List<? extends OnlineUser> getOnlineUsers() {
         return Bukkit.getOnlinePlayers().stream()
-            .map(p -> BukkitUser.adapt(p, this))
+            .map(this::getOnlineUser)
             .toList();
     }
 
@@ -374,6 +453,11 @@ public class BukkitHuskTowns extends JavaPlugin implements HuskTowns, BukkitTask
     public void setTowns(@NotNull List<Town> towns) {
         this.towns.clear();
         this.towns.addAll(towns);
+        this.claimTracker.invalidate();
+        this.operationCache.invalidate();
+        this.claimMapCache.invalidate();
+        this.onlineMemberIndex.rebuild();
+        this.townNameIndex.rebuild();
     }
 
     @Override
@@ -495,7 +495,7 @@ public class BukkitHuskTownsAPI extends HuskTownsAPI {
      */
     @NotNull
     public World getWorld(@NotNull org.bukkit.World world) {
-        return World.of(world.getUID(), world.getName(), world.getEnvironment().name().toLowerCase());
+        return ((BukkitHuskTowns) plugin).getWorld(world);
     }
 
 }
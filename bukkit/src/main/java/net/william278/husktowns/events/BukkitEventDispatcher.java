@@ -31,6 +31,8 @@ import net.william278.husktowns.war.War;
 import org.bukkit.Bukkit;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+
 public interface BukkitEventDispatcher extends EventDispatcher {
 
     @Override
@@ -51,6 +53,20 @@ public interface BukkitEventDispatcher extends EventDispatcher {
         return new UnClaimEvent((BukkitUser) user, claim);
     }
 
+    @Override
+    @NotNull
+    default IBulkClaimEvent getBulkClaimEvent(@NotNull OnlineUser user, @NotNull Town town,
+                                              @NotNull List<TownClaim> claims) {
+        return new BulkClaimEvent((BukkitUser) user, town, claims);
+    }
+
+    @Override
+    @NotNull
+    default IBulkUnClaimEvent getBulkUnClaimEvent(@NotNull OnlineUser user, @NotNull Town town,
+                                                  @NotNull List<TownClaim> claims) {
+        return new BulkUnClaimEvent((BukkitUser) user, town, claims);
+    }
+
     @Override
     @NotNull
     default IUnClaimAllEvent getUnClaimAllEvent(@NotNull OnlineUser user, @NotNull Town town) {
@@ -23,7 +23,6 @@ import net.luckperms.api.LuckPerms;
 import net.luckperms.api.context.*;
 import net.william278.cloplib.operation.OperationType;
 import net.william278.husktowns.HuskTowns;
-import net.william278.husktowns.claim.Position;
 import net.william278.husktowns.claim.Rules;
 import net.william278.husktowns.claim.TownClaim;
 import net.william278.husktowns.claim.World;
@@ -33,7 +32,6 @@ import net.william278.husktowns.town.Role;
 import net.william278.husktowns.town.Town;
 import net.william278.husktowns.user.BukkitUser;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import org.jetbrains.annotations.NotNull;
@@ -78,11 +76,8 @@ public class LuckPermsHook extends Hook {
     private record ClaimContextCalculator(@NotNull HuskTowns plugin) implements ContextCalculator<Player> {
         @Override
         public void calculate(@NotNull Player target, @NotNull ContextConsumer consumer) {
-            final Location location = target.getLocation();
-            final Optional<TownClaim> claim = plugin.getClaimAt(Position.at(
-                location.getBlockX(), location.getBlockY(), location.getBlockZ(),
-                World.of(target.getWorld().getUID(), target.getWorld().getName(),
-                    target.getWorld().getEnvironment().name().toLowerCase())));
+            final BukkitUser user = BukkitUser.adapt(target, plugin);
+            final Optional<TownClaim> claim = plugin.getClaimAt(user);
             if (claim.isEmpty()) {
                 final Rules wilderness = plugin.getRulePresets().getWildernessRules(plugin.getFlags());
                 setContextsFromRules(consumer, wilderness);
@@ -92,11 +87,10 @@ public class LuckPermsHook extends Hook {
             }
 
             final TownClaim townClaim = claim.get();
-            final Optional<Member> member = plugin.getUserTown(BukkitUser.adapt(target, plugin));
+            final Optional<Member> member = plugin.getUserTown(user);
             if (member.isPresent() && member.get().town().equals(townClaim.town())) {
-                final Member user = member.get();
                 consumer.accept(ContextKey.STANDING_IN_OWN_TOWN.getKey(plugin), "true");
-                if (user.hasPrivilege(plugin, Privilege.TRUSTED_ACCESS)) {
+                if (member.get().hasPrivilege(plugin, Privilege.TRUSTED_ACCESS)) {
                     consumer.accept(ContextKey.CAN_PLAYER_BUILD.getKey(plugin), "true");
                     consumer.accept(ContextKey.CAN_PLAYER_OPEN_CONTAINERS.getKey(plugin), "true");
                     consumer.accept(ContextKey.CAN_PLAYER_INTERACT.getKey(plugin), "true");
@@ -130,7 +124,8 @@ public class LuckPermsHook extends Hook {
             // Claim town key contexts
             final HashSet<Integer> claimedTowns = new HashSet<>();
             for (final World world : plugin.getWorlds()) {
-                plugin.getClaimWorld(world).ifPresent(claimWorld -> claimedTowns.addAll(claimWorld.getClaims().keySet()));
+                plugin.getClaimWorld(world).ifPresent(claimWorld -> claimedTowns.addAll(
+                    claimWorld.getTownClaimCounts().keySet()));
             }
             for (int town : claimedTowns) {
                 builder.add(ContextKey.CLAIM_TOWN_KEY.getKey(plugin), plugin.getTowns().stream()
@@ -148,7 +148,7 @@ public class PlaceholderAPIHook extends Hook {
         @Nullable
         public String getCurrentLocation(@NotNull OnlineUser player, @NotNull String identifier) {
             return switch (identifier) {
-                case "town" -> plugin.getClaimAt(player.getPosition())
+                case "town" -> plugin.getClaimAt(player)
                     .map(TownClaim::town)
                     .map(Town::getName)
                     .orElse(plugin.getLocales().getRawLocale("placeholder_wilderness")
@@ -165,7 +165,7 @@ public class PlaceholderAPIHook extends Hook {
                     Operation.of(player, OperationType.CONTAINER_OPEN, player.getPosition(), true)
                 ));
 
-                case "claim_type" -> plugin.getClaimAt(player.getPosition())
+                case "claim_type" -> plugin.getClaimAt(player)
                     .map(TownClaim::claim)
                     .map(Claim::getType)
                     .map(Claim.Type::name)
@@ -173,7 +173,7 @@ public class PlaceholderAPIHook extends Hook {
                     .orElse(plugin.getLocales().getRawLocale("placeholder_wilderness")
                         .orElse("Wilderness"));
 
-                case "plot_members" -> plugin.getClaimAt(player.getPosition())
+                case "plot_members" -> plugin.getClaimAt(player)
                     .map(townClaim -> {
                         final Claim claim = townClaim.claim();
                         if (claim.getType() != Claim.Type.PLOT) {
@@ -188,7 +188,7 @@ public class PlaceholderAPIHook extends Hook {
                     .orElse(plugin.getLocales().getRawLocale("placeholder_not_claimed")
                         .orElse("Not claimed"));
 
-                case "plot_managers" -> plugin.getClaimAt(player.getPosition())
+                case "plot_managers" -> plugin.getClaimAt(player)
                     .map(townClaim -> {
                         final Claim claim = townClaim.claim();
                         if (claim.getType() != Claim.Type.PLOT) {
@@ -204,12 +204,12 @@ public class PlaceholderAPIHook extends Hook {
                     .orElse(plugin.getLocales().getRawLocale("placeholder_not_claimed")
                         .orElse("Not claimed"));
 
-                case "town_color" -> plugin.getClaimAt(player.getPosition())
+                case "town_color" -> plugin.getClaimAt(player)
                     .map(TownClaim::town)
                     .map(Town::getColorRgb)
                     .orElse(WILDERNESS_COLOR);
 
-                default -> identifier.startsWith("town_") ? plugin.getClaimAt(player.getPosition())
+                default -> identifier.startsWith("town_") ? plugin.getClaimAt(player)
                     .map(TownClaim::town)
                     .map(town -> resolveTownData(town, identifier.substring(5)))
                     .map(String::valueOf)
@@ -42,6 +42,7 @@ import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Locale;
@@ -71,7 +72,8 @@ public class BukkitListener extends BukkitOperationListener implements ClaimsLis
         final Location location = e.getLocation();
         final CreatureSpawnEvent.SpawnReason reason = e.getSpawnReason();
         if (reason == CreatureSpawnEvent.SpawnReason.SPAWNER) {
-            getPlugin().getClaimAt((Position) getPosition(location)).ifPresent(claim -> {
+            final World world = plugin.getWorld(entity.getWorld());
+            getPlugin().getClaimAt(world, location.getBlockX(), location.getBlockZ()).ifPresent(claim -> {
                 if (claim.claim().getType() != Claim.Type.FARM) {
                     return;
                 }
@@ -94,6 +96,16 @@ public class BukkitListener extends BukkitOperationListener implements ClaimsLis
         getPlugin().handlePlayerQuit(BukkitUser.adapt(e.getPlayer(), plugin));
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuitMonitor(@NotNull PlayerQuitEvent e) {
+        plugin.removeOnlineUser(e.getPlayer());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onWorldUnload(@NotNull WorldUnloadEvent e) {
+        plugin.unloadWorld(e.getWorld());
+    }
+
     @EventHandler(ignoreCancelled = true)
     public void onPlayerChat(@NotNull AsyncPlayerChatEvent e) {
         if (getPlugin().handlePlayerChat(BukkitUser.adapt(e.getPlayer(), plugin), e.getMessage())) {
@@ -109,8 +121,7 @@ public class BukkitListener extends BukkitOperationListener implements ClaimsLis
         }
 
         final Block block = e.getBlock();
-        final Position position = (Position) getPosition(block.getLocation());
-        getPlugin().getClaimAt(position).ifPresent(claim -> {
+        getPlugin().getClaimAt(plugin.getWorld(block.getWorld()), block.getX(), block.getZ()).ifPresent(claim -> {
             if (claim.claim().getType() != Claim.Type.FARM) {
                 return;
             }
@@ -157,7 +168,7 @@ public class BukkitListener extends BukkitOperationListener implements ClaimsLis
         final org.bukkit.World world = Objects.requireNonNull(location.getWorld());
         return Position.at(
             location.getX(), location.getY(), location.getZ(),
-            World.of(world.getUID(), world.getName(), world.getEnvironment().name()),
+            plugin.getWorld(world),
             location.getYaw(), location.getPitch()
         );
     }
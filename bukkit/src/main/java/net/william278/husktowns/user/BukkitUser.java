@@ -47,27 +47,33 @@ public final class BukkitUser extends OnlineUser {
 
     @NotNull
     public static BukkitUser adapt(@NotNull Player player, @NotNull HuskTowns plugin) {
+        return ((BukkitHuskTowns) plugin).getOnlineUser(player);
+    }
+
+    @NotNull
+    public static BukkitUser create(@NotNull Player player, @NotNull HuskTowns plugin) {
         return new BukkitUser(player, plugin);
     }
 
     @Override
     @NotNull
     public Chunk getChunk() {
-        return Chunk.at(player.getLocation().getChunk().getX(), player.getLocation().getChunk().getZ());
+        final Location location = player.getLocation();
+        return Chunk.at(location.getBlockX() >> 4, location.getBlockZ() >> 4);
     }
 
     @Override
     @NotNull
     public Position getPosition() {
-        return Position.at(player.getLocation().getX(), player.getLocation().getY(), player.getLocation().getZ(),
-            getWorld(), player.getLocation().getYaw(), player.getLocation().getPitch());
+        final Location location = player.getLocation();
+        return Position.at(location.getX(), location.getY(), location.getZ(),
+            getWorld(), location.getYaw(), location.getPitch());
     }
 
     @Override
     @NotNull
     public World getWorld() {
-        return World.of(player.getWorld().getUID(), player.getWorld().getName(),
-            player.getWorld().getEnvironment().name().toLowerCase());
+        return ((BukkitHuskTowns) plugin).getWorld(player.getWorld());
     }
 
     @Override
@@ -82,6 +88,11 @@ public final class BukkitUser extends OnlineUser {
         return player.isSneaking();
     }
 
+    @Override
+    public int getViewDistance() {
+        return player.getServer().getViewDistance();
+    }
+
     @Override
     public void spawnMarkerParticle(@NotNull Position position, @NotNull TextColor color, int count) {
         if (PARTICLE == null) {
@@ -34,14 +34,17 @@ import net.william278.husktowns.config.ConfigProvider;
 import net.william278.husktowns.database.Database;
 import net.william278.husktowns.database.MySqlDatabase;
 import net.william278.husktowns.database.SqLiteDatabase;
+import net.william278.husktowns.database.TimedDatabase;
 import net.william278.husktowns.events.EventDispatcher;
 import net.william278.husktowns.hook.EconomyHook;
 import net.william278.husktowns.hook.HookManager;
 import net.william278.husktowns.hook.MapHook;
 import net.william278.husktowns.hook.TeleportationHook;
+import net.william278.husktowns.listener.OperationCache;
 import net.william278.husktowns.listener.OperationHandler;
 import net.william278.husktowns.listener.UserListener;
 import net.william278.husktowns.manager.Manager;
+import net.william278.husktowns.map.ClaimMapCache;
 import net.william278.husktowns.network.Broker;
 import net.william278.husktowns.network.PluginMessageBroker;
 import net.william278.husktowns.network.RedisBroker;
@@ -54,6 +57,7 @@ import net.william278.husktowns.user.Preferences;
 import net.william278.husktowns.user.User;
 import net.william278.husktowns.util.*;
 import net.william278.husktowns.visualizer.Visualizer;
+import net.william278.husktowns.visualizer.VisualizerTicker;
 import org.intellij.lang.annotations.Subst;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -86,6 +90,27 @@ public interface HuskTowns extends Task.Supplier, ConfigProvider, EventDispatche
     @NotNull
     Validator getValidator();
 
+    @NotNull
+    ClaimTracker getClaimTracker();
+
+    @NotNull
+    OperationCache getOperationCache();
+
+    @NotNull
+    ClaimMapCache getClaimMapCache();
+
+    @NotNull
+    InactiveTownPruner getTownPruner();
+
+    @NotNull
+    OnlineMemberIndex getOnlineMemberIndex();
+
+    @NotNull
+    TownNameIndex getTownNameIndex();
+
+    @NotNull
+    PerformanceMetrics getMetrics();
+
     @NotNull
     Map<UUID, Deque<Invite>> getInvites();
 
@@ -134,6 +159,8 @@ public interface HuskTowns extends Task.Supplier, ConfigProvider, EventDispatche
 
     default void setUserPreferences(@NotNull UUID uuid, @NotNull Preferences preferences) {
         getUserPreferences().put(uuid, preferences);
+        getOperationCache().invalidate(uuid);
+        getOnlineMemberIndex().updatePreferences(uuid, preferences);
     }
 
     default Optional<Preferences> getUserPreferences(@NotNull UUID uuid) {
@@ -158,11 +185,21 @@ public interface HuskTowns extends Task.Supplier, ConfigProvider, EventDispatche
 
     default void removeTown(@NotNull Town town) {
         getTowns().removeIf(t -> t.getId() == town.getId());
+        getClaimTracker().invalidate(town.getId());
+        getOperationCache().invalidate(town.getId());
+        getClaimMapCache().removeTown(town.getId());
+        getOnlineMemberIndex().removeTown(town.getId());
+        getTownNameIndex().removeTown(town.getId());
     }
 
     default void updateTown(@NotNull Town town) {
-        removeTown(town);
+        getTowns().removeIf(t -> t.getId() == town.getId());
         getTowns().add(town);
+        getClaimTracker().updateTown(town);
+        getOperationCache().invalidate(town.getId());
+        getClaimMapCache().updateTown(town);
+        getOnlineMemberIndex().updateTown(town);
+        getTownNameIndex().updateTown(town);
     }
 
     default Optional<Member> getUserTown(@NotNull User user) throws IllegalStateException {
@@ -222,6 +259,7 @@ public interface HuskTowns extends Task.Supplier, ConfigProvider, EventDispatche
         }
         setClaimWorlds(loadedWorlds);
         final Collection<ClaimWorld> claimWorlds = getClaimWorlds().values();
+        claimWorlds.forEach(claimWorld -> getDatabase().rebuildClaimIndex(claimWorld));
         final int claimCount = claimWorlds.stream().mapToInt(ClaimWorld::getClaimCount).sum();
         final int worldCount = claimWorlds.size();
         log(Level.INFO, "Loaded " + claimCount + " claim(s) across " + worldCount + " world(s) in " +
@@ -255,13 +293,50 @@ public interface HuskTowns extends Task.Supplier, ConfigProvider, EventDispatche
     Map<String, ClaimWorld> getClaimWorlds();
 
     default Optional<TownClaim> getClaimAt(@NotNull Chunk chunk, @NotNull World world) {
-        return Optional.ofNullable(getClaimWorlds().get(world.getName()))
-            .flatMap(claimWorld -> claimWorld.getClaimAt(chunk, this));
+        final PerformanceMetrics.Timer timer = getMetrics().claimLookups();
+        final long start = timer.start();
+        try {
+            return Optional.ofNullable(getClaimWorlds().get(world.getName()))
+                .flatMap(claimWorld -> claimWorld.getClaimAt(chunk, this));
+        } finally {
+            timer.stop(start);
+        }
     }
 
     default Optional<TownClaim> getClaimAt(@NotNull Position position) {
-        return Optional.ofNullable(getClaimWorlds().get(position.getWorld().getName()))
-            .flatMap(claimWorld -> claimWorld.getClaimAt(position.getChunk(), this));
+        return getClaimAt(position.getWorld(), (int) Math.floor(position.getX()), (int) Math.floor(position.getZ()));
+    }
+
+    /**
+     * Get the claim at a block position in a world
+     *
+     * @param world  the world
+     * @param blockX the x coordinate of the block
+     * @param blockZ the z coordinate of the block
+     * @return the claim at the block, if any
+     */
+    default Optional<TownClaim> getClaimAt(@NotNull World world, int blockX, int blockZ) {
+        final PerformanceMetrics.Timer timer = getMetrics().claimLookups();
+        final long start = timer.start();
+        try {
+            final ClaimWorld claimWorld = getClaimWorlds().get(world.getName());
+            if (claimWorld == null) {
+                return Optional.empty();
+            }
+            return claimWorld.getClaimAt(blockX >> 4, blockZ >> 4, this);
+        } finally {
+            timer.stop(start);
+        }
+    }
+
+    /**
+     * Get the claim an online user is standing in, using the claim tracked for them where possible
+     *
+     * @param user the user
+     * @return the claim the user is standing in, if any
+     */
+    default Optional<TownClaim> getClaimAt(@NotNull OnlineUser user) {
+        return getClaimTracker().getClaimAt(user);
     }
 
     default Optional<ClaimWorld> getClaimWorld(@NotNull World world) {
@@ -276,6 +351,9 @@ public interface HuskTowns extends Task.Supplier, ConfigProvider, EventDispatche
     @NotNull
     Map<UUID, Visualizer> getVisualizers();
 
+    @NotNull
+    VisualizerTicker getVisualizerTicker();
+
     default void highlightClaims(@NotNull OnlineUser user, @NotNull List<TownClaim> claim, final long duration) {
         // Display for 5 seconds
         this.stopHighlightingClaims(user);
@@ -322,6 +400,7 @@ public interface HuskTowns extends Task.Supplier, ConfigProvider, EventDispatche
     default void reload() {
         setLoaded(false);
         loadConfig();
+        getClaimMapCache().invalidate();
         loadData();
     }
 
@@ -343,7 +422,7 @@ public interface HuskTowns extends Task.Supplier, ConfigProvider, EventDispatche
         };
         database.initialize();
         log(Level.INFO, "Successfully initialized the " + databaseType.getDisplayName() + " database");
-        return database;
+        return new TimedDatabase(this, database);
     }
 
     @Nullable
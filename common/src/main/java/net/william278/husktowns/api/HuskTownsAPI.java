@@ -19,7 +19,6 @@
 
 package net.william278.husktowns.api;
 
-import de.themoep.minedown.adventure.MineDown;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import net.kyori.adventure.text.Component;
@@ -30,6 +29,7 @@ import net.william278.cloplib.operation.OperationUser;
 import net.william278.husktowns.HuskTowns;
 import net.william278.husktowns.advancement.Advancement;
 import net.william278.husktowns.claim.*;
+import net.william278.husktowns.manager.ClaimsManager;
 import net.william278.husktowns.map.ClaimMap;
 import net.william278.husktowns.town.Member;
 import net.william278.husktowns.town.Privilege;
@@ -38,6 +38,7 @@ import net.william278.husktowns.user.OnlineUser;
 import net.william278.husktowns.user.Preferences;
 import net.william278.husktowns.user.SavedUser;
 import net.william278.husktowns.user.User;
+import net.william278.husktowns.util.PerformanceMetrics;
 import net.william278.husktowns.util.Validator;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
@@ -201,6 +202,8 @@ public class HuskTownsAPI {
      * @since 2.0
      */
     public void updateClaimWorld(@NotNull ClaimWorld claimWorld) {
+        // The claim world may have been edited in ways that don't change its version, so discard cached decisions
+        plugin.getOperationCache().invalidate();
         plugin.runAsync(() -> {
             plugin.getClaimWorlds().replaceAll((k, v) -> v.getId() == claimWorld.getId() ? claimWorld : v);
             plugin.getDatabase().updateClaimWorld(claimWorld);
@@ -250,6 +253,24 @@ public class HuskTownsAPI {
             .orElse(List.of());
     }
 
+    /**
+     * Get the plots a user is a member or manager of, in each {@link World} on this server
+     *
+     * @param uuid The UUID of the user to get the plots of
+     * @return A map of each {@link World} to the plots the user is a member of there; worlds where they have no plots
+     * are omitted
+     * @since 3.1
+     */
+    @NotNull
+    public Map<World, List<TownClaim>> getPlotsOf(@NotNull UUID uuid) {
+        final Map<World, List<TownClaim>> plots = new HashMap<>();
+        plugin.getWorlds().forEach(world -> getClaimWorld(world)
+            .map(claimWorld -> claimWorld.getPlotsOf(uuid, plugin))
+            .filter(worldPlots -> !worldPlots.isEmpty())
+            .ifPresent(worldPlots -> plots.put(world, worldPlots)));
+        return plots;
+    }
+
     /**
      * Get a {@link TownClaim} at a {@link Chunk} in a {@link World}, if it exists.
      *
@@ -399,6 +420,101 @@ public class HuskTownsAPI {
         deleteClaimAt(actor, position.getChunk(), position.getWorld());
     }
 
+    /**
+     * Create claims for a town across an area of chunks at once. The claim world is saved, and the town edited, only
+     * once for the whole area.
+     *
+     * @param actor  The actor to use for creating the claims. Note that this user does not necessarily have to be a
+     *               member of the town where the claims are being created.
+     * @param town   The town to create the claims for
+     * @param chunks The chunks to make claims in; see {@link #getChunksInRectangle(Chunk, Chunk)},
+     *               {@link #getChunksInRadius(Chunk, int)} and {@link #getEnclosedArea(Town, Chunk, World, int)}
+     * @param world  The world the claims are in
+     * @throws IllegalArgumentException if any of the chunks has already been claimed
+     * @since 3.1
+     */
+    public void createClaimsAt(@NotNull OnlineUser actor, @NotNull Town town, @NotNull Collection<Chunk> chunks,
+                               @NotNull World world) throws IllegalArgumentException {
+        final List<TownClaim> claims = new ArrayList<>();
+        for (Chunk chunk : new LinkedHashSet<>(chunks)) {
+            if (getClaimAt(chunk, world).isPresent()) {
+                throw new IllegalArgumentException("A claim already exists at " + chunk);
+            }
+            claims.add(new TownClaim(town, Claim.at(chunk)));
+        }
+
+        plugin.runAsync(() -> plugin.getManager().claims().createClaimsData(actor, town, claims, world));
+    }
+
+    /**
+     * Delete a town's claims across an area of chunks at once. Chunks in the area that the town has not claimed are
+     * ignored.
+     *
+     * @param actor  The actor for use for deleting the claims. Note that this user does not necessarily have to have
+     *               the permission or privileges to delete the claims.
+     * @param town   The town to delete the claims of
+     * @param chunks The chunks to delete claims at
+     * @param world  The world the claims are in
+     * @since 3.1
+     */
+    public void deleteClaimsAt(@NotNull OnlineUser actor, @NotNull Town town, @NotNull Collection<Chunk> chunks,
+                               @NotNull World world) {
+        final List<TownClaim> claims = new LinkedHashSet<>(chunks).stream()
+            .map(chunk -> getClaimAt(chunk, world))
+            .flatMap(Optional::stream)
+            .filter(claim -> claim.town().getId() == town.getId())
+            .toList();
+        if (claims.isEmpty()) {
+            return;
+        }
+
+        plugin.runAsync(() -> plugin.getManager().claims().deleteClaimsData(actor, town, claims, world));
+    }
+
+    /**
+     * Get the chunks in a rectangle between two corner chunks, inclusive
+     *
+     * @param from One corner of the rectangle
+     * @param to   The opposite corner of the rectangle
+     * @return the chunks in the rectangle
+     * @since 3.1
+     */
+    @NotNull
+    public List<Chunk> getChunksInRectangle(@NotNull Chunk from, @NotNull Chunk to) {
+        return ClaimsManager.getRectangle(from, to);
+    }
+
+    /**
+     * Get the chunks in a square around a chunk
+     *
+     * @param center The chunk at the center of the square
+     * @param radius The number of chunks the square extends out from the center in each direction
+     * @return the chunks in the square
+     * @since 3.1
+     */
+    @NotNull
+    public List<Chunk> getChunksInRadius(@NotNull Chunk center, int radius) {
+        return ClaimsManager.getRadius(center, radius);
+    }
+
+    /**
+     * Get the area of unclaimed chunks around a chunk that is enclosed by a town's claims
+     *
+     * @param town      The town whose claims enclose the area
+     * @param start     A chunk within the area
+     * @param world     The world the area is in
+     * @param maxChunks The most chunks the area may contain
+     * @return the chunks in the area, or an empty optional if the world is not claimable or the area is not enclosed
+     * within {@code maxChunks} chunks
+     * @since 3.1
+     */
+    @NotNull
+    public Optional<List<Chunk>> getEnclosedArea(@NotNull Town town, @NotNull Chunk start, @NotNull World world,
+                                                 int maxChunks) {
+        return getClaimWorld(world).flatMap(claimWorld -> plugin.getManager().claims()
+            .getEnclosedArea(claimWorld, town, start, maxChunks));
+    }
+
     /**
      * Update a town claim
      *
@@ -892,7 +1008,19 @@ public class HuskTownsAPI {
      * @since 2.0
      */
     public Optional<Component> getLocale(@NotNull String localeId, @NotNull String... replacements) {
-        return plugin.getLocales().getLocale(localeId, replacements).map(MineDown::toComponent);
+        return plugin.getLocales().getLocaleComponent(localeId, replacements);
+    }
+
+    /**
+     * Get a snapshot of the plugin's performance metrics, such as the latency of protection checks, claim lookups and
+     * database calls, and the number of cross-server messages sent and received
+     *
+     * @return a read-only snapshot of the plugin's performance metrics
+     * @since 3.1
+     */
+    @NotNull
+    public PerformanceMetrics.Snapshot getMetrics() {
+        return plugin.getMetrics().getSnapshot();
     }
 
     /**
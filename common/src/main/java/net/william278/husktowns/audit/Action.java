@@ -179,7 +179,9 @@ public class Action {
         DECLARED_WAR,
         START_WAR,
         WON_WAR,
-        LOST_WAR
+        LOST_WAR,
+        ADMIN_DELETE_CLAIMS,
+        ADMIN_TRANSFER_CLAIMS
     }
 
 }
@@ -57,6 +57,11 @@ public class Chunk implements OperationChunk {
         return x == chunk.x && z == chunk.z;
     }
 
+    @Override
+    public int hashCode() {
+        return Long.hashCode(asLong());
+    }
+
     @Override
     public String toString() {
         return "(x: " + x + ", z: " + z + ")";
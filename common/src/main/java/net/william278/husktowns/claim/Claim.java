@@ -41,6 +41,10 @@ public class Claim {
     @SerializedName("plot_members")
     private Map<UUID, Boolean> plotMembers;
 
+    // The claim world the claim is in, which indexes its plot members and is versioned by changes to it
+    @Nullable
+    private transient ClaimWorld claimWorld;
+
     private Claim(@NotNull Chunk chunk, @NotNull Type type, @Nullable Map<UUID, Boolean> plotMembers) {
         this.chunk = chunk;
         this.type = type == Type.CLAIM ? null : type;
@@ -54,9 +58,15 @@ public class Claim {
 
     public void setType(@NotNull Type type) {
         if (getType() == Type.PLOT && type != Type.PLOT) {
+            if (claimWorld != null) {
+                claimWorld.unindexPlotMembers(this);
+            }
             plotMembers = null;
         }
         this.type = type == Type.CLAIM ? null : type;
+        if (claimWorld != null) {
+            claimWorld.claimChanged();
+        }
     }
 
     public void setPlotMember(@NotNull UUID uuid, boolean manager) {
@@ -67,6 +77,10 @@ public class Claim {
             plotMembers = new HashMap<>();
         }
         plotMembers.put(uuid, manager);
+        if (claimWorld != null) {
+            claimWorld.indexPlotMember(uuid, chunk);
+            claimWorld.claimChanged();
+        }
     }
 
     public void removePlotMember(@NotNull UUID uuid) {
@@ -80,6 +94,10 @@ public class Claim {
         if (plotMembers.isEmpty()) {
             plotMembers = null;
         }
+        if (claimWorld != null) {
+            claimWorld.unindexPlotMember(uuid, chunk);
+            claimWorld.claimChanged();
+        }
     }
 
     public boolean isPlotMember(@NotNull UUID uuid) {
@@ -102,6 +120,16 @@ public class Claim {
         return plotMembers.getOrDefault(uuid, false);
     }
 
+    // Set the claim world the claim is in, or null when it is taken out of one
+    void setClaimWorld(@Nullable ClaimWorld claimWorld) {
+        this.claimWorld = claimWorld;
+    }
+
+    @Nullable
+    ClaimWorld getClaimWorld() {
+        return claimWorld;
+    }
+
     @NotNull
     public Chunk getChunk() {
         return chunk;
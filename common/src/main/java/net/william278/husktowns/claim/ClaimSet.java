@@ -0,0 +1,90 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.claim;
+
+import com.google.common.collect.Maps;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A concurrent set of claims, keyed by their {@link Chunk#asLong() packed} chunk, so a claim can be found, replaced or
+ * removed without searching the set.
+ * <p>
+ * The set is a {@link Collection}, so it is serialized as a plain array of claims, just like the queues claim worlds
+ * used to store their claims in. Adding a claim replaces any claim already in the set on the same chunk.
+ */
+final class ClaimSet extends AbstractCollection<Claim> {
+
+    private final Map<Long, Claim> claims = Maps.newConcurrentMap();
+
+    ClaimSet() {
+    }
+
+    ClaimSet(@NotNull Collection<Claim> claims) {
+        this.addAll(claims);
+    }
+
+    @Override
+    public boolean add(@NotNull Claim claim) {
+        return claims.put(claim.getChunk().asLong(), claim) != claim;
+    }
+
+    @Nullable
+    Claim get(long chunk) {
+        return claims.get(chunk);
+    }
+
+    @Nullable
+    Claim remove(long chunk) {
+        return claims.remove(chunk);
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        return object instanceof Claim claim && claims.remove(claim.getChunk().asLong(), claim);
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return object instanceof Claim claim && claims.get(claim.getChunk().asLong()) == claim;
+    }
+
+    @NotNull
+    @Override
+    public Iterator<Claim> iterator() {
+        return claims.values().iterator();
+    }
+
+    @Override
+    public int size() {
+        return claims.size();
+    }
+
+    @Override
+    public void clear() {
+        claims.clear();
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.claim;
+
+import com.google.common.collect.Maps;
+import net.william278.husktowns.HuskTowns;
+import net.william278.husktowns.town.Town;
+import net.william278.husktowns.user.OnlineUser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the claim each online user is standing in.
+ * <p>
+ * The tracked claim is updated as users cross between chunks, and is reused for as long as the user stays in the same
+ * chunk, the claims in the world haven't changed and the claim's town hasn't been deleted since it was looked up.
+ * <p>
+ * Tracked claims are returned with the latest copy of their town, so saving a town, such as when its balance, members
+ * or name change, doesn't invalidate any tracked claims.
+ */
+public class ClaimTracker {
+
+    private final HuskTowns plugin;
+    private final Map<UUID, TrackedClaim> tracked = Maps.newConcurrentMap();
+    private final Map<Integer, TrackedTown> towns = Maps.newConcurrentMap();
+    private final AtomicLong townsVersion = new AtomicLong();
+
+    public ClaimTracker(@NotNull HuskTowns plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Get the claim a user is currently standing in
+     *
+     * @param user the user
+     * @return the claim the user is standing in, if any
+     */
+    public Optional<TownClaim> getClaimAt(@NotNull OnlineUser user) {
+        return getClaimAt(user, user.getWorld(), user.getChunk());
+    }
+
+    /**
+     * Get the claim at a chunk a user is standing in, using the user's tracked claim if it is still valid
+     *
+     * @param user  the user
+     * @param world the world the user is in
+     * @param chunk the chunk the user is in
+     * @return the claim at the chunk, if any
+     */
+    public Optional<TownClaim> getClaimAt(@NotNull OnlineUser user, @NotNull World world, @NotNull Chunk chunk) {
+        final TrackedClaim claim = tracked.get(user.getUuid());
+        final ClaimWorld claimWorld = plugin.getClaimWorlds().get(world.getName());
+        if (claim == null || !claim.isValid(world, chunk, claimWorld, townsVersion.get())) {
+            return track(user, world, chunk, claimWorld);
+        }
+        if (claim.claim() == null) {
+            return Optional.empty();
+        }
+
+        // Check the claim's town hasn't been deleted, and return it with the latest copy of the town
+        final TownClaim townClaim = claim.claim();
+        final int townId = townClaim.town().getId();
+        if (townId == -1) {
+            return Optional.of(townClaim);
+        }
+        final TrackedTown town = towns.get(townId);
+        if (town == null || town.town() == null || town.version() != claim.townVersion()) {
+            return track(user, world, chunk, claimWorld);
+        }
+        return Optional.of(town.town() == townClaim.town() ? townClaim : new TownClaim(town.town(), townClaim.claim()));
+    }
+
+    /**
+     * Look up and track the claim at the chunk a user has moved into
+     *
+     * @param user  the user
+     * @param world the world the user is in
+     * @param chunk the chunk the user has moved into
+     * @return the claim at the chunk, if any
+     */
+    public Optional<TownClaim> track(@NotNull OnlineUser user, @NotNull World world, @NotNull Chunk chunk) {
+        return track(user, world, chunk, plugin.getClaimWorlds().get(world.getName()));
+    }
+
+    @NotNull
+    private Optional<TownClaim> track(@NotNull OnlineUser user, @NotNull World world, @NotNull Chunk chunk,
+                                      @Nullable ClaimWorld claimWorld) {
+        // Read the versions before looking up the claim, so a concurrent change invalidates the result
+        final long townsVersion = this.townsVersion.get();
+        final long claimsVersion = claimWorld == null ? 0 : claimWorld.getVersion();
+        final Optional<TownClaim> claim = claimWorld == null ? Optional.empty()
+            : claimWorld.getClaimAt(chunk, plugin);
+        final long townVersion = claim.map(TownClaim::town)
+            .filter(town -> town.getId() != -1)
+            .map(town -> towns.computeIfAbsent(town.getId(), id -> new TrackedTown(town, 0)).version())
+            .orElse(0L);
+        tracked.put(user.getUuid(), new TrackedClaim(world.getName(), chunk, claimWorld,
+            claimsVersion, townsVersion, townVersion, claim.orElse(null)));
+        return claim;
+    }
+
+    /**
+     * Stop tracking a user, such as when they leave the server
+     *
+     * @param uuid the user's UUID
+     */
+    public void untrack(@NotNull UUID uuid) {
+        tracked.remove(uuid);
+    }
+
+    /**
+     * Record the latest copy of a town that has been updated, so tracked claims in it are returned with that copy
+     *
+     * @param town the updated town
+     */
+    public void updateTown(@NotNull Town town) {
+        towns.compute(town.getId(), (id, previous) -> new TrackedTown(town, previous == null ? 0 : previous.version()));
+    }
+
+    /**
+     * Invalidate the tracked claims in a town, such as when the town is deleted
+     *
+     * @param townId the ID of the town
+     */
+    public void invalidate(int townId) {
+        towns.compute(townId, (id, previous) -> new TrackedTown(null, previous == null ? 1 : previous.version() + 1));
+    }
+
+    /**
+     * Invalidate all tracked claims, such as when the list of towns is reloaded
+     */
+    public void invalidate() {
+        townsVersion.incrementAndGet();
+        towns.clear();
+    }
+
+    // The latest copy of a town, and the version of the town, which changes whenever the town is deleted
+    private record TrackedTown(@Nullable Town town, long version) {
+    }
+
+    private record TrackedClaim(@NotNull String worldName, @NotNull Chunk chunk, @Nullable ClaimWorld claimWorld,
+                                long claimsVersion, long townsVersion, long townVersion, @Nullable TownClaim claim) {
+
+        private boolean isValid(@NotNull World world, @NotNull Chunk chunk, @Nullable ClaimWorld claimWorld,
+                                long townsVersion) {
+            return this.townsVersion == townsVersion && this.claimWorld == claimWorld
+                && (claimWorld == null || claimWorld.getVersion() == claimsVersion)
+                && this.chunk.equals(chunk) && worldName.equals(world.getName());
+        }
+    }
+
+}
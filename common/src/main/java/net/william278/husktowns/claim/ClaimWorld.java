@@ -20,7 +20,7 @@
 package net.william278.husktowns.claim;
 
 import com.google.common.collect.Maps;
-import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 import lombok.Getter;
@@ -28,43 +28,61 @@ import lombok.NoArgsConstructor;
 import net.william278.husktowns.HuskTowns;
 import net.william278.husktowns.town.Town;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @NoArgsConstructor
 public class ClaimWorld {
 
+    private static final int NO_OWNER = Integer.MIN_VALUE;
+
     @Getter
     private int id;
+    // Each town's claims, and the admin claims, are keyed by chunk; both serialize as arrays of claims
     @Expose
     @SerializedName("claims")
-    private ConcurrentMap<Integer, ConcurrentLinkedQueue<Claim>> claims = Maps.newConcurrentMap();
+    private ConcurrentMap<Integer, ClaimSet> claims = Maps.newConcurrentMap();
     @Expose
     @SerializedName("admin_claims")
-    private ConcurrentLinkedQueue<Claim> adminClaims = Queues.newConcurrentLinkedQueue();
+    private ClaimSet adminClaims = new ClaimSet();
 
     @Expose(deserialize = false, serialize = false)
     private transient Map<Long, CachedClaim> cachedClaims = Maps.newConcurrentMap();
 
-    private ClaimWorld(int id, @NotNull ConcurrentMap<Integer, ConcurrentLinkedQueue<Claim>> claims,
-                       @NotNull ConcurrentLinkedQueue<Claim> adminClaims) {
+    @Expose(deserialize = false, serialize = false)
+    private transient Set<Integer> changedTowns = Sets.newConcurrentHashSet();
+
+    @Expose(deserialize = false, serialize = false)
+    private transient AtomicLong version = new AtomicLong();
+
+    @Expose(deserialize = false, serialize = false)
+    private transient Set<Long> borderChunks = Sets.newConcurrentHashSet();
+
+    // The chunks of the plots each user is a member or manager of
+    @Expose(deserialize = false, serialize = false)
+    private transient Map<UUID, Set<Long>> plotChunks = Maps.newConcurrentMap();
+
+    private ClaimWorld(int id, @NotNull Map<Integer, ? extends Collection<Claim>> claims,
+                       @NotNull Collection<Claim> adminClaims) {
         this.id = id;
-        this.claims = claims;
-        this.adminClaims = adminClaims;
+        claims.forEach((townId, townClaims) -> this.claims.put(townId, new ClaimSet(townClaims)));
+        this.adminClaims = new ClaimSet(adminClaims);
         this.cacheClaims();
     }
 
     @NotNull
-    public static ClaimWorld of(int id, @NotNull ConcurrentMap<Integer, ConcurrentLinkedQueue<Claim>> claims,
-                                @NotNull ConcurrentLinkedQueue<Claim> adminClaims) {
+    public static ClaimWorld of(int id, @NotNull Map<Integer, ? extends Collection<Claim>> claims,
+                                @NotNull Collection<Claim> adminClaims) {
         return new ClaimWorld(id, claims, adminClaims);
     }
 
     public void cacheClaims() {
+        version.incrementAndGet();
         cachedClaims.clear();
         claims.forEach((key, value) -> value.forEach(claim -> this.cachedClaims.put(
             claim.getChunk().asLong(), new CachedClaim(key, claim)
@@ -72,6 +90,12 @@ public class ClaimWorld {
         adminClaims.forEach(claim -> this.cachedClaims.put(
             claim.getChunk().asLong(), new CachedClaim(-1, claim)
         ));
+        plotChunks.clear();
+        cachedClaims.values().forEach(cached -> attach(cached.claim()));
+        synchronized (borderChunks) {
+            borderChunks.clear();
+            cachedClaims.values().forEach(cached -> updateBorders(cached.claim().getChunk()));
+        }
     }
 
     private Optional<TownClaim> getClaimAt(long chunkLong, @NotNull HuskTowns plugin) {
@@ -82,6 +106,65 @@ public class ClaimWorld {
         return getClaimAt(chunk.asLong(), plugin);
     }
 
+    public Optional<TownClaim> getClaimAt(int chunkX, int chunkZ, @NotNull HuskTowns plugin) {
+        return getClaimAt(Chunk.asLong(chunkX, chunkZ), plugin);
+    }
+
+    /**
+     * Returns the version of this claim world's claims, which changes whenever a claim is added, replaced, removed or
+     * has its type or plot members changed
+     *
+     * @return the current version of this claim world's claims
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns whether a chunk is a border chunk; one whose owner (a town, or nobody) differs from the owner of at least
+     * one of the eight chunks around it. Two neighbouring chunks can only have different owners if both are border
+     * chunks.
+     *
+     * @param chunkX the x coordinate of the chunk
+     * @param chunkZ the z coordinate of the chunk
+     * @return whether the chunk is a border chunk
+     */
+    public boolean isBorderChunk(int chunkX, int chunkZ) {
+        return borderChunks.contains(Chunk.asLong(chunkX, chunkZ));
+    }
+
+    // Update whether a chunk and the chunks around it are border chunks, after the chunk's owner has changed
+    private void updateBorders(@NotNull Chunk chunk) {
+        synchronized (borderChunks) {
+            for (int x = chunk.getX() - 1; x <= chunk.getX() + 1; x++) {
+                for (int z = chunk.getZ() - 1; z <= chunk.getZ() + 1; z++) {
+                    if (isOwnerDifferentAround(x, z)) {
+                        borderChunks.add(Chunk.asLong(x, z));
+                    } else {
+                        borderChunks.remove(Chunk.asLong(x, z));
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isOwnerDifferentAround(int chunkX, int chunkZ) {
+        final int owner = getOwnerAt(chunkX, chunkZ);
+        for (int x = chunkX - 1; x <= chunkX + 1; x++) {
+            for (int z = chunkZ - 1; z <= chunkZ + 1; z++) {
+                if (getOwnerAt(x, z) != owner) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int getOwnerAt(int chunkX, int chunkZ) {
+        final CachedClaim cached = cachedClaims.get(Chunk.asLong(chunkX, chunkZ));
+        return cached == null ? NO_OWNER : cached.townId();
+    }
+
     /**
      * Update the ID of this claim world
      *
@@ -111,12 +194,48 @@ public class ClaimWorld {
 
     @NotNull
     public List<TownClaim> getTownClaims(int townId, @NotNull HuskTowns plugin) {
-        return cachedClaims.values().stream()
-            .filter(cachedClaim -> cachedClaim.townId == townId)
-            .map(cachedClaim -> cachedClaim.getTownClaim(plugin))
+        final ClaimSet townClaims = getClaimSet(townId);
+        if (townClaims == null || townClaims.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final Town town = townId == -1 ? plugin.getAdminTown() : plugin.findTown(townId)
+            .orElseThrow(() -> new IllegalStateException("Claim has invalid town ID: " + townId));
+        return townClaims.stream()
+            .map(claim -> new TownClaim(town, claim))
             .collect(Collectors.toList());
     }
 
+    /**
+     * Returns the number of claims each town has in this world, excluding admin claims
+     *
+     * @return a map of town IDs to the number of claims that town has in this world
+     */
+    @NotNull
+    public Map<Integer, Integer> getTownClaimCounts() {
+        return claims.entrySet().stream()
+            .filter(entry -> !entry.getValue().isEmpty())
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().size()));
+    }
+
+    /**
+     * Returns the claim counts of towns whose claims in this world have changed since this was last called,
+     * for updating the town claim index. Towns with no remaining claims are mapped to {@code 0}.
+     *
+     * @return a map of town IDs to the number of claims that town now has in this world
+     */
+    @NotNull
+    public Map<Integer, Integer> pollChangedTownClaimCounts() {
+        final Map<Integer, Integer> counts = new HashMap<>();
+        final Iterator<Integer> iterator = changedTowns.iterator();
+        while (iterator.hasNext()) {
+            final int townId = iterator.next();
+            iterator.remove();
+            final ClaimSet townClaims = claims.get(townId);
+            counts.put(townId, townClaims == null ? 0 : townClaims.size());
+        }
+        return counts;
+    }
+
     @NotNull
     @Unmodifiable
     public Map<Integer, List<Claim>> getClaims() {
@@ -139,51 +258,252 @@ public class ClaimWorld {
      * @return the number of claims removed
      */
     public int removeTownClaims(int townId) {
-        if (claims.containsKey(townId)) {
-            int claimCount = claims.get(townId).size();
-            claims.remove(townId);
-            cachedClaims.values().removeIf(cachedClaim -> cachedClaim.townId == townId);
-            return claimCount;
+        changedTowns.add(townId);
+        final ClaimSet removed = claims.remove(townId);
+        if (removed == null) {
+            return 0;
         }
-        return 0;
+        removed.forEach(claim -> uncache(townId, claim.getChunk()));
+        removed.forEach(claim -> updateBorders(claim.getChunk()));
+        version.incrementAndGet();
+        return removed.size();
     }
 
     public void addClaim(@NotNull TownClaim townClaim) {
-        if (!claims.containsKey(townClaim.town().getId())) {
-            claims.put(townClaim.town().getId(), new ConcurrentLinkedQueue<>());
-        }
-        claims.get(townClaim.town().getId()).add(townClaim.claim());
-        cachedClaims.put(townClaim.claim().getChunk().asLong(), new CachedClaim(townClaim.town().getId(), townClaim.claim()));
+        put(townClaim.town().getId(), townClaim.claim());
+        updateBorders(townClaim.claim().getChunk());
+        changedTowns.add(townClaim.town().getId());
+        version.incrementAndGet();
+    }
+
+    /**
+     * Add several claims for a town at once, changing the claim world's version only once
+     *
+     * @param town      the town the claims belong to
+     * @param newClaims the claims to add
+     */
+    public void addClaims(@NotNull Town town, @NotNull Collection<Claim> newClaims) {
+        newClaims.forEach(claim -> put(town.getId(), claim));
+        newClaims.forEach(claim -> updateBorders(claim.getChunk()));
+        changedTowns.add(town.getId());
+        version.incrementAndGet();
     }
 
     public void replaceClaim(@NotNull TownClaim townClaim, @NotNull HuskTowns plugin) {
         final Claim claim = townClaim.claim();
         if (townClaim.isAdminClaim(plugin)) {
-            adminClaims.removeIf(c -> c.getChunk().equals(claim.getChunk()));
-            adminClaims.add(claim);
-            cachedClaims.put(claim.getChunk().asLong(), new CachedClaim(-1, claim));
+            put(-1, claim);
         } else if (claims.containsKey(townClaim.town().getId())) {
-            claims.get(townClaim.town().getId()).removeIf(c -> c.getChunk().equals(claim.getChunk()));
-            claims.get(townClaim.town().getId()).add(claim);
-            cachedClaims.put(claim.getChunk().asLong(), new CachedClaim(townClaim.town().getId(), claim));
+            put(townClaim.town().getId(), claim);
         }
+        updateBorders(claim.getChunk());
+        version.incrementAndGet();
     }
 
     public void addAdminClaim(@NotNull Claim claim) {
-        cachedClaims.put(claim.getChunk().asLong(), new CachedClaim(-1, claim));
-        adminClaims.add(claim);
+        put(-1, claim);
+        updateBorders(claim.getChunk());
+        version.incrementAndGet();
     }
 
     public void removeClaim(@NotNull Town town, @NotNull Chunk chunk) {
-        if (claims.containsKey(town.getId())) {
-            claims.get(town.getId()).removeIf(claim -> claim.getChunk().equals(chunk));
-            cachedClaims.remove(chunk.asLong());
+        final ClaimSet townClaims = claims.get(town.getId());
+        if (townClaims != null) {
+            townClaims.remove(chunk.asLong());
+            uncache(town.getId(), chunk);
+            updateBorders(chunk);
+            changedTowns.add(town.getId());
+            version.incrementAndGet();
         }
     }
 
+    /**
+     * Remove several of a town's claims at once, changing the claim world's version only once
+     *
+     * @param town   the town the claims belong to
+     * @param chunks the chunks of the claims to remove; chunks not claimed by the town are ignored
+     * @return the number of claims removed
+     */
+    public int removeClaims(@NotNull Town town, @NotNull Collection<Chunk> chunks) {
+        return removeClaims(town.getId(), chunks);
+    }
+
+    /**
+     * Remove several claims of a town, which may no longer exist, at once, changing the claim world's version only once
+     *
+     * @param townId the ID of the town the claims belong to
+     * @param chunks the chunks of the claims to remove; chunks not claimed by the town are ignored
+     * @return the number of claims removed
+     */
+    public int removeClaims(int townId, @NotNull Collection<Chunk> chunks) {
+        final ClaimSet townClaims = claims.get(townId);
+        if (townClaims == null) {
+            return 0;
+        }
+        final int removed = removeFrom(townId, townClaims, chunks);
+        changedTowns.add(townId);
+        version.incrementAndGet();
+        return removed;
+    }
+
     public void removeAdminClaim(@NotNull Chunk chunk) {
-        cachedClaims.remove(chunk.asLong());
-        adminClaims.removeIf(claim -> claim.getChunk().equals(chunk));
+        adminClaims.remove(chunk.asLong());
+        uncache(-1, chunk);
+        updateBorders(chunk);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Add several admin claims at once, changing the claim world's version only once
+     *
+     * @param newClaims the admin claims to add
+     */
+    public void addAdminClaims(@NotNull Collection<Claim> newClaims) {
+        newClaims.forEach(claim -> put(-1, claim));
+        newClaims.forEach(claim -> updateBorders(claim.getChunk()));
+        version.incrementAndGet();
+    }
+
+    /**
+     * Remove several admin claims at once, changing the claim world's version only once
+     *
+     * @param chunks the chunks of the admin claims to remove; chunks that aren't admin claims are ignored
+     * @return the number of admin claims removed
+     */
+    public int removeAdminClaims(@NotNull Collection<Chunk> chunks) {
+        final int removed = removeFrom(-1, adminClaims, chunks);
+        version.incrementAndGet();
+        return removed;
+    }
+
+    /**
+     * Get up to a number of a town's claims in this world, without copying the rest
+     *
+     * @param townId the ID of the town, which may no longer exist
+     * @param limit  the maximum number of claims to return
+     * @return the claims
+     */
+    @NotNull
+    public List<Claim> getTownClaims(int townId, int limit) {
+        final ClaimSet townClaims = claims.get(townId);
+        if (townClaims == null) {
+            return List.of();
+        }
+        return townClaims.stream().limit(limit).toList();
+    }
+
+    // Get the claims of a town, or the admin claims for a town ID of -1
+    @Nullable
+    private ClaimSet getClaimSet(int townId) {
+        return townId == -1 ? adminClaims : claims.get(townId);
+    }
+
+    // Store a claim for a town, or as an admin claim, taking it from whoever had claimed its chunk before
+    private void put(int townId, @NotNull Claim claim) {
+        final long chunk = claim.getChunk().asLong();
+        final CachedClaim previous = cachedClaims.put(chunk, new CachedClaim(townId, claim));
+        if (previous != null && previous.claim() != claim) {
+            detach(previous.claim());
+        }
+        attach(claim);
+        if (previous != null && previous.townId() != townId) {
+            final ClaimSet previousClaims = getClaimSet(previous.townId());
+            if (previousClaims != null) {
+                previousClaims.remove(chunk);
+            }
+            if (previous.townId() != -1) {
+                changedTowns.add(previous.townId());
+            }
+        }
+        if (townId == -1) {
+            adminClaims.add(claim);
+        } else {
+            claims.computeIfAbsent(townId, k -> new ClaimSet()).add(claim);
+        }
+    }
+
+    private int removeFrom(int townId, @NotNull ClaimSet townClaims, @NotNull Collection<Chunk> chunks) {
+        int removed = 0;
+        for (Chunk chunk : chunks) {
+            if (townClaims.remove(chunk.asLong()) != null) {
+                uncache(townId, chunk);
+                updateBorders(chunk);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    // Remove a chunk from the claim cache, if it is still cached as being claimed by the town
+    private void uncache(int townId, @NotNull Chunk chunk) {
+        final CachedClaim cached = cachedClaims.get(chunk.asLong());
+        if (cached != null && cached.townId() == townId && cachedClaims.remove(chunk.asLong(), cached)) {
+            detach(cached.claim());
+        }
+    }
+
+    // Track a claim as being in this world, indexing its plot members
+    private void attach(@NotNull Claim claim) {
+        claim.setClaimWorld(this);
+        if (claim.getType() == Claim.Type.PLOT) {
+            claim.getPlotMembers().forEach(uuid -> indexPlotMember(uuid, claim.getChunk()));
+        }
+    }
+
+    // Stop tracking a claim that has been taken out of this world
+    private void detach(@NotNull Claim claim) {
+        if (claim.getClaimWorld() == this) {
+            claim.setClaimWorld(null);
+            unindexPlotMembers(claim);
+        }
+    }
+
+    // Mark one of this world's claims as changed in place, such as its type or plot members
+    void claimChanged() {
+        version.incrementAndGet();
+    }
+
+    void indexPlotMember(@NotNull UUID uuid, @NotNull Chunk chunk) {
+        plotChunks.computeIfAbsent(uuid, k -> Sets.newConcurrentHashSet()).add(chunk.asLong());
+    }
+
+    void unindexPlotMember(@NotNull UUID uuid, @NotNull Chunk chunk) {
+        plotChunks.computeIfPresent(uuid, (k, chunks) -> {
+            chunks.remove(chunk.asLong());
+            return chunks.isEmpty() ? null : chunks;
+        });
+    }
+
+    void unindexPlotMembers(@NotNull Claim claim) {
+        if (claim.getType() == Claim.Type.PLOT) {
+            claim.getPlotMembers().forEach(uuid -> unindexPlotMember(uuid, claim.getChunk()));
+        }
+    }
+
+    /**
+     * Get the plots in this world that a user is a member or manager of
+     *
+     * @param uuid   the UUID of the user
+     * @param plugin the plugin instance
+     * @return the user's plots, skipping any left behind by towns that no longer exist
+     */
+    @NotNull
+    public List<TownClaim> getPlotsOf(@NotNull UUID uuid, @NotNull HuskTowns plugin) {
+        final Set<Long> chunks = plotChunks.get(uuid);
+        if (chunks == null) {
+            return new ArrayList<>();
+        }
+        final List<TownClaim> plots = new ArrayList<>(chunks.size());
+        for (long chunk : chunks) {
+            final CachedClaim cached = cachedClaims.get(chunk);
+            if (cached == null) {
+                continue;
+            }
+            final Optional<Town> town = cached.townId() == -1 ? Optional.of(plugin.getAdminTown())
+                : plugin.findTown(cached.townId());
+            town.ifPresent(owner -> plots.add(new TownClaim(owner, cached.claim())));
+        }
+        return plots;
     }
 
     @NotNull
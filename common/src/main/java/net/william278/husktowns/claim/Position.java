@@ -120,7 +120,14 @@ public class Position implements OperationPosition {
     }
 
     public double distanceBetween(@NotNull Position other) {
-        return Math.sqrt(Math.pow(x - other.x, 2) + Math.pow(y - other.y, 2) + Math.pow(z - other.z, 2));
+        return Math.sqrt(distanceSquaredBetween(other));
+    }
+
+    public double distanceSquaredBetween(@NotNull Position other) {
+        final double dx = x - other.x;
+        final double dy = y - other.y;
+        final double dz = z - other.z;
+        return dx * dx + dy * dy + dz * dz;
     }
 
     @NotNull
@@ -26,6 +26,7 @@ import net.william278.husktowns.town.Member;
 import net.william278.husktowns.town.Town;
 import net.william278.husktowns.user.CommandUser;
 import net.william278.husktowns.user.OnlineUser;
+import net.william278.husktowns.util.TownNameIndex;
 import org.jetbrains.annotations.NotNull;
 
 import java.math.BigDecimal;
@@ -51,7 +52,9 @@ public final class AdminTownCommand extends Command {
             new ManageBalanceCommand(this, plugin),
             new SetLevelCommand(this, plugin),
             new PruneCommand(this, plugin),
-            new TownBonusCommand(this, plugin)
+            new TownBonusCommand(this, plugin),
+            new BulkCommand(this, plugin),
+            new JobsCommand(this, plugin)
         ));
         if (plugin.getSettings().getGeneral().isDoAdvancements()) {
             childCommands.add(new AdvancementCommand(this, plugin));
@@ -128,7 +131,7 @@ public final class AdminTownCommand extends Command {
                 }
                 case 2 -> {
                     if (!creatingClaim && args[0].equalsIgnoreCase("all")) {
-                        yield filter(plugin.getTowns().stream().map(Town::getName).toList(), args);
+                        yield plugin.getTownNameIndex().getNames(args[1], MAX_NAME_SUGGESTIONS);
                     }
                     yield ChunkTabProvider.super.suggest(user, args);
                 }
@@ -215,8 +218,8 @@ public final class AdminTownCommand extends Command {
 
         @Override
         @NotNull
-        public Set<Town> getTowns() {
-            return plugin.getTowns();
+        public TownNameIndex getTownNameIndex() {
+            return plugin.getTownNameIndex();
         }
 
         private enum Type {
@@ -262,8 +265,8 @@ public final class AdminTownCommand extends Command {
 
         @NotNull
         @Override
-        public Set<Town> getTowns() {
-            return plugin.getTowns();
+        public TownNameIndex getTownNameIndex() {
+            return plugin.getTownNameIndex();
         }
 
         @NotNull
@@ -311,8 +314,8 @@ public final class AdminTownCommand extends Command {
 
         @NotNull
         @Override
-        public Set<Town> getTowns() {
-            return plugin.getTowns();
+        public TownNameIndex getTownNameIndex() {
+            return plugin.getTownNameIndex();
         }
 
         @NotNull
@@ -399,8 +402,8 @@ public final class AdminTownCommand extends Command {
 
         @Override
         @NotNull
-        public Set<Town> getTowns() {
-            return plugin.getTowns();
+        public TownNameIndex getTownNameIndex() {
+            return plugin.getTownNameIndex();
         }
 
         @Override
@@ -408,7 +411,7 @@ public final class AdminTownCommand extends Command {
         public List<String> suggest(@NotNull CommandUser user, @NotNull String[] args) {
             return switch (args.length) {
                 case 0, 1 -> List.of("town", "user");
-                case 2 -> args[0].equalsIgnoreCase("town") ? getTownNames() : List.of();
+                case 2 -> args[0].equalsIgnoreCase("town") ? getTownNames(args[1]) : List.of();
                 case 3 -> List.of("set", "add", "remove", "clear");
                 case 4 -> Arrays.stream(Town.Bonus.values())
                     .map(Town.Bonus::name)
@@ -485,10 +488,10 @@ public final class AdminTownCommand extends Command {
         }
     }
 
-    private static class PruneCommand extends ChildCommand {
+    private static class PruneCommand extends ChildCommand implements TabProvider {
 
         protected PruneCommand(@NotNull Command parent, @NotNull HuskTowns plugin) {
-            super("prune", List.of(), parent, "[<days>|<d|w|m|y>] [confirm]", plugin);
+            super("prune", List.of(), parent, "[<days>|<d|w|m|y>] [confirm|preview]", plugin);
             setOperatorCommand(true);
             setConsoleExecutable(true);
         }
@@ -503,7 +506,14 @@ public final class AdminTownCommand extends Command {
                 return;
             }
 
-            final boolean confirm = parseStringArg(args, 1).map("confirm"::equalsIgnoreCase).orElse(false);
+            // Report which towns would be pruned, without deleting them
+            final Optional<String> option = parseStringArg(args, 1);
+            if (option.map("preview"::equalsIgnoreCase).orElse(false)) {
+                plugin.runAsync(() -> plugin.getTownPruner().prune(days, true, executor));
+                return;
+            }
+
+            final boolean confirm = option.map("confirm"::equalsIgnoreCase).orElse(false);
             if (!confirm) {
                 plugin.getLocales().getLocale("prune_inactive_towns_confirm", Integer.toString(days))
                     .ifPresent(executor::sendMessage);
@@ -519,10 +529,143 @@ public final class AdminTownCommand extends Command {
                 return;
             }
 
-            final long pruned = plugin.pruneInactiveTowns(days, actor.orElse(null));
-            plugin.getLocales().getLocale("prune_inactive_towns_success",
-                    Long.toString(pruned), Integer.toString(days))
-                .ifPresent(executor::sendMessage);
+            plugin.runAsync(() -> {
+                if (!plugin.getTownPruner().prune(days, false, executor)) {
+                    plugin.getLocales().getLocale("error_prune_in_progress")
+                        .ifPresent(executor::sendMessage);
+                }
+            });
+        }
+
+        @NotNull
+        @Override
+        public List<String> suggest(@NotNull CommandUser user, @NotNull String[] args) {
+            return args.length == 2 ? List.of("confirm", "preview") : List.of();
+        }
+
+    }
+
+    private static class BulkCommand extends ChildCommand implements TownTabProvider {
+
+        protected BulkCommand(@NotNull Command parent, @NotNull HuskTowns plugin) {
+            super("bulk", List.of(), parent,
+                "<unclaim|adminclaim> <x1> <z1> <x2> <z2> [world]|transfer <from> <to>|purge", plugin);
+            setOperatorCommand(true);
+            setConsoleExecutable(true);
+        }
+
+        @Override
+        public void execute(@NotNull CommandUser executor, @NotNull String[] args) {
+            final String operation = parseStringArg(args, 0).map(String::toLowerCase).orElse("");
+            switch (operation) {
+                case "unclaim", "adminclaim" -> {
+                    final Optional<Integer> x1 = parseIntArg(args, 1);
+                    final Optional<Integer> z1 = parseIntArg(args, 2);
+                    final Optional<Integer> x2 = parseIntArg(args, 3);
+                    final Optional<Integer> z2 = parseIntArg(args, 4);
+                    final Optional<World> world = parseStringArg(args, 5)
+                        .flatMap(name -> plugin.getWorlds().stream()
+                            .filter(loaded -> loaded.getName().equalsIgnoreCase(name))
+                            .findFirst())
+                        .or(() -> executor instanceof OnlineUser user && args.length <= 5
+                            ? Optional.of(user.getWorld()) : Optional.empty());
+                    if (x1.isEmpty() || z1.isEmpty() || x2.isEmpty() || z2.isEmpty()) {
+                        plugin.getLocales().getLocale("error_invalid_syntax", getUsage())
+                            .ifPresent(executor::sendMessage);
+                        return;
+                    }
+                    if (world.isEmpty()) {
+                        plugin.getLocales().getLocale("error_world_not_claimable")
+                            .ifPresent(executor::sendMessage);
+                        return;
+                    }
+
+                    final Chunk from = Chunk.at(x1.get(), z1.get());
+                    final Chunk to = Chunk.at(x2.get(), z2.get());
+                    if (operation.equals("unclaim")) {
+                        plugin.getManager().admin().unclaimRegion(executor, world.get(), from, to);
+                    } else {
+                        plugin.getManager().admin().adminClaimRegion(executor, world.get(), from, to);
+                    }
+                }
+                case "transfer" -> {
+                    final Optional<String> source = parseStringArg(args, 1);
+                    final Optional<String> target = parseStringArg(args, 2);
+                    if (source.isEmpty() || target.isEmpty()) {
+                        plugin.getLocales().getLocale("error_invalid_syntax", getUsage())
+                            .ifPresent(executor::sendMessage);
+                        return;
+                    }
+                    plugin.getManager().admin().transferClaims(executor, source.get(), target.get());
+                }
+                case "purge" -> plugin.getManager().admin().purgeDeletedTownClaims(executor);
+                default -> plugin.getLocales().getLocale("error_invalid_syntax", getUsage())
+                    .ifPresent(executor::sendMessage);
+            }
+        }
+
+        @NotNull
+        @Override
+        public TownNameIndex getTownNameIndex() {
+            return plugin.getTownNameIndex();
+        }
+
+        @NotNull
+        @Override
+        public List<String> suggest(@NotNull CommandUser user, @NotNull String[] args) {
+            final String operation = args.length > 1 ? args[0].toLowerCase() : "";
+            return switch (args.length) {
+                case 0, 1 -> List.of("unclaim", "adminclaim", "transfer", "purge");
+                case 2, 3 -> operation.equals("transfer") ? getTownNames(args[args.length - 1]) : List.of();
+                case 6 -> operation.equals("unclaim") || operation.equals("adminclaim")
+                    ? plugin.getWorlds().stream().map(World::getName).toList() : List.of();
+                default -> List.of();
+            };
+        }
+
+    }
+
+    private static class JobsCommand extends ChildCommand implements TabProvider {
+
+        protected JobsCommand(@NotNull Command parent, @NotNull HuskTowns plugin) {
+            super("jobs", List.of(), parent, "[<pause|resume|cancel> <id>]", plugin);
+            setOperatorCommand(true);
+            setConsoleExecutable(true);
+        }
+
+        @Override
+        public void execute(@NotNull CommandUser executor, @NotNull String[] args) {
+            final Optional<String> operation = parseStringArg(args, 0).map(String::toLowerCase);
+            if (operation.isEmpty()) {
+                plugin.getManager().admin().listClaimJobs(executor);
+                return;
+            }
+
+            final Optional<Integer> jobId = parseIntArg(args, 1);
+            if (jobId.isEmpty()) {
+                plugin.getLocales().getLocale("error_invalid_syntax", getUsage())
+                    .ifPresent(executor::sendMessage);
+                return;
+            }
+            switch (operation.get()) {
+                case "pause" -> plugin.getManager().admin().pauseClaimJob(executor, jobId.get());
+                case "resume" -> plugin.getManager().admin().resumeClaimJob(executor, jobId.get());
+                case "cancel" -> plugin.getManager().admin().cancelClaimJob(executor, jobId.get());
+                default -> plugin.getLocales().getLocale("error_invalid_syntax", getUsage())
+                    .ifPresent(executor::sendMessage);
+            }
+        }
+
+        @NotNull
+        @Override
+        public List<String> suggest(@NotNull CommandUser user, @NotNull String[] args) {
+            return switch (args.length) {
+                case 0, 1 -> List.of("pause", "resume", "cancel");
+                case 2 -> plugin.getManager().admin().getClaimJobs().getJobs().stream()
+                    .map(job -> Integer.toString(job.getId()))
+                    .toList();
+                default -> List.of();
+            };
         }
 
     }
@@ -25,12 +25,17 @@ import net.kyori.adventure.text.format.TextColor;
 import net.william278.desertwell.about.AboutMenu;
 import net.william278.desertwell.util.UpdateChecker;
 import net.william278.husktowns.HuskTowns;
+import net.william278.husktowns.config.Locales;
+import net.william278.husktowns.listener.OperationCache;
 import net.william278.husktowns.migrator.LegacyMigrator;
 import net.william278.husktowns.migrator.Migrator;
 import net.william278.husktowns.user.CommandUser;
+import net.william278.husktowns.util.PerformanceMetrics;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -45,6 +50,7 @@ public final class HuskTownsCommand extends Command {
             new ReloadCommand(this, plugin),
             new UpdateCommand(this, plugin),
             new MigrateCommand(this, plugin),
+            new StatusCommand(this, plugin),
             getHelpCommand(),
             (ChildCommand) getDefaultExecutor()
         ));
@@ -126,6 +132,68 @@ public final class HuskTownsCommand extends Command {
         }
     }
 
+    private static class StatusCommand extends ChildCommand {
+
+        protected StatusCommand(@NotNull Command parent, @NotNull HuskTowns plugin) {
+            super("status", List.of("metrics"), parent, "", plugin);
+            this.setConsoleExecutable(true);
+            this.setOperatorCommand(true);
+        }
+
+        @Override
+        public void execute(@NotNull CommandUser executor, @NotNull String[] args) {
+            final PerformanceMetrics.Snapshot snapshot = plugin.getMetrics().getSnapshot();
+            final Locales locales = plugin.getLocales();
+            locales.getLocale("status_header", plugin.getVersion().toString(),
+                    Duration.ofMillis(snapshot.uptimeMillis()).truncatedTo(ChronoUnit.SECONDS)
+                        .toString().substring(2).toLowerCase())
+                .ifPresent(executor::sendMessage);
+
+            // Latency of timed operations
+            locales.getLocale("status_timings").ifPresent(executor::sendMessage);
+            snapshot.timers().forEach((name, timer) -> {
+                if (timer.count() == 0) {
+                    return;
+                }
+                locales.getLocale("status_timer", name, Long.toString(timer.count()),
+                        String.format("%.1f", snapshot.perSecond(timer.count())),
+                        formatNanos(Math.round(timer.meanNanos())), formatNanos(timer.percentileNanos(0.5)),
+                        formatNanos(timer.percentileNanos(0.99)), formatNanos(timer.maxNanos()))
+                    .ifPresent(executor::sendMessage);
+            });
+            final OperationCache.Statistics cache = plugin.getOperationCache().getStatistics();
+            locales.getLocale("status_operation_cache", Long.toString(cache.hits()), Long.toString(cache.misses()),
+                    String.format("%.1f", cache.hitRate() * 100), Long.toString(cache.entries()))
+                .ifPresent(executor::sendMessage);
+
+            // Counted events and queue depths
+            if (!snapshot.counters().isEmpty()) {
+                locales.getLocale("status_counters").ifPresent(executor::sendMessage);
+                snapshot.counters().forEach((name, count) -> locales.getLocale("status_counter", name,
+                        Long.toString(count), String.format("%.2f", snapshot.perSecond(count)))
+                    .ifPresent(executor::sendMessage));
+            }
+            if (!snapshot.gauges().isEmpty()) {
+                locales.getLocale("status_queues").ifPresent(executor::sendMessage);
+                snapshot.gauges().forEach((name, value) -> locales.getLocale("status_queue", name,
+                        Long.toString(value))
+                    .ifPresent(executor::sendMessage));
+            }
+        }
+
+        @NotNull
+        private static String formatNanos(long nanos) {
+            if (nanos < 1_000) {
+                return nanos + "ns";
+            } else if (nanos < 1_000_000) {
+                return String.format("%.1fµs", nanos / 1_000d);
+            } else if (nanos < 1_000_000_000) {
+                return String.format("%.1fms", nanos / 1_000_000d);
+            }
+            return String.format("%.2fs", nanos / 1_000_000_000d);
+        }
+    }
+
     private static class MigrateCommand extends ChildCommand implements TabProvider {
         private final List<Migrator> migrators = new ArrayList<>();
 
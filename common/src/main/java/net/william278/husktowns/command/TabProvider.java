@@ -28,6 +28,9 @@ import java.util.List;
 
 public interface TabProvider {
 
+    // The maximum number of town or player names to suggest
+    int MAX_NAME_SUGGESTIONS = 100;
+
     @Nullable
     List<String> suggest(@NotNull CommandUser user, @NotNull String[] args);
 
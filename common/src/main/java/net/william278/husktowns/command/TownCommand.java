@@ -26,6 +26,7 @@ import net.william278.husktowns.HuskTowns;
 import net.william278.husktowns.claim.*;
 import net.william278.husktowns.config.Locales;
 import net.william278.husktowns.config.Settings;
+import net.william278.husktowns.manager.ClaimsManager;
 import net.william278.husktowns.manager.TownsManager;
 import net.william278.husktowns.manager.WarManager;
 import net.william278.husktowns.map.ClaimMap;
@@ -38,10 +39,10 @@ import net.william278.husktowns.town.Town;
 import net.william278.husktowns.user.CommandUser;
 import net.william278.husktowns.user.OnlineUser;
 import net.william278.husktowns.user.User;
+import net.william278.husktowns.util.TownNameIndex;
 import net.william278.paginedown.PaginatedList;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.jetbrains.annotations.Unmodifiable;
 
 import java.math.BigDecimal;
 import java.time.format.DateTimeFormatter;
@@ -189,7 +190,7 @@ public final class TownCommand extends Command {
                     final AtomicInteger total = new AtomicInteger(0);
                     final Component mapGrid = plugin.getWorlds().stream()
                         .map(world -> Map.entry(world, plugin.getClaimWorld(world)
-                            .map(claimWorld -> claimWorld.getClaims().get(town.getId()))
+                            .map(claimWorld -> claimWorld.getTownClaims(town.getId(), Integer.MAX_VALUE))
                             .orElse(new ArrayList<>()).stream()
                             .map(claim -> new TownClaim(town, claim))
                             .toList()))
@@ -238,8 +239,8 @@ public final class TownCommand extends Command {
                                     Integer.toString(users.getValue().size()),
                                     users.getValue().stream()
                                         .map(user -> plugin.getLocales().getRawLocale(String.format(
-                                                "town_census_user_%s", plugin.getUserList()
-                                                    .contains(user) ? "online" : "offline"
+                                                "town_census_user_%s", plugin.getNetworkUserList()
+                                                    .contains(user.getUuid()) ? "online" : "offline"
                                             ), Locales.escapeText(user.getUsername())
                                         ).orElse(Locales.escapeText(user.getUsername())))
                                         .collect(Collectors.joining(", "))
@@ -253,8 +254,8 @@ public final class TownCommand extends Command {
 
         @Override
         @NotNull
-        public Set<Town> getTowns() {
-            return plugin.getTowns();
+        public TownNameIndex getTownNameIndex() {
+            return plugin.getTownNameIndex();
         }
 
         public enum Type {
@@ -440,7 +441,7 @@ public final class TownCommand extends Command {
         @Nullable
         public List<String> suggest(@NotNull CommandUser user, @NotNull String[] args) {
             return switch (args.length) {
-                case 0, 1 -> filter(getInviteTargetList(), args);
+                case 0, 1 -> filter(getInviteTargetList(args.length == 1 ? args[0] : ""), args);
                 case 2 -> plugin.getInvites().getOrDefault(((OnlineUser) user).getUuid(), new ArrayDeque<>())
                     .stream()
                     .map(Invite::getSender).map(User::getUsername)
@@ -450,9 +451,9 @@ public final class TownCommand extends Command {
         }
 
         @NotNull
-        private List<String> getInviteTargetList() {
+        private List<String> getInviteTargetList(@NotNull String prefix) {
             final List<String> users = new ArrayList<>(List.of("accept", "decline"));
-            users.addAll(plugin.getUserList().stream().map(User::getUsername).toList());
+            users.addAll(plugin.getNetworkUserList().getUsernames(prefix, MAX_NAME_SUGGESTIONS));
             return users;
         }
     }
@@ -523,13 +524,21 @@ public final class TownCommand extends Command {
 
         protected ClaimCommand(@NotNull Command parent, @NotNull HuskTowns plugin, boolean creatingClaim) {
             super(creatingClaim ? "claim" : "unclaim", List.of(), parent,
-                "[<x> <z>" + (!creatingClaim ? "|all [confirm]" : "") + "] [-m]", plugin);
+                "[<x> <z>|rect <x1> <z1> <x2> <z2>|radius <radius>" + (creatingClaim ? "|fill" : "|all [confirm]")
+                + "] [-m]", plugin);
             this.creatingClaim = creatingClaim;
         }
 
         @Override
         public void execute(@NotNull CommandUser executor, @NotNull String[] args) {
             final OnlineUser user = (OnlineUser) executor;
+            final Optional<String> areaType = parseStringArg(args, 0)
+                .filter(arg -> arg.equals("rect") || arg.equals("radius") || (creatingClaim && arg.equals("fill")));
+            if (areaType.isPresent()) {
+                executeArea(user, areaType.get(), args);
+                return;
+            }
+
             final boolean deleteAllClaims = !creatingClaim && parseStringArg(args, 0).map(arg -> arg.equals("all")).orElse(false);
             final Chunk chunk = Chunk.at(parseIntArg(args, 0).orElse(user.getChunk().getX()),
                 parseIntArg(args, 1).orElse(user.getChunk().getZ()));
@@ -553,16 +562,79 @@ public final class TownCommand extends Command {
             }
         }
 
+        // Claim or unclaim a rectangle, a square radius around the user, or the area enclosed by the town's claims
+        private void executeArea(@NotNull OnlineUser user, @NotNull String areaType, @NotNull String[] args) {
+            final boolean showMap = Arrays.asList(args).contains("-m");
+            final Chunk center = user.getChunk();
+            final List<Chunk> area;
+            switch (areaType) {
+                case "rect" -> {
+                    final Optional<Integer> x1 = parseIntArg(args, 1);
+                    final Optional<Integer> z1 = parseIntArg(args, 2);
+                    final Optional<Integer> x2 = parseIntArg(args, 3);
+                    final Optional<Integer> z2 = parseIntArg(args, 4);
+                    if (x1.isEmpty() || z1.isEmpty() || x2.isEmpty() || z2.isEmpty()) {
+                        plugin.getLocales().getLocale("error_invalid_syntax", getUsage())
+                            .ifPresent(user::sendMessage);
+                        return;
+                    }
+                    final Chunk from = Chunk.at(x1.get(), z1.get());
+                    final Chunk to = Chunk.at(x2.get(), z2.get());
+                    if (center.distanceBetween(from) > MAX_CLAIM_RANGE_CHUNKS
+                        || center.distanceBetween(to) > MAX_CLAIM_RANGE_CHUNKS) {
+                        plugin.getLocales().getLocale("error_claim_out_of_range")
+                            .ifPresent(user::sendMessage);
+                        return;
+                    }
+                    area = ClaimsManager.getRectangle(from, to);
+                }
+                case "radius" -> {
+                    final Optional<Integer> radius = parseIntArg(args, 1).filter(r -> r >= 0);
+                    if (radius.isEmpty()) {
+                        plugin.getLocales().getLocale("error_invalid_syntax", getUsage())
+                            .ifPresent(user::sendMessage);
+                        return;
+                    }
+                    if (radius.get() > MAX_CLAIM_RANGE_CHUNKS) {
+                        plugin.getLocales().getLocale("error_claim_out_of_range")
+                            .ifPresent(user::sendMessage);
+                        return;
+                    }
+                    area = ClaimsManager.getRadius(center, radius.get());
+                }
+                default -> {
+                    plugin.getManager().claims().fillClaims(user, user.getWorld(), center, showMap);
+                    return;
+                }
+            }
+
+            if (creatingClaim) {
+                plugin.getManager().claims().createClaims(user, user.getWorld(), area, showMap);
+            } else {
+                plugin.getManager().claims().deleteClaims(user, user.getWorld(), area, showMap);
+            }
+        }
+
         @Override
         @NotNull
         public List<String> suggest(@NotNull CommandUser user, @NotNull String[] args) {
             if (args.length == 1) {
                 final ArrayList<String> suggestions = new ArrayList<>(ChunkTabProvider.super.suggest(user, args));
-                if (!creatingClaim) {
-                    suggestions.add("all");
-                }
+                suggestions.addAll(filter(creatingClaim ? List.of("rect", "radius", "fill")
+                    : List.of("rect", "radius", "all"), args));
                 return suggestions;
             }
+            if (args.length > 1 && args[0].equals("rect")) {
+                final Chunk chunk = user instanceof OnlineUser player ? player.getChunk() : Chunk.at(0, 0);
+                return switch (args.length) {
+                    case 2, 4 -> filter(List.of(Integer.toString(chunk.getX())), args);
+                    case 3, 5 -> filter(List.of(Integer.toString(chunk.getZ())), args);
+                    default -> List.of();
+                };
+            }
+            if (args.length > 1 && (args[0].equals("radius") || args[0].equals("fill"))) {
+                return List.of();
+            }
             return ChunkTabProvider.super.suggest(user, args);
         }
 
@@ -802,12 +874,13 @@ public final class TownCommand extends Command {
 
         @Override
         @NotNull
-        @Unmodifiable
-        public Set<Town> getTowns() {
-            return plugin.getTowns().stream()
-                .filter(town -> town.getSpawn().isPresent())
-                .filter(town -> town.getSpawn().get().isPublic())
-                .collect(Collectors.toSet());
+        public TownNameIndex getTownNameIndex() {
+            return plugin.getTownNameIndex();
+        }
+
+        @Override
+        public boolean isSuggested(@NotNull Town town) {
+            return town.getSpawn().isPresent() && town.getSpawn().get().isPublic();
         }
     }
 
@@ -879,7 +952,7 @@ public final class TownCommand extends Command {
     private static class PlotCommand extends ChildCommand implements TabProvider {
 
         protected PlotCommand(@NotNull Command parent, @NotNull HuskTowns plugin) {
-            super("plot", List.of(), parent, "<members|claim|(<add|remove> <player> [manager])>", plugin);
+            super("plot", List.of(), parent, "<members|claim|list|(<add|remove> <player> [manager])>", plugin);
         }
 
         @Override
@@ -913,8 +986,9 @@ public final class TownCommand extends Command {
                 }
                 case "claim" -> plugin.getManager().claims()
                     .claimPlot(user, user.getWorld(), user.getChunk());
-                case "members", "memberlist", "list" -> plugin.getManager().claims()
+                case "members", "memberlist" -> plugin.getManager().claims()
                     .listPlotMembers(user, user.getWorld(), user.getChunk());
+                case "list" -> plugin.getManager().claims().listPlots(user);
                 default -> plugin.getLocales().getLocale("error_invalid_syntax", getUsage())
                     .ifPresent(executor::sendMessage);
             }
@@ -924,9 +998,9 @@ public final class TownCommand extends Command {
         @Nullable
         public List<String> suggest(@NotNull CommandUser user, @NotNull String[] args) {
             return switch (args.length) {
-                case 0, 1 -> List.of("add", "remove", "members");
+                case 0, 1 -> List.of("add", "remove", "members", "claim", "list");
                 case 2 -> List.of("add", "trust", "remove", "untrust").contains(args[0].toLowerCase(Locale.ENGLISH))
-                    ? plugin.getUserList().stream().map(User::getUsername).toList() : List.of();
+                    ? plugin.getNetworkUserList().getUsernames(args[1], MAX_NAME_SUGGESTIONS) : List.of();
                 case 3 -> List.of("add", "trust").contains(args[0].toLowerCase(Locale.ENGLISH))
                     ? List.of("manager") : List.of();
                 default -> List.of();
@@ -991,9 +1065,9 @@ public final class TownCommand extends Command {
                 case 0, 1 -> List.of("set", "list");
                 case 2 -> args[0].equalsIgnoreCase("set")
                     ? List.of("ally", "neutral", "enemy")
-                    : plugin.getTowns().stream().map(Town::getName).toList();
+                    : plugin.getTownNameIndex().getNames(args[1], MAX_NAME_SUGGESTIONS);
                 case 3 -> args[0].equalsIgnoreCase("set")
-                    ? plugin.getTowns().stream().map(Town::getName).toList()
+                    ? plugin.getTownNameIndex().getNames(args[2], MAX_NAME_SUGGESTIONS)
                     : List.of();
                 default -> List.of();
             };
@@ -1041,8 +1115,8 @@ public final class TownCommand extends Command {
 
         @NotNull
         @Override
-        public Set<Town> getTowns() {
-            return plugin.getTowns();
+        public TownNameIndex getTownNameIndex() {
+            return plugin.getTownNameIndex();
         }
 
         @NotNull
@@ -1051,7 +1125,7 @@ public final class TownCommand extends Command {
             return switch (args.length) {
                 case 0, 1 -> List.of("view", "declare", "accept", "surrender");
                 case 2 -> List.of("view", "declare").contains(args[0].toLowerCase(Locale.ENGLISH))
-                    ? plugin.getTowns().stream().map(Town::getName).toList() : List.of();
+                    ? getTownNames(args[1]) : List.of();
                 case 3 -> args[0].toLowerCase(Locale.ENGLISH).equals("declare")
                     ? List.of(Double.toString(plugin.getSettings().getTowns().getRelations()
                     .getWars().getMinimumWager()))
@@ -1117,7 +1191,8 @@ public final class TownCommand extends Command {
         @Nullable
         @Override
         public List<String> suggest(@NotNull CommandUser user, @NotNull String[] args) {
-            return args.length < 2 ? plugin.getUserList().stream().map(User::getUsername).toList() : List.of();
+            return args.length < 2 ? plugin.getNetworkUserList().getUsernames(args.length == 1 ? args[0] : "",
+                MAX_NAME_SUGGESTIONS) : List.of();
         }
     }
 
@@ -21,25 +21,29 @@ package net.william278.husktowns.command;
 
 import net.william278.husktowns.town.Town;
 import net.william278.husktowns.user.CommandUser;
+import net.william278.husktowns.util.TownNameIndex;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
-import java.util.Set;
 
 public interface TownTabProvider extends TabProvider {
 
     @Override
     @NotNull
     default List<String> suggest(@NotNull CommandUser user, @NotNull String[] args) {
-        return args.length == 1 ? getTownNames() : List.of();
+        return args.length == 1 ? getTownNames(args[0]) : List.of();
     }
 
     @NotNull
-    default List<String> getTownNames() {
-        return getTowns().stream().map(Town::getName).sorted().toList();
+    default List<String> getTownNames(@NotNull String prefix) {
+        return getTownNameIndex().getNames(prefix, MAX_NAME_SUGGESTIONS, this::isSuggested);
+    }
+
+    default boolean isSuggested(@NotNull Town town) {
+        return true;
     }
 
     @NotNull
-    Set<Town> getTowns();
+    TownNameIndex getTownNameIndex();
 
 }
@@ -0,0 +1,155 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.config;
+
+import de.themoep.minedown.adventure.MineDown;
+import lombok.Getter;
+import net.kyori.adventure.text.Component;
+import org.apache.commons.text.StringEscapeUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A locale compiled into runs of literal text and numbered placeholder slots ({@code %1%}, {@code %2%}, ...).
+ * <p>
+ * Templates are compiled once, when the locales are loaded, so filling one in is a single pass over its runs rather than
+ * a string search per replacement. Templates without any slots are parsed into a {@link Component} once and reused.
+ */
+public final class LocaleTemplate {
+
+    @Getter
+    private final String raw;
+    private final String[] literals;
+    private final int[] slots;
+    @Nullable
+    private volatile Component component;
+
+    private LocaleTemplate(@NotNull String raw, @NotNull String[] literals, int[] slots) {
+        this.raw = raw;
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /**
+     * Compile a locale as it is written in the locales file
+     *
+     * @param locale the Java-escaped locale
+     * @return the compiled template
+     */
+    @NotNull
+    public static LocaleTemplate compile(@NotNull String locale) {
+        final String raw = StringEscapeUtils.unescapeJava(locale);
+        final List<String> literals = new ArrayList<>();
+        final List<Integer> slots = new ArrayList<>();
+        int literalStart = 0;
+        int index = raw.indexOf('%');
+        while (index >= 0) {
+            // A slot is a positive number between two percent signs
+            int end = index + 1;
+            while (end < raw.length() && Character.isDigit(raw.charAt(end))) {
+                end++;
+            }
+            if (end > index + 1 && end < raw.length() && raw.charAt(end) == '%') {
+                final int slot = parseSlot(raw.substring(index + 1, end));
+                if (slot > 0) {
+                    literals.add(raw.substring(literalStart, index));
+                    slots.add(slot);
+                    literalStart = end + 1;
+                    index = raw.indexOf('%', literalStart);
+                    continue;
+                }
+            }
+            index = raw.indexOf('%', index + 1);
+        }
+        literals.add(raw.substring(literalStart));
+        return new LocaleTemplate(raw, literals.toArray(String[]::new),
+            slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static int parseSlot(@NotNull String number) {
+        try {
+            return Integer.parseInt(number);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Get whether the template has any placeholder slots
+     *
+     * @return {@code true} if the template has slots to fill in
+     */
+    public boolean hasSlots() {
+        return slots.length > 0;
+    }
+
+    /**
+     * Fill in the template's slots, without escaping the replacements
+     * <p>
+     * Slots without a corresponding replacement are left as they are written.
+     *
+     * @param replacements Ordered array of replacement strings to fill in slots with
+     * @return the filled-in locale
+     */
+    @NotNull
+    public String apply(@NotNull String... replacements) {
+        if (slots.length == 0) {
+            return raw;
+        }
+        final StringBuilder builder = new StringBuilder(raw.length() + replacements.length * 16);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i]);
+            final int slot = slots[i];
+            if (slot <= replacements.length) {
+                builder.append(replacements[slot - 1]);
+            } else {
+                builder.append('%').append(slot).append('%');
+            }
+        }
+        return builder.append(literals[slots.length]).toString();
+    }
+
+    /**
+     * Fill in the template's slots with {@link Locales#escapeText(String) MineDown-escaped} replacements and parse the
+     * result into a component
+     *
+     * @param replacements Ordered array of replacement strings to fill in slots with
+     * @return the formatted component
+     */
+    @NotNull
+    public Component toComponent(@NotNull String... replacements) {
+        if (slots.length == 0) {
+            Component parsed = component;
+            if (parsed == null) {
+                component = parsed = new MineDown(raw).toComponent();
+            }
+            return parsed;
+        }
+        final String[] escaped = new String[replacements.length];
+        for (int i = 0; i < replacements.length; i++) {
+            escaped[i] = Locales.escapeText(replacements[i]);
+        }
+        return new MineDown(apply(escaped)).toComponent();
+    }
+
+}
@@ -21,15 +21,17 @@ package net.william278.husktowns.config;
 
 import com.google.common.collect.Maps;
 import de.exlll.configlib.Configuration;
+import de.exlll.configlib.Ignore;
 import de.themoep.minedown.adventure.MineDown;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import net.kyori.adventure.text.Component;
 import net.william278.paginedown.ListOptions;
-import org.apache.commons.text.StringEscapeUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @SuppressWarnings("FieldMayBeFinal")
@@ -51,6 +53,36 @@ public class Locales {
     // The raw set of locales loaded from yaml
     Map<String, String> locales = Maps.newTreeMap();
 
+    // The locales compiled into templates, by id
+    @Ignore
+    private Map<String, LocaleTemplate> templates = Maps.newConcurrentMap();
+
+    /**
+     * Compile every locale into a {@link LocaleTemplate}, replacing any compiled before
+     */
+    public void compile() {
+        final Map<String, LocaleTemplate> compiled = Maps.newConcurrentMap();
+        locales.forEach((id, locale) -> compiled.put(id, LocaleTemplate.compile(locale)));
+        this.templates = compiled;
+    }
+
+    /**
+     * Returns the compiled template of a locale from the locales file
+     *
+     * @param localeId String identifier of the locale, corresponding to a key in the file
+     * @return An {@link Optional} containing the template of the locale corresponding to the id, if it exists
+     */
+    public Optional<LocaleTemplate> getTemplate(@NotNull String localeId) {
+        final LocaleTemplate template = templates.get(localeId);
+        if (template != null) {
+            return Optional.of(template);
+        }
+
+        // Compile locales that weren't present when the templates were last compiled
+        return Optional.ofNullable(locales.get(localeId)).map(locale -> Objects.requireNonNull(
+            templates.computeIfAbsent(localeId, id -> LocaleTemplate.compile(locale))));
+    }
+
     /**
      * Returns a raw, unformatted locale loaded from the locales file
      *
@@ -58,7 +90,7 @@ public class Locales {
      * @return An {@link Optional} containing the locale corresponding to the id, if it exists
      */
     public Optional<String> getRawLocale(@NotNull String localeId) {
-        return Optional.ofNullable(locales.get(localeId)).map(StringEscapeUtils::unescapeJava);
+        return getTemplate(localeId).map(LocaleTemplate::getRaw);
     }
 
     /**
@@ -71,7 +103,7 @@ public class Locales {
      * @return An {@link Optional} containing the replacement-applied locale corresponding to the id, if it exists
      */
     public Optional<String> getRawLocale(@NotNull String localeId, @NotNull String... replacements) {
-        return getRawLocale(localeId).map(locale -> applyReplacements(locale, replacements));
+        return getTemplate(localeId).map(template -> template.apply(replacements));
     }
 
     /**
@@ -99,32 +131,28 @@ public class Locales {
     }
 
     /**
-     * Returns a MineDown-formatted string
+     * Returns a locale from the locales file as a component, with replacements applied
+     * <p>
+     * Note that replacements will be MineDown-escaped before application. Locales without placeholders are only parsed
+     * once, so prefer this over {@link #getLocale(String, String...)} for frequently sent messages
      *
-     * @param text The text to format
-     * @return A {@link MineDown} object containing the formatted text
+     * @param localeId     String identifier of the locale, corresponding to a key in the file
+     * @param replacements Ordered array of replacement strings to fill in placeholders with
+     * @return An {@link Optional} containing the formatted component of the locale corresponding to the id, if it exists
      */
-    @NotNull
-    public MineDown format(@NotNull String text) {
-        return new MineDown(text);
+    public Optional<Component> getLocaleComponent(@NotNull String localeId, @NotNull String... replacements) {
+        return getTemplate(localeId).map(template -> template.toComponent(replacements));
     }
 
     /**
-     * Apply placeholder replacements to a raw locale
+     * Returns a MineDown-formatted string
      *
-     * @param rawLocale    The raw, unparsed locale
-     * @param replacements Ordered array of replacement strings to fill in placeholders with
-     * @return the raw locale, with inserted placeholders
+     * @param text The text to format
+     * @return A {@link MineDown} object containing the formatted text
      */
     @NotNull
-    private String applyReplacements(@NotNull String rawLocale, @NotNull String... replacements) {
-        int replacementIndexer = 1;
-        for (String replacement : replacements) {
-            String replacementString = "%" + replacementIndexer + "%";
-            rawLocale = rawLocale.replace(replacementString, replacement);
-            replacementIndexer += 1;
-        }
-        return rawLocale;
+    public MineDown format(@NotNull String text) {
+        return new MineDown(text);
     }
 
     /**
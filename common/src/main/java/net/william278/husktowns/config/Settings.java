@@ -153,6 +153,15 @@ public class Settings {
             private String password = "";
             private boolean useSsl = false;
 
+            @Comment({"Messages published to Redis in the same tick are batched together; batches larger than this many",
+                "bytes are compressed before being published. Set to -1 to disable compression."})
+            private int compressionThreshold = 1024;
+
+            @Comment({"Batches are published on a separate channel that servers running older versions of HuskTowns don't",
+                "listen on. Enable this while upgrading servers one at a time to also publish each message in the old",
+                "format, so servers that haven't been upgraded yet stay in sync."})
+            private boolean publishLegacyMessages = false;
+
             @Comment({"Settings for if you're using Redis Sentinels.",
                 "If you're not sure what this is, please ignore this section."})
             private SentinelSettings sentinel = new SentinelSettings();
@@ -188,6 +197,14 @@ public class Settings {
         @Comment("How far away the inspector tool can be used from a claim. (in blocks)")
         private int maxInspectionDistance = 80;
 
+        @Comment("The maximum number of claim outline particles to send per tick, shared between all players viewing " +
+            "claims. Lower this if showing claims to many players at once causes lag.")
+        private int visualizerParticlesPerTick = 1000;
+
+        @Comment("The maximum number of claims each batch of a bulk admin claim job (/admintown bulk) changes. Each batch " +
+            "saves the claim world once, so higher values finish sooner but make each save larger.")
+        private int claimJobBatchSize = 250;
+
         @Comment("The slot to display claim entry/teleportation notifications in. (ACTION_BAR, CHAT, TITLE, SUBTITLE, NONE)")
         private Locales.Slot notificationSlot = Locales.Slot.ACTION_BAR;
 
@@ -205,6 +222,10 @@ public class Settings {
         @Comment("Whether to allow players to attack other players in their town.")
         private boolean allowFriendlyFire = false;
 
+        @Comment("Whether to cache the outcome of protection checks by player, chunk and action. Speeds up repeated " +
+            "checks from redstone, hoppers and fast-clicking players. Cached outcomes are discarded on relevant changes.")
+        private boolean cacheOperationDecisions = true;
+
         @Comment("A list of world names where claims cannot be created.")
         private List<String> unclaimableWorlds = List.of(
             "world_nether",
@@ -255,6 +276,14 @@ public class Settings {
 
             @Comment("The name of the marker set to use for claims on your web map")
             private String markerSetName = "Claims";
+
+            @Comment("How long to wait after a town's claims change before updating its markers, in ticks. " +
+                "Changes made in the meantime are applied together.")
+            private long updateDelay = 20;
+
+            @Comment("The maximum number of towns to update markers for per second. Also paces filling the web map " +
+                "with claims on startup.")
+            private int townUpdatesPerSecond = 40;
         }
 
         public boolean isUnclaimableWorld(@NotNull World world) {
@@ -297,6 +326,10 @@ public class Settings {
         @Comment("Require towns to have all their claims adjacent to each other")
         private boolean requireClaimAdjacency = false;
 
+        @Comment("The maximum number of chunks that can be claimed or unclaimed at once with the rect, radius and fill " +
+            "options of /town claim and /town unclaim")
+        private int maxClaimAreaSize = 64;
+
         @Comment("Whether to spawn particle effects when crop growth or mob spawning is boosted by a town's level")
         private boolean spawnBoostParticles = true;
 
@@ -392,6 +425,16 @@ public class Settings {
             @Comment("The number of days a town can be inactive before it will be deleted")
             private int pruneAfterDays = 90;
 
+            @Comment("How often, in hours, to check for and prune inactive towns while the server is running. " +
+                "Set to 0 to only prune on startup (if enabled) and with /admintown prune")
+            private int pruneIntervalHours = 0;
+
+            @Comment("The maximum number of inactive towns to delete per second while pruning")
+            private int pruneTownsPerSecond = 5;
+
+            @Comment("Only log which towns would be pruned on startup and on the interval, without deleting them")
+            private boolean dryRun = false;
+
         }
     }
 
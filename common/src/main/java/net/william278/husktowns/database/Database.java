@@ -192,6 +192,15 @@ public abstract class Database {
      */
     public abstract List<SavedUser> getInactiveUsers(long daysInactive);
 
+    /**
+     * Get the UUIDs of users who have not logged in for a given number of days, without loading their data
+     *
+     * @param daysInactive The number of days a user has not logged in for
+     * @return The UUIDs of users who have not logged in for a given number of days
+     */
+    @NotNull
+    public abstract Set<UUID> getInactiveUserUuids(long daysInactive);
+
     /**
      * Add a user to the database
      *
@@ -286,6 +295,31 @@ public abstract class Database {
      */
     public abstract Map<ServerWorld, ClaimWorld> getAllClaimWorlds() throws IllegalStateException;
 
+    /**
+     * Get a claim world by its ID
+     *
+     * @param worldId The ID of the claim world
+     * @return The claim world, if it exists
+     */
+    public abstract Optional<ClaimWorld> getClaimWorld(int worldId);
+
+    /**
+     * Get the IDs of claim worlds on a server that contain claims made by a town, from the claim index
+     *
+     * @param townId The ID of the town
+     * @param server The name of the server
+     * @return A list of the IDs of claim worlds on the server holding claims made by the town
+     */
+    @NotNull
+    public abstract List<Integer> getTownClaimWorlds(int townId, @NotNull String server);
+
+    /**
+     * Rebuild the claim index entries of a claim world from its claims
+     *
+     * @param claimWorld The claim world to rebuild the index of
+     */
+    public abstract void rebuildClaimIndex(@NotNull ClaimWorld claimWorld);
+
     /**
      * Create a new claim world and add it to the database
      *
@@ -296,7 +330,7 @@ public abstract class Database {
     public abstract ClaimWorld createClaimWorld(@NotNull World world);
 
     /**
-     * Update a claim world in the database
+     * Update a claim world in the database, along with the claim index entries of towns whose claims have changed
      *
      * @param claimWorld The claim world to update
      */
@@ -353,7 +387,8 @@ public abstract class Database {
         META_DATA("husktowns_metadata"),
         USER_DATA("husktowns_users"),
         TOWN_DATA("husktowns_town_data"),
-        CLAIM_DATA("husktowns_claim_worlds");
+        CLAIM_DATA("husktowns_claim_worlds"),
+        CLAIM_INDEX("husktowns_claim_index");
         @NotNull
         private final String defaultName;
 
@@ -392,6 +427,10 @@ public abstract class Database {
         ADD_USER_LAST_LOGIN(
             1, "add_user_last_login",
             Type.MYSQL, Type.MARIADB, Type.SQLITE
+        ),
+        ADD_CLAIM_INDEX_TABLE(
+            2, "add_claim_index_table",
+            Type.MYSQL, Type.MARIADB, Type.SQLITE
         );
 
         private final int version;
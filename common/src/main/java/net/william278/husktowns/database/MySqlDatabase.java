@@ -300,6 +300,28 @@ public final class MySqlDatabase extends Database {
         return inactiveUsers;
     }
 
+    @NotNull
+    @Override
+    public Set<UUID> getInactiveUserUuids(long daysInactive) {
+        final Set<UUID> inactiveUsers = new HashSet<>();
+        try (Connection connection = getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(format("""
+                SELECT `uuid`
+                FROM `%user_data%`
+                WHERE `last_login` < DATE_SUB(NOW(), INTERVAL ? DAY);"""))) {
+                statement.setLong(1, daysInactive);
+                final ResultSet resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    inactiveUsers.add(UUID.fromString(resultSet.getString("uuid")));
+                }
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to fetch list of inactive user UUIDs", e);
+            inactiveUsers.clear(); // Clear for safety to prevent any accidental data being returned
+        }
+        return inactiveUsers;
+    }
+
     @Override
     public void createUser(@NotNull User user, @NotNull Preferences preferences) {
         try (Connection connection = getConnection()) {
@@ -509,6 +531,98 @@ public final class MySqlDatabase extends Database {
         return worlds;
     }
 
+    @Override
+    public Optional<ClaimWorld> getClaimWorld(int worldId) {
+        try (Connection connection = getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(format("""
+                SELECT `id`, `claims`
+                FROM `%claim_data%`
+                WHERE `id` = ?"""))) {
+                statement.setInt(1, worldId);
+                final ResultSet resultSet = statement.executeQuery();
+                if (resultSet.next()) {
+                    final String data = new String(resultSet.getBytes("claims"), StandardCharsets.UTF_8);
+                    final ClaimWorld claimWorld = plugin.getClaimWorldFromJson(data);
+                    claimWorld.updateId(resultSet.getInt("id"));
+                    return Optional.of(claimWorld);
+                }
+            }
+        } catch (SQLException | JsonSyntaxException e) {
+            plugin.log(Level.SEVERE, "Failed to fetch claim world from table by ID", e);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    @NotNull
+    public List<Integer> getTownClaimWorlds(int townId, @NotNull String server) {
+        final List<Integer> worldIds = new ArrayList<>();
+        try (Connection connection = getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(format("""
+                SELECT `world_id`
+                FROM `%claim_index%`
+                WHERE `town_id` = ? AND `server_name` = ? AND `claim_count` > 0"""))) {
+                statement.setInt(1, townId);
+                statement.setString(2, server);
+                final ResultSet resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    worldIds.add(resultSet.getInt("world_id"));
+                }
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to fetch town claim worlds from the claim index", e);
+        }
+        return worldIds;
+    }
+
+    @Override
+    public void rebuildClaimIndex(@NotNull ClaimWorld claimWorld) {
+        try (Connection connection = getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(format("""
+                DELETE FROM `%claim_index%`
+                WHERE `world_id` = ?"""))) {
+                statement.setInt(1, claimWorld.getId());
+                statement.executeUpdate();
+            }
+            claimWorld.pollChangedTownClaimCounts();
+            updateClaimIndex(connection, claimWorld.getId(), claimWorld.getTownClaimCounts());
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to rebuild claim world entries in the claim index", e);
+        }
+    }
+
+    // Upsert the claim index entries of towns in a claim world, removing entries for towns with no claims left
+    private void updateClaimIndex(@NotNull Connection connection, int worldId,
+                                  @NotNull Map<Integer, Integer> townClaimCounts) throws SQLException {
+        if (townClaimCounts.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement upsertStatement = connection.prepareStatement(format("""
+            INSERT INTO `%claim_index%` (`town_id`, `world_id`, `server_name`, `claim_count`)
+            SELECT ?, `id`, `server_name`, ?
+            FROM `%claim_data%`
+            WHERE `id` = ?
+            ON DUPLICATE KEY UPDATE `claim_count` = VALUES(`claim_count`);"""));
+             PreparedStatement deleteStatement = connection.prepareStatement(format("""
+                 DELETE FROM `%claim_index%`
+                 WHERE `town_id` = ? AND `world_id` = ?"""))) {
+            for (Map.Entry<Integer, Integer> entry : townClaimCounts.entrySet()) {
+                if (entry.getValue() > 0) {
+                    upsertStatement.setInt(1, entry.getKey());
+                    upsertStatement.setInt(2, entry.getValue());
+                    upsertStatement.setInt(3, worldId);
+                    upsertStatement.addBatch();
+                } else {
+                    deleteStatement.setInt(1, entry.getKey());
+                    deleteStatement.setInt(2, worldId);
+                    deleteStatement.addBatch();
+                }
+            }
+            upsertStatement.executeBatch();
+            deleteStatement.executeBatch();
+        }
+    }
+
     @Override
     @NotNull
     public ClaimWorld createClaimWorld(@NotNull World world) {
@@ -546,6 +660,7 @@ public final class MySqlDatabase extends Database {
                 statement.setInt(2, claimWorld.getId());
                 statement.executeUpdate();
             }
+            updateClaimIndex(connection, claimWorld.getId(), claimWorld.pollChangedTownClaimCounts());
         } catch (SQLException e) {
             plugin.log(Level.SEVERE, "Failed to update claim world in table", e);
         }
@@ -281,6 +281,26 @@ public final class SqLiteDatabase extends Database {
         return inactiveUsers;
     }
 
+    @NotNull
+    @Override
+    public Set<UUID> getInactiveUserUuids(long daysInactive) {
+        final Set<UUID> inactiveUsers = new HashSet<>();
+        try (PreparedStatement statement = getConnection().prepareStatement(format("""
+            SELECT `uuid`
+            FROM `%user_data%`
+            WHERE datetime(`last_login` / 1000, 'unixepoch') < datetime('now', ?);"""))) {
+            statement.setString(1, String.format("-%d days", daysInactive));
+            final ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                inactiveUsers.add(UUID.fromString(resultSet.getString("uuid")));
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to fetch list of inactive user UUIDs", e);
+            inactiveUsers.clear(); // Clear for safety to prevent any accidental data being returned
+        }
+        return inactiveUsers;
+    }
+
     @Override
     public void createUser(@NotNull User user, @NotNull Preferences preferences) {
         try (PreparedStatement statement = getConnection().prepareStatement(format("""
@@ -468,6 +488,94 @@ public final class SqLiteDatabase extends Database {
         return worlds;
     }
 
+    @Override
+    public Optional<ClaimWorld> getClaimWorld(int worldId) {
+        try (PreparedStatement statement = getConnection().prepareStatement(format("""
+            SELECT `id`, `claims`
+            FROM `%claim_data%`
+            WHERE `id` = ?"""))) {
+            statement.setInt(1, worldId);
+            final ResultSet resultSet = statement.executeQuery();
+            if (resultSet.next()) {
+                final ClaimWorld claimWorld = plugin.getClaimWorldFromJson(
+                    new String(resultSet.getBytes("claims"), StandardCharsets.UTF_8)
+                );
+                claimWorld.updateId(resultSet.getInt("id"));
+                return Optional.of(claimWorld);
+            }
+        } catch (SQLException | JsonSyntaxException e) {
+            plugin.log(Level.SEVERE, "Failed to fetch claim world from table by ID", e);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    @NotNull
+    public List<Integer> getTownClaimWorlds(int townId, @NotNull String server) {
+        final List<Integer> worldIds = new ArrayList<>();
+        try (PreparedStatement statement = getConnection().prepareStatement(format("""
+            SELECT `world_id`
+            FROM `%claim_index%`
+            WHERE `town_id` = ? AND `server_name` = ? AND `claim_count` > 0"""))) {
+            statement.setInt(1, townId);
+            statement.setString(2, server);
+            final ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                worldIds.add(resultSet.getInt("world_id"));
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to fetch town claim worlds from the claim index", e);
+        }
+        return worldIds;
+    }
+
+    @Override
+    public void rebuildClaimIndex(@NotNull ClaimWorld claimWorld) {
+        try (PreparedStatement statement = getConnection().prepareStatement(format("""
+            DELETE FROM `%claim_index%`
+            WHERE `world_id` = ?"""))) {
+            statement.setInt(1, claimWorld.getId());
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to clear claim world entries from the claim index", e);
+            return;
+        }
+        claimWorld.pollChangedTownClaimCounts();
+        updateClaimIndex(claimWorld.getId(), claimWorld.getTownClaimCounts());
+    }
+
+    // Upsert the claim index entries of towns in a claim world, removing entries for towns with no claims left
+    private void updateClaimIndex(int worldId, @NotNull Map<Integer, Integer> townClaimCounts) {
+        if (townClaimCounts.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement upsertStatement = getConnection().prepareStatement(format("""
+            INSERT INTO `%claim_index%` (`town_id`, `world_id`, `server_name`, `claim_count`)
+            SELECT ?, `id`, `server_name`, ?
+            FROM `%claim_data%`
+            WHERE `id` = ?
+            ON CONFLICT (`town_id`, `world_id`) DO UPDATE SET `claim_count` = excluded.`claim_count`;"""));
+             PreparedStatement deleteStatement = getConnection().prepareStatement(format("""
+                 DELETE FROM `%claim_index%`
+                 WHERE `town_id` = ? AND `world_id` = ?"""))) {
+            for (Map.Entry<Integer, Integer> entry : townClaimCounts.entrySet()) {
+                if (entry.getValue() > 0) {
+                    upsertStatement.setInt(1, entry.getKey());
+                    upsertStatement.setInt(2, entry.getValue());
+                    upsertStatement.setInt(3, worldId);
+                    upsertStatement.addBatch();
+                } else {
+                    deleteStatement.setInt(1, entry.getKey());
+                    deleteStatement.setInt(2, worldId);
+                    deleteStatement.addBatch();
+                }
+            }
+            upsertStatement.executeBatch();
+            deleteStatement.executeBatch();
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to update claim world entries in the claim index", e);
+        }
+    }
 
     @Override
     @NotNull
@@ -475,13 +583,17 @@ public final class SqLiteDatabase extends Database {
         final ClaimWorld claimWorld = ClaimWorld.of(0, Maps.newConcurrentMap(), Queues.newConcurrentLinkedQueue());
         try (PreparedStatement statement = getConnection().prepareStatement(format("""
             INSERT INTO `%claim_data%` (`world_uuid`, `world_name`, `world_environment`, `server_name`, `claims`)
-            VALUES (?, ?, ?, ?, ?)"""))) {
+            VALUES (?, ?, ?, ?, ?)
+            RETURNING `id`;"""))) {
             statement.setString(1, world.getUuid().toString());
             statement.setString(2, world.getName());
             statement.setString(3, world.getEnvironment());
             statement.setString(4, plugin.getServerName());
             statement.setBytes(5, plugin.getGson().toJson(claimWorld).getBytes(StandardCharsets.UTF_8));
-            claimWorld.updateId(statement.executeUpdate());
+            final ResultSet resultSet = statement.executeQuery();
+            if (resultSet.next()) {
+                claimWorld.updateId(resultSet.getInt("id"));
+            }
         } catch (SQLException | JsonSyntaxException e) {
             plugin.log(Level.SEVERE, "Failed to create claim world in table", e);
         }
@@ -499,7 +611,9 @@ public final class SqLiteDatabase extends Database {
             statement.executeUpdate();
         } catch (SQLException e) {
             plugin.log(Level.SEVERE, "Failed to update claim world in table", e);
+            return;
         }
+        updateClaimIndex(claimWorld.getId(), claimWorld.pollChangedTownClaimCounts());
     }
 
     @Override
@@ -0,0 +1,215 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.database;
+
+import net.william278.husktowns.HuskTowns;
+import net.william278.husktowns.claim.ClaimWorld;
+import net.william278.husktowns.claim.ServerWorld;
+import net.william278.husktowns.claim.World;
+import net.william278.husktowns.town.Town;
+import net.william278.husktowns.user.Preferences;
+import net.william278.husktowns.user.SavedUser;
+import net.william278.husktowns.user.User;
+import net.william278.husktowns.util.PerformanceMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Database} that records the latency of each call to another database, timed by method name
+ */
+public final class TimedDatabase extends Database {
+
+    private static final String TIMER_PREFIX = "database.";
+
+    private final Database database;
+    private final PerformanceMetrics metrics;
+
+    public TimedDatabase(@NotNull HuskTowns plugin, @NotNull Database database) {
+        super(plugin);
+        this.database = database;
+        this.metrics = plugin.getMetrics();
+    }
+
+    private <T> T time(@NotNull String method, @NotNull Supplier<T> call) {
+        final PerformanceMetrics.Timer timer = metrics.timer(TIMER_PREFIX + method);
+        final long start = timer.start();
+        try {
+            return call.get();
+        } finally {
+            timer.stop(start);
+        }
+    }
+
+    private void run(@NotNull String method, @NotNull Runnable call) {
+        time(method, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    @Override
+    protected void executeScript(@NotNull Connection connection, @NotNull String name) throws SQLException {
+        database.executeScript(connection, name);
+    }
+
+    @Override
+    public void initialize() throws RuntimeException {
+        database.initialize();
+    }
+
+    @Override
+    public boolean isCreated() {
+        return database.isCreated();
+    }
+
+    @Override
+    public int getSchemaVersion() {
+        return time("getSchemaVersion", database::getSchemaVersion);
+    }
+
+    @Override
+    public void setSchemaVersion(int version) {
+        run("setSchemaVersion", () -> database.setSchemaVersion(version));
+    }
+
+    @Override
+    public Optional<SavedUser> getUser(@NotNull UUID uuid) {
+        return time("getUser", () -> database.getUser(uuid));
+    }
+
+    @Override
+    public Optional<SavedUser> getUser(@NotNull String username) {
+        return time("getUser", () -> database.getUser(username));
+    }
+
+    @Override
+    public List<SavedUser> getInactiveUsers(long daysInactive) {
+        return time("getInactiveUsers", () -> database.getInactiveUsers(daysInactive));
+    }
+
+    @NotNull
+    @Override
+    public Set<UUID> getInactiveUserUuids(long daysInactive) {
+        return time("getInactiveUserUuids", () -> database.getInactiveUserUuids(daysInactive));
+    }
+
+    @Override
+    public void createUser(@NotNull User user, @NotNull Preferences preferences) {
+        run("createUser", () -> database.createUser(user, preferences));
+    }
+
+    @Override
+    public void updateUser(@NotNull User user, @NotNull OffsetDateTime lastLogin, @NotNull Preferences preferences) {
+        run("updateUser", () -> database.updateUser(user, lastLogin, preferences));
+    }
+
+    @Override
+    public void deleteAllUsers() {
+        run("deleteAllUsers", database::deleteAllUsers);
+    }
+
+    @Override
+    public Optional<Town> getTown(int townId) {
+        return time("getTown", () -> database.getTown(townId));
+    }
+
+    @Override
+    public List<Town> getAllTowns() throws IllegalStateException {
+        return time("getAllTowns", database::getAllTowns);
+    }
+
+    @NotNull
+    @Override
+    public Town createTown(@NotNull String name, @NotNull User creator) {
+        return time("createTown", () -> database.createTown(name, creator));
+    }
+
+    @Override
+    public void updateTown(@NotNull Town town) {
+        run("updateTown", () -> database.updateTown(town));
+    }
+
+    @Override
+    public void deleteTown(int townId) {
+        run("deleteTown", () -> database.deleteTown(townId));
+    }
+
+    @Override
+    public void deleteAllTowns() {
+        run("deleteAllTowns", database::deleteAllTowns);
+    }
+
+    @Override
+    public Map<World, ClaimWorld> getClaimWorlds(@NotNull String server) throws IllegalStateException {
+        return time("getClaimWorlds", () -> database.getClaimWorlds(server));
+    }
+
+    @Override
+    public Map<ServerWorld, ClaimWorld> getAllClaimWorlds() throws IllegalStateException {
+        return time("getAllClaimWorlds", database::getAllClaimWorlds);
+    }
+
+    @Override
+    public Optional<ClaimWorld> getClaimWorld(int worldId) {
+        return time("getClaimWorld", () -> database.getClaimWorld(worldId));
+    }
+
+    @NotNull
+    @Override
+    public List<Integer> getTownClaimWorlds(int townId, @NotNull String server) {
+        return time("getTownClaimWorlds", () -> database.getTownClaimWorlds(townId, server));
+    }
+
+    @Override
+    public void rebuildClaimIndex(@NotNull ClaimWorld claimWorld) {
+        run("rebuildClaimIndex", () -> database.rebuildClaimIndex(claimWorld));
+    }
+
+    @NotNull
+    @Override
+    public ClaimWorld createClaimWorld(@NotNull World world) {
+        return time("createClaimWorld", () -> database.createClaimWorld(world));
+    }
+
+    @Override
+    public void updateClaimWorld(@NotNull ClaimWorld claimWorld) {
+        run("updateClaimWorld", () -> database.updateClaimWorld(claimWorld));
+    }
+
+    @Override
+    public void close() {
+        database.close();
+    }
+
+    @Override
+    public boolean hasLoaded() {
+        return database.hasLoaded();
+    }
+
+}
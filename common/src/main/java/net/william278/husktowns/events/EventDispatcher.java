@@ -30,6 +30,7 @@ import net.william278.husktowns.war.War;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -77,6 +78,12 @@ public interface EventDispatcher {
     @NotNull
     IUnClaimEvent getUnClaimEvent(@NotNull OnlineUser user, @NotNull TownClaim claim);
 
+    @NotNull
+    IBulkClaimEvent getBulkClaimEvent(@NotNull OnlineUser user, @NotNull Town town, @NotNull List<TownClaim> claims);
+
+    @NotNull
+    IBulkUnClaimEvent getBulkUnClaimEvent(@NotNull OnlineUser user, @NotNull Town town, @NotNull List<TownClaim> claims);
+
     @NotNull
     IUnClaimAllEvent getUnClaimAllEvent(@NotNull OnlineUser user, @NotNull Town town);
 
@@ -19,31 +19,70 @@
 
 package net.william278.husktowns.hook;
 
+import com.google.common.collect.Maps;
 import net.william278.husktowns.HuskTowns;
 import net.william278.husktowns.claim.TownClaim;
 import net.william278.husktowns.claim.World;
+import net.william278.husktowns.hook.map.ClaimRegion;
 import net.william278.husktowns.town.Town;
+import net.william278.husktowns.util.Task;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+/**
+ * A hook that displays town claims on a web map.
+ * <p>
+ * Each town's claims in a world are merged into {@link ClaimRegion regions}, and one marker is published per region.
+ * The hook keeps its own copy of the chunks each town has claimed, so that when claims change only the affected
+ * town's regions are traced again.
+ * <p>
+ * Claim changes are queued per town rather than applied straight away. A background worker applies a town's queued
+ * changes together once they have stopped coming in for the configured delay, updating at most the configured number
+ * of towns per second; the same queue paces {@link #populateClaimMarkers() filling the map} on startup.
+ */
 public abstract class MapHook extends Hook {
 
+    private static final String MARKER_UPDATES_COUNTER = "map_hook.marker_updates";
+    private static final String PENDING_UPDATES_GAUGE = "map_hook.pending_updates";
+    private static final long WORKER_INTERVAL = 5L;
+
+    // World names to town IDs to the town's claimed chunks and regions in that world
+    private final Map<String, Map<Integer, TownRegions>> regions = Maps.newConcurrentMap();
+
+    // Queued changes by world and town, and the order they were first queued in
+    private final Map<PendingKey, PendingUpdate> pending = Maps.newConcurrentMap();
+    private final Queue<PendingKey> pendingOrder = new ConcurrentLinkedQueue<>();
+    private Task.Repeating worker;
+    // Updates this worker may still apply; fractional so rates below one update per run are paced over several runs
+    private double updateAllowance;
+
     protected MapHook(@NotNull HuskTowns plugin) {
         super(plugin);
+        plugin.getMetrics().gauge(PENDING_UPDATES_GAUGE, pending::size);
     }
 
-    public abstract void setClaimMarker(@NotNull TownClaim claim, @NotNull World world);
+    public final void setClaimMarker(@NotNull TownClaim claim, @NotNull World world) {
+        queueUpdate(world, claim.town(), chunks -> chunks.add(claim.claim().getChunk().asLong()), true);
+    }
 
-    public abstract void removeClaimMarker(@NotNull TownClaim claim, @NotNull World world);
+    public final void removeClaimMarker(@NotNull TownClaim claim, @NotNull World world) {
+        queueUpdate(world, claim.town(), chunks -> chunks.remove(claim.claim().getChunk().asLong()), true);
+    }
 
     public final void removeClaimMarkers(@NotNull Town town) {
-        plugin.getWorlds().forEach(world -> plugin.getClaimWorld(world).ifPresent(
-            claimWorld -> removeClaimMarkers(claimWorld.getTownClaims(town.getId(), plugin), world)
-        ));
+        plugin.getWorlds().stream()
+            .filter(world -> regions.containsKey(world.getName()))
+            .forEach(world -> queueUpdate(world, town, Set::clear, true));
     }
 
-    public abstract void setClaimMarkers(@NotNull List<TownClaim> claims, @NotNull World world);
+    public final void setClaimMarkers(@NotNull List<TownClaim> claims, @NotNull World world) {
+        groupByTown(claims).forEach((town, chunks) -> queueUpdate(world, town,
+            townChunks -> townChunks.addAll(chunks), true));
+    }
 
     public final void setClaimMarkers(@NotNull Town town) {
         plugin.getWorlds().forEach(world -> plugin.getClaimWorld(world).ifPresent(
@@ -51,18 +90,239 @@ public abstract class MapHook extends Hook {
         ));
     }
 
-    public abstract void removeClaimMarkers(@NotNull List<TownClaim> claims, @NotNull World world);
+    public final void removeClaimMarkers(@NotNull List<TownClaim> claims, @NotNull World world) {
+        groupByTown(claims).forEach((town, chunks) -> queueUpdate(world, town,
+            townChunks -> townChunks.removeAll(chunks), true));
+    }
 
     public final void reloadClaimMarkers(@NotNull Town town) {
-        this.removeClaimMarkers(town);
-        this.setClaimMarkers(town);
+        plugin.getWorlds().forEach(world -> plugin.getClaimWorld(world).ifPresent(claimWorld -> {
+            final Set<Long> chunks = claimWorld.getTownClaims(town.getId(), plugin).stream()
+                .map(claim -> claim.claim().getChunk().asLong())
+                .collect(Collectors.toSet());
+            if (!chunks.isEmpty() || regions.containsKey(world.getName())) {
+                queueUpdate(world, town, townChunks -> {
+                    townChunks.clear();
+                    townChunks.addAll(chunks);
+                }, true);
+            }
+        }));
+    }
+
+    /**
+     * Queue every claim in every world to be added to the map, without waiting for the update delay. Towns are added
+     * at the configured rate, so a large server's claims appear gradually rather than in one burst.
+     */
+    protected final void populateClaimMarkers() {
+        for (World world : plugin.getWorlds()) {
+            plugin.getClaimWorld(world).ifPresent(claimWorld -> groupByTown(claimWorld.getClaims(plugin)).forEach(
+                (town, chunks) -> queueUpdate(world, town, townChunks -> townChunks.addAll(chunks), false)
+            ));
+        }
+    }
+
+    public final void clearAllMarkers() {
+        pending.clear();
+        pendingOrder.clear();
+        regions.clear();
+        clearMarkers();
+    }
+
+    /**
+     * Stop the background worker, dropping any queued updates
+     */
+    public final synchronized void cancelUpdates() {
+        if (worker != null) {
+            worker.cancel();
+            worker = null;
+        }
+        pending.clear();
+        pendingOrder.clear();
+    }
+
+    /**
+     * Update the markers of a town's regions in a world, after its claims there have changed
+     *
+     * @param world   the world the regions are in
+     * @param town    the town the regions belong to
+     * @param removed regions that no longer exist, whose markers should be removed
+     * @param current the town's current regions in the world, whose markers should be added or replaced
+     */
+    protected abstract void updateRegionMarkers(@NotNull World world, @NotNull Town town,
+                                                @NotNull List<ClaimRegion> removed, @NotNull List<ClaimRegion> current);
+
+    /**
+     * Remove every marker this hook has published
+     */
+    protected abstract void clearMarkers();
+
+    // Queue a change to a town's chunks in a world, merging it with any changes already queued for the town
+    private void queueUpdate(@NotNull World world, @NotNull Town town, @NotNull Consumer<Set<Long>> change,
+                             boolean delay) {
+        final long readyAt = System.currentTimeMillis() + (delay
+            ? plugin.getSettings().getGeneral().getWebMapHook().getUpdateDelay() * 50L : 0L);
+        final PendingKey key = new PendingKey(world.getName(), town.getId());
+        pending.compute(key, (k, update) -> {
+            if (update == null) {
+                update = new PendingUpdate(world);
+                pendingOrder.add(key);
+            }
+            update.town = town;
+            update.changes.add(change);
+            update.readyAt = Math.max(update.readyAt, readyAt);
+            return update;
+        });
+        startWorker();
+    }
+
+    private synchronized void startWorker() {
+        if (worker == null) {
+            worker = plugin.getRepeatingTask(this::applyUpdates, WORKER_INTERVAL);
+            worker.run();
+        }
     }
 
-    public abstract void clearAllMarkers();
+    // Stop the worker if nothing is queued; checked under the lock so an update queued meanwhile restarts it
+    private synchronized void stopWorkerIfIdle() {
+        if (pending.isEmpty() && worker != null) {
+            worker.cancel();
+            worker = null;
+        }
+    }
+
+    // Apply the queued updates that are ready, oldest first, up to this run's share of the rate limit
+    private void applyUpdates() {
+        final int perSecond = Math.max(1, plugin.getSettings().getGeneral().getWebMapHook().getTownUpdatesPerSecond());
+        final double perRun = perSecond * WORKER_INTERVAL / 20d;
+        updateAllowance = Math.min(updateAllowance + perRun, Math.max(1, perRun));
+        int budget = (int) updateAllowance;
+        updateAllowance -= budget;
+        final long now = System.currentTimeMillis();
+        final Iterator<PendingKey> keys = pendingOrder.iterator();
+        while (keys.hasNext() && budget > 0) {
+            final PendingKey key = keys.next();
+            final PendingUpdate[] taken = new PendingUpdate[1];
+            pending.computeIfPresent(key, (k, update) -> {
+                if (update.readyAt > now) {
+                    return update;
+                }
+                taken[0] = update;
+                return null;
+            });
+            if (!pending.containsKey(key) || taken[0] != null) {
+                keys.remove();
+            }
+            if (taken[0] != null) {
+                final PendingUpdate update = taken[0];
+                updateRegions(update.world, update.town, chunks -> update.changes.forEach(c -> c.accept(chunks)));
+                budget--;
+            }
+        }
+        updateAllowance += budget;
+        if (pending.isEmpty()) {
+            stopWorkerIfIdle();
+        }
+    }
+
+    // Apply changes to a town's chunks in a world, then trace its regions again and update their markers
+    private void updateRegions(@NotNull World world, @NotNull Town town, @NotNull Consumer<Set<Long>> change) {
+        final TownRegions townRegions = regions.computeIfAbsent(world.getName(), k -> Maps.newConcurrentMap())
+            .computeIfAbsent(town.getId(), k -> new TownRegions());
+        synchronized (townRegions) {
+            change.accept(townRegions.chunks);
+            final List<ClaimRegion> previous = townRegions.regions;
+            final List<ClaimRegion> current = List.copyOf(ClaimRegion.trace(townRegions.chunks));
+            final Set<ClaimRegion.Point> anchors = current.stream()
+                .map(ClaimRegion::anchor)
+                .collect(Collectors.toSet());
+            final List<ClaimRegion> removed = previous.stream()
+                .filter(region -> !anchors.contains(region.anchor()))
+                .toList();
+            townRegions.town = town;
+            townRegions.regions = current;
+
+            updateRegionMarkers(world, town, removed, current);
+            plugin.getMetrics().add(MARKER_UPDATES_COUNTER, removed.size() + current.size());
+        }
+    }
+
+    @NotNull
+    private static Map<Town, Set<Long>> groupByTown(@NotNull List<TownClaim> claims) {
+        final Map<Integer, Town> towns = new HashMap<>();
+        final Map<Integer, Set<Long>> chunks = new HashMap<>();
+        for (TownClaim claim : claims) {
+            towns.putIfAbsent(claim.town().getId(), claim.town());
+            chunks.computeIfAbsent(claim.town().getId(), k -> new HashSet<>())
+                .add(claim.claim().getChunk().asLong());
+        }
+        final Map<Town, Set<Long>> grouped = new LinkedHashMap<>();
+        chunks.forEach((townId, townChunks) -> grouped.put(towns.get(townId), townChunks));
+        return grouped;
+    }
+
+    /**
+     * Get the current regions of each town with claims in a world, for map plugins that pull markers when rendering
+     *
+     * @param worldName the name of the world
+     * @return each town's regions in the world
+     */
+    @NotNull
+    protected final Map<Town, List<ClaimRegion>> getTownRegions(@NotNull String worldName) {
+        final Map<Town, List<ClaimRegion>> townRegions = new LinkedHashMap<>();
+        regions.getOrDefault(worldName, Map.of()).values().forEach(region -> {
+            final Town town = region.town;
+            final List<ClaimRegion> current = region.regions;
+            if (town != null && !current.isEmpty()) {
+                townRegions.put(town, current);
+            }
+        });
+        return townRegions;
+    }
+
+    /**
+     * Get the key identifying a region's marker, which stays the same while the region's north-west chunk is claimed
+     *
+     * @param worldName the name of the world the region is in
+     * @param town      the town the region belongs to
+     * @param region    the region
+     * @return the marker key
+     */
+    @NotNull
+    protected final String getRegionMarkerKey(@NotNull String worldName, @NotNull Town town,
+                                              @NotNull ClaimRegion region) {
+        return plugin.getKey(
+            Integer.toString(town.getId()),
+            Integer.toString(region.anchor().x()),
+            Integer.toString(region.anchor().z()),
+            worldName
+        ).toString();
+    }
 
     @NotNull
     protected final String getMarkerSetKey() {
         return plugin.getKey(getHookInfo().id().toLowerCase(), "markers").toString();
     }
 
+    private record PendingKey(@NotNull String worldName, int townId) {
+    }
+
+    // Changes to a town's chunks in a world waiting to be applied; only modified while mapped in the pending queue
+    private static final class PendingUpdate {
+        private final World world;
+        private final List<Consumer<Set<Long>>> changes = new ArrayList<>();
+        private Town town;
+        private long readyAt;
+
+        private PendingUpdate(@NotNull World world) {
+            this.world = world;
+        }
+    }
+
+    // A town's claimed chunks in a world, and the regions last traced from them
+    private static final class TownRegions {
+        private final Set<Long> chunks = new HashSet<>();
+        private volatile Town town;
+        private volatile List<ClaimRegion> regions = List.of();
+    }
+
 }
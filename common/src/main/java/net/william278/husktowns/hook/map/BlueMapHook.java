@@ -19,6 +19,7 @@
 
 package net.william278.husktowns.hook.map;
 
+import com.flowpowered.math.vector.Vector2d;
 import de.bluecolored.bluemap.api.BlueMapAPI;
 import de.bluecolored.bluemap.api.BlueMapMap;
 import de.bluecolored.bluemap.api.BlueMapWorld;
@@ -27,10 +28,10 @@ import de.bluecolored.bluemap.api.markers.ShapeMarker;
 import de.bluecolored.bluemap.api.math.Color;
 import de.bluecolored.bluemap.api.math.Shape;
 import net.william278.husktowns.HuskTowns;
-import net.william278.husktowns.claim.TownClaim;
 import net.william278.husktowns.claim.World;
 import net.william278.husktowns.hook.MapHook;
 import net.william278.husktowns.hook.PluginHook;
+import net.william278.husktowns.town.Town;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.HashMap;
@@ -67,75 +68,55 @@ public final class BlueMapHook extends MapHook {
             }
 
             plugin.log(Level.INFO, "Enabled BlueMap markers hook. Populating web map with claims...");
-            for (World world : plugin.getWorlds()) {
-                plugin.getClaimWorld(world).ifPresent(claimWorld -> setClaimMarkers(claimWorld.getClaims(plugin), world));
-            }
+            populateClaimMarkers();
         });
     }
 
     @NotNull
-    private ShapeMarker getClaimMarker(@NotNull TownClaim claim) {
-        final int x = claim.claim().getChunk().getX() * 16;
-        final int z = claim.claim().getChunk().getZ() * 16;
+    private ShapeMarker getRegionMarker(@NotNull Town town, @NotNull ClaimRegion region) {
         return ShapeMarker.builder()
-            .label(claim.town().getName())
+            .label(town.getName())
             .fillColor(new Color(
-                claim.town().getDisplayColor().red(),
-                claim.town().getDisplayColor().green(),
-                claim.town().getDisplayColor().blue(),
+                town.getDisplayColor().red(),
+                town.getDisplayColor().green(),
+                town.getDisplayColor().blue(),
                 0.5f
             ))
             .lineColor(new Color(
-                claim.town().getDisplayColor().red(),
-                claim.town().getDisplayColor().green(),
-                claim.town().getDisplayColor().blue(),
+                town.getDisplayColor().red(),
+                town.getDisplayColor().green(),
+                town.getDisplayColor().blue(),
                 1f
             ))
-            .shape(Shape.createRect(x, z, x + 16, z + 16), 64)
+            .shape(getShape(region.outline()), 64)
+            .holes(region.holes().stream().map(this::getShape).toArray(Shape[]::new))
             .lineWidth(1)
             .depthTestEnabled(false)
             .build();
     }
 
     @NotNull
-    private String getClaimMarkerKey(@NotNull TownClaim claim) {
-        return plugin.getKey(
-            Integer.toString(claim.town().getId()),
-            Integer.toString(claim.claim().getChunk().getX()),
-            Integer.toString(claim.claim().getChunk().getZ())
-        ).toString();
-    }
-
-    @Override
-    public void setClaimMarker(@NotNull TownClaim claim, @NotNull World world) {
-        getMarkerSet(world).ifPresent(markerSet -> markerSet.put(getClaimMarkerKey(claim), getClaimMarker(claim)));
+    private Shape getShape(@NotNull List<ClaimRegion.Point> points) {
+        return new Shape(points.stream()
+            .map(point -> Vector2d.from(point.x(), point.z()))
+            .toArray(Vector2d[]::new));
     }
 
     @Override
-    public void setClaimMarkers(@NotNull List<TownClaim> claims, @NotNull World world) {
-        getMarkerSet(world).ifPresent(markerSet -> plugin.getClaimWorld(world).ifPresent(claimWorld -> {
-            for (TownClaim claim : claims) {
-                markerSet.put(getClaimMarkerKey(claim), getClaimMarker(claim));
+    protected void updateRegionMarkers(@NotNull World world, @NotNull Town town,
+                                       @NotNull List<ClaimRegion> removed, @NotNull List<ClaimRegion> current) {
+        getMarkerSet(world).ifPresent(markerSet -> {
+            for (ClaimRegion region : removed) {
+                markerSet.remove(getRegionMarkerKey(world.getName(), town, region));
             }
-        }));
-    }
-
-    @Override
-    public void removeClaimMarker(@NotNull TownClaim claim, @NotNull World world) {
-        getMarkerSet(world).ifPresent(markerSet -> markerSet.remove(getClaimMarkerKey(claim)));
-    }
-
-    @Override
-    public void removeClaimMarkers(@NotNull List<TownClaim> claims, @NotNull World world) {
-        getMarkerSet(world).ifPresent(markerSet -> plugin.getClaimWorld(world).ifPresent(claimWorld -> {
-            for (TownClaim claim : claims) {
-                markerSet.remove(getClaimMarkerKey(claim));
+            for (ClaimRegion region : current) {
+                markerSet.put(getRegionMarkerKey(world.getName(), town, region), getRegionMarker(town, region));
             }
-        }));
+        });
     }
 
     @Override
-    public void clearAllMarkers() {
+    protected void clearMarkers() {
         if (markerSets != null) {
             for (MarkerSet markerSet : markerSets.values()) {
                 for (String markerId : markerSet.getMarkers().keySet()) {
@@ -0,0 +1,283 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.hook.map;
+
+import net.william278.husktowns.claim.Chunk;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * A connected region of claimed chunks, outlined as a polygon with holes for display on a web map.
+ * <p>
+ * Regions are traced from the chunk grid. Every chunk edge not shared with another chunk of the region becomes a
+ * boundary edge, directed so that the region lies on its left, and the edges are then followed into closed rings. Where
+ * the boundary passes through a corner twice, the trace turns left, keeping chunks that only touch diagonally apart.
+ * The outline is the ring with a positive signed area, and the rings with a negative area are its holes; a hole that
+ * touches the outline at a corner is traced as part of the outline, which then touches itself at that corner.
+ *
+ * @param anchor  the north-west corner of the region's most north-westerly chunk, identifying the region
+ * @param outline the corners of the region's outer boundary, in block coordinates
+ * @param holes   the corners of each hole in the region, in block coordinates
+ * @param chunks  the number of chunks in the region
+ */
+public record ClaimRegion(@NotNull Point anchor, @NotNull List<Point> outline, @NotNull List<List<Point>> holes,
+                          int chunks) {
+
+    private static final int CHUNK_SIZE = 16;
+
+    /**
+     * Merge a set of chunks into the connected regions they form
+     *
+     * @param chunks the {@link Chunk#asLong() packed} chunks
+     * @return the regions, one per group of chunks connected by their edges
+     */
+    @NotNull
+    public static List<ClaimRegion> trace(@NotNull Set<Long> chunks) {
+        final List<ClaimRegion> regions = new ArrayList<>();
+        final Set<Long> unvisited = new HashSet<>(chunks);
+        while (!unvisited.isEmpty()) {
+            // Flood fill the region containing the next unvisited chunk
+            final long first = unvisited.iterator().next();
+            unvisited.remove(first);
+            final Set<Long> region = new HashSet<>();
+            final Deque<Long> queue = new ArrayDeque<>(List.of(first));
+            while (!queue.isEmpty()) {
+                final long chunk = queue.poll();
+                region.add(chunk);
+                final int x = getX(chunk);
+                final int z = getZ(chunk);
+                for (long neighbour : new long[]{Chunk.asLong(x + 1, z), Chunk.asLong(x - 1, z),
+                    Chunk.asLong(x, z + 1), Chunk.asLong(x, z - 1)}) {
+                    if (unvisited.remove(neighbour)) {
+                        queue.add(neighbour);
+                    }
+                }
+            }
+            regions.add(traceRegion(region));
+        }
+        return regions;
+    }
+
+    @NotNull
+    private static ClaimRegion traceRegion(@NotNull Set<Long> region) {
+        // Collect the boundary edges, keyed by the corner they start at
+        final Map<Long, List<Long>> edges = new HashMap<>();
+        long anchor = 0;
+        boolean first = true;
+        for (long chunk : region) {
+            final int x = getX(chunk);
+            final int z = getZ(chunk);
+            if (first || x < getX(anchor) || (x == getX(anchor) && z < getZ(anchor))) {
+                anchor = chunk;
+                first = false;
+            }
+            if (!region.contains(Chunk.asLong(x, z - 1))) {
+                addEdge(edges, x, z, x + 1, z);
+            }
+            if (!region.contains(Chunk.asLong(x + 1, z))) {
+                addEdge(edges, x + 1, z, x + 1, z + 1);
+            }
+            if (!region.contains(Chunk.asLong(x, z + 1))) {
+                addEdge(edges, x + 1, z + 1, x, z + 1);
+            }
+            if (!region.contains(Chunk.asLong(x - 1, z))) {
+                addEdge(edges, x, z + 1, x, z);
+            }
+        }
+
+        // Follow the edges into rings, sorting them into the outline and its holes
+        List<Point> outline = List.of();
+        long outlineArea = 0;
+        final List<List<Point>> holes = new ArrayList<>();
+        while (!edges.isEmpty()) {
+            final List<Point> ring = traceRing(edges);
+            final long area = getDoubleArea(ring);
+            if (area > outlineArea) {
+                outline = ring;
+                outlineArea = area;
+            } else if (area < 0) {
+                holes.add(ring);
+            }
+        }
+        return new ClaimRegion(new Point(getX(anchor) * CHUNK_SIZE, getZ(anchor) * CHUNK_SIZE),
+            outline, holes, region.size());
+    }
+
+    private static void addEdge(@NotNull Map<Long, List<Long>> edges, int fromX, int fromZ, int toX, int toZ) {
+        edges.computeIfAbsent(Chunk.asLong(fromX, fromZ), k -> new ArrayList<>(2)).add(Chunk.asLong(toX, toZ));
+    }
+
+    // Follow edges from a corner with only one way out until back at it, removing them as they are used
+    @NotNull
+    private static List<Point> traceRing(@NotNull Map<Long, List<Long>> edges) {
+        long start = edges.keySet().iterator().next();
+        for (Map.Entry<Long, List<Long>> corner : edges.entrySet()) {
+            if (corner.getValue().size() == 1) {
+                start = corner.getKey();
+                break;
+            }
+        }
+
+        final List<Long> corners = new ArrayList<>();
+        long previous = start;
+        long current = takeEdge(edges, start, 0);
+        corners.add(start);
+        while (current != start) {
+            corners.add(current);
+            final long next = takeEdge(edges, current, getDirection(previous, current));
+            previous = current;
+            current = next;
+        }
+
+        // Drop corners in the middle of straight runs
+        final List<Point> ring = new ArrayList<>(corners.size());
+        for (int i = 0; i < corners.size(); i++) {
+            final long before = corners.get(Math.floorMod(i - 1, corners.size()));
+            final long corner = corners.get(i);
+            final long after = corners.get((i + 1) % corners.size());
+            if (getDirection(before, corner) != getDirection(corner, after)) {
+                ring.add(new Point(getX(corner) * CHUNK_SIZE, getZ(corner) * CHUNK_SIZE));
+            }
+        }
+        return ring;
+    }
+
+    // Take the edge out of a corner, turning as far left of the incoming direction as possible where there is a choice
+    private static long takeEdge(@NotNull Map<Long, List<Long>> edges, long corner, long direction) {
+        final List<Long> out = edges.get(corner);
+        int chosen = 0;
+        if (out.size() > 1) {
+            long bestTurn = Long.MIN_VALUE;
+            for (int i = 0; i < out.size(); i++) {
+                final long turn = getTurn(direction, getDirection(corner, out.get(i)));
+                if (turn > bestTurn) {
+                    bestTurn = turn;
+                    chosen = i;
+                }
+            }
+        }
+        final long next = out.remove(chosen);
+        if (out.isEmpty()) {
+            edges.remove(corner);
+        }
+        return next;
+    }
+
+    // The direction between two adjacent corners, packed in the same way as the corners
+    private static long getDirection(long from, long to) {
+        return Chunk.asLong(getX(to) - getX(from), getZ(to) - getZ(from));
+    }
+
+    // Positive for a left turn, zero for straight on and negative for a right turn
+    private static long getTurn(long in, long out) {
+        return (long) getX(in) * getZ(out) - (long) getZ(in) * getX(out);
+    }
+
+    // Twice the signed area of a ring (the shoelace formula), positive if its corners run anti-clockwise
+    private static long getDoubleArea(@NotNull List<Point> ring) {
+        long area = 0;
+        for (int i = 0; i < ring.size(); i++) {
+            final Point a = ring.get(i);
+            final Point b = ring.get((i + 1) % ring.size());
+            area += (long) a.x() * b.z() - (long) b.x() * a.z();
+        }
+        return area;
+    }
+
+    private static int getX(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    private static int getZ(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Get the outline of the region with its holes joined on by zero-width cuts, for web maps that can't draw holes.
+     * <p>
+     * Each hole is joined by a horizontal cut running west from partway along its westernmost edge to the nearest edge
+     * of the outline (or of a hole already joined). Holes are joined from west to east, so the cut never crosses a hole
+     * that hasn't been joined yet.
+     *
+     * @return the corners of a single ring that covers the region, in block coordinates
+     */
+    @NotNull
+    public List<Point> getBridgedOutline() {
+        if (holes.isEmpty()) {
+            return outline;
+        }
+        final List<Point> ring = new ArrayList<>(outline);
+        holes.stream()
+            .sorted(Comparator.comparingInt(hole -> hole.stream().mapToInt(Point::x).min().orElse(0)))
+            .forEach(hole -> bridge(ring, hole));
+        return ring;
+    }
+
+    private static void bridge(@NotNull List<Point> ring, @NotNull List<Point> hole) {
+        // Find the hole's westernmost edge, and start the cut halfway along its first chunk, off the chunk grid
+        int edge = -1;
+        for (int i = 0; i < hole.size(); i++) {
+            final Point a = hole.get(i);
+            if (a.x() == hole.get((i + 1) % hole.size()).x() && (edge < 0 || a.x() < hole.get(edge).x())) {
+                edge = i;
+            }
+        }
+        final Point a = hole.get(edge);
+        final Point b = hole.get((edge + 1) % hole.size());
+        final Point start = new Point(a.x(), Math.min(a.z(), b.z()) + CHUNK_SIZE / 2);
+
+        // Find the nearest edge of the ring to the west that the cut meets
+        int target = -1;
+        for (int i = 0; i < ring.size(); i++) {
+            final Point c = ring.get(i);
+            final Point d = ring.get((i + 1) % ring.size());
+            if (c.x() == d.x() && c.x() < start.x() && (target < 0 || c.x() > ring.get(target).x())
+                && Math.min(c.z(), d.z()) <= start.z() && start.z() < Math.max(c.z(), d.z())) {
+                target = i;
+            }
+        }
+        if (target < 0) {
+            return;
+        }
+        final Point end = new Point(ring.get(target).x(), start.z());
+
+        // Splice the hole into the ring: out along the cut, around the hole, then back along the cut
+        final List<Point> bridged = new ArrayList<>(hole.size() + 4);
+        bridged.add(end);
+        bridged.add(start);
+        for (int i = 1; i <= hole.size(); i++) {
+            bridged.add(hole.get((edge + i) % hole.size()));
+        }
+        bridged.add(start);
+        bridged.add(end);
+        ring.addAll(target + 1, bridged);
+    }
+
+    /**
+     * A corner of a region, in block coordinates
+     *
+     * @param x the x coordinate
+     * @param z the z coordinate
+     */
+    public record Point(int x, int z) {
+    }
+
+}
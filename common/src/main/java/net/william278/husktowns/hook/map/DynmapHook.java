@@ -20,11 +20,10 @@
 package net.william278.husktowns.hook.map;
 
 import net.william278.husktowns.HuskTowns;
-import net.william278.husktowns.claim.Chunk;
-import net.william278.husktowns.claim.TownClaim;
 import net.william278.husktowns.claim.World;
 import net.william278.husktowns.hook.MapHook;
 import net.william278.husktowns.hook.PluginHook;
+import net.william278.husktowns.town.Town;
 import org.dynmap.DynmapCommonAPI;
 import org.dynmap.DynmapCommonAPIListener;
 import org.dynmap.markers.AreaMarker;
@@ -64,38 +63,29 @@ public class DynmapHook extends MapHook {
             getMarkerSet();
 
             plugin.log(Level.INFO, "Enabled Dynmap markers hook. Populating web map with claims...");
-            for (World world : plugin.getWorlds()) {
-                plugin.getClaimWorld(world).ifPresent(claimWorld -> setClaimMarkers(claimWorld.getClaims(plugin), world));
-            }
+            populateClaimMarkers();
         });
     }
 
-    private void addMarker(@NotNull TownClaim claim, @NotNull World world, @NotNull MarkerSet markerSet) {
-        final Chunk chunk = claim.claim().getChunk();
+    private void setMarker(@NotNull Town town, @NotNull ClaimRegion region, @NotNull World world,
+                           @NotNull MarkerSet markerSet) {
+        // Dynmap can't draw holes, so cut them into the outline
+        final List<ClaimRegion.Point> corners = region.getBridgedOutline();
+        final double[] x = corners.stream().mapToDouble(ClaimRegion.Point::x).toArray();
+        final double[] z = corners.stream().mapToDouble(ClaimRegion.Point::z).toArray();
 
-        final String markerId = getClaimMarkerKey(claim, world);
+        final String markerId = getRegionMarkerKey(world.getName(), town, region);
         AreaMarker marker = markerSet.findAreaMarker(markerId);
         if (marker == null) {
-            // Get the corner coordinates
-            double[] x = new double[4];
-            double[] z = new double[4];
-            x[0] = chunk.getX() * 16;
-            z[0] = chunk.getZ() * 16;
-            x[1] = (chunk.getX() * 16) + 16;
-            z[1] = (chunk.getZ() * 16);
-            x[2] = (chunk.getX() * 16) + 16;
-            z[2] = (chunk.getZ() * 16) + 16;
-            x[3] = (chunk.getX() * 16);
-            z[3] = (chunk.getZ() * 16) + 16;
-
-            // Define the marker
             marker = markerSet.createAreaMarker(
                 markerId,
-                claim.town().getName(),
+                town.getName(),
                 false,
                 world.getName(), x, z,
                 false
             );
+        } else {
+            marker.setCornerLocations(x, z);
         }
 
         // Set the marker y level
@@ -103,66 +93,39 @@ public class DynmapHook extends MapHook {
         marker.setRangeY(markerY, markerY);
 
         // Set the fill and stroke colors
-        final int color = Integer.parseInt(claim.town().getColorRgb().substring(1), 16);
+        final int color = Integer.parseInt(town.getColorRgb().substring(1), 16);
         marker.setFillStyle(0.5f, color);
         marker.setLineStyle(1, 1, color);
-        marker.setLabel(claim.town().getName());
-    }
-
-    private void removeMarker(@NotNull TownClaim claim, @NotNull World world) {
-        getMarkerSet().ifPresent(markerSet -> {
-            final AreaMarker marker = markerSet.findAreaMarker(getClaimMarkerKey(claim, world));
-            if (marker != null) {
-                marker.deleteMarker();
-            }
-        });
-    }
-
-
-    @Override
-    public void setClaimMarker(@NotNull TownClaim claim, @NotNull World world) {
-        plugin.runSync(() -> getMarkerSet().ifPresent(markerSet -> addMarker(claim, world, markerSet)));
+        marker.setLabel(town.getName());
     }
 
-    @Override
-    public void removeClaimMarker(@NotNull TownClaim claim, @NotNull World world) {
-        plugin.runSync(() -> getMarkerSet().ifPresent(markerSet -> removeMarker(claim, world)));
+    private void removeMarker(@NotNull Town town, @NotNull ClaimRegion region, @NotNull World world,
+                              @NotNull MarkerSet markerSet) {
+        final AreaMarker marker = markerSet.findAreaMarker(getRegionMarkerKey(world.getName(), town, region));
+        if (marker != null) {
+            marker.deleteMarker();
+        }
     }
 
     @Override
-    public void setClaimMarkers(@NotNull List<TownClaim> townClaims, @NotNull World world) {
+    protected void updateRegionMarkers(@NotNull World world, @NotNull Town town,
+                                       @NotNull List<ClaimRegion> removed, @NotNull List<ClaimRegion> current) {
         plugin.runSync(() -> getMarkerSet().ifPresent(markerSet -> {
-            for (TownClaim claim : townClaims) {
-                addMarker(claim, world, markerSet);
+            for (ClaimRegion region : removed) {
+                removeMarker(town, region, world, markerSet);
             }
-        }));
-    }
-
-    @Override
-    public void removeClaimMarkers(@NotNull List<TownClaim> townClaims, @NotNull World world) {
-        plugin.runSync(() -> getMarkerSet().ifPresent(markerSet -> {
-            for (TownClaim claim : townClaims) {
-                removeMarker(claim, world);
+            for (ClaimRegion region : current) {
+                setMarker(town, region, world, markerSet);
             }
         }));
     }
 
     @Override
-    public void clearAllMarkers() {
+    protected void clearMarkers() {
         plugin.runSync(() -> getMarkerSet().ifPresent(markerSet -> markerSet.getAreaMarkers()
             .forEach(AreaMarker::deleteMarker)));
     }
 
-    @NotNull
-    private String getClaimMarkerKey(@NotNull TownClaim claim, @NotNull World world) {
-        return plugin.getKey(
-            Integer.toString(claim.town().getId()),
-            Integer.toString(claim.claim().getChunk().getX()),
-            Integer.toString(claim.claim().getChunk().getZ()),
-            world.getName()
-        ).toString();
-    }
-
     private Optional<DynmapCommonAPI> getDynmap() {
         return Optional.ofNullable(dynmapApi);
     }
@@ -29,29 +29,25 @@ import net.pl3x.map.core.event.world.WorldUnloadedEvent;
 import net.pl3x.map.core.markers.Point;
 import net.pl3x.map.core.markers.layer.SimpleLayer;
 import net.pl3x.map.core.markers.marker.Marker;
+import net.pl3x.map.core.markers.marker.Polyline;
 import net.pl3x.map.core.markers.option.Options;
 import net.pl3x.map.core.markers.option.Tooltip;
 import net.pl3x.map.core.util.Colors;
 import net.william278.husktowns.HuskTowns;
-import net.william278.husktowns.claim.ClaimWorld;
-import net.william278.husktowns.claim.TownClaim;
 import net.william278.husktowns.claim.World;
 import net.william278.husktowns.hook.MapHook;
 import net.william278.husktowns.hook.PluginHook;
+import net.william278.husktowns.town.Town;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Level;
 
 public class Pl3xMapHook extends MapHook {
 
     private static final String CLAIMS_LAYER = "claim_markers";
-    private final ConcurrentHashMap<ClaimWorld, ConcurrentLinkedQueue<TownClaim>> claims = new ConcurrentHashMap<>();
 
     @PluginHook(id = "Pl3xMap", register = PluginHook.Register.ON_ENABLE, platform = "common")
     public Pl3xMapHook(@NotNull HuskTowns plugin) {
@@ -67,43 +63,18 @@ public class Pl3xMapHook extends MapHook {
         }
 
         plugin.log(Level.INFO, "Enabled Pl3xMap markers hook. Populating web map with claims...");
-        for (World world : plugin.getWorlds()) {
-            plugin.getClaimWorld(world).ifPresent(claimWorld -> setClaimMarkers(claimWorld.getClaims(plugin), world));
-        }
-    }
-
-    @Override
-    public void setClaimMarker(@NotNull TownClaim claim, @NotNull World world) {
-        plugin.getClaimWorld(world).ifPresent(claimWorld -> {
-            ConcurrentLinkedQueue<TownClaim> townClaims = claims.computeIfAbsent(claimWorld, k -> new ConcurrentLinkedQueue<>());
-            townClaims.add(claim);
-        });
-    }
-
-    @Override
-    public void removeClaimMarker(@NotNull TownClaim claim, @NotNull World world) {
-        plugin.getClaimWorld(world).ifPresent(claimWorld -> {
-            ConcurrentLinkedQueue<TownClaim> townClaims = claims.get(claimWorld);
-
-            if (townClaims != null) {
-                townClaims.remove(claim);
-            }
-        });
-    }
-
-    @Override
-    public void setClaimMarkers(@NotNull List<TownClaim> claims, @NotNull World world) {
-        claims.forEach(claim -> setClaimMarker(claim, world));
+        populateClaimMarkers();
     }
 
     @Override
-    public void removeClaimMarkers(@NotNull List<TownClaim> claims, @NotNull World world) {
-        claims.forEach(claim -> removeClaimMarker(claim, world));
+    protected void updateRegionMarkers(@NotNull World world, @NotNull Town town,
+                                       @NotNull List<ClaimRegion> removed, @NotNull List<ClaimRegion> current) {
+        // Pl3xMap pulls markers from the layer when it renders, so there is nothing to push
     }
 
     @Override
-    public void clearAllMarkers() {
-        claims.clear();
+    protected void clearMarkers() {
+        // The layer reads the hook's regions, which are already cleared
     }
 
     @NotNull
@@ -112,13 +83,21 @@ public class Pl3xMapHook extends MapHook {
     }
 
     @NotNull
-    private String getClaimMarkerKey(@NotNull TownClaim claim, @NotNull net.pl3x.map.core.world.World world) {
-        return plugin.getKey(
-            Integer.toString(claim.town().getId()),
-            Integer.toString(claim.claim().getChunk().getX()),
-            Integer.toString(claim.claim().getChunk().getZ()),
-            world.getName()
-        ).toString();
+    private Marker<?> getRegionMarker(@NotNull Town town, @NotNull ClaimRegion region, @NotNull String worldName) {
+        final String key = getRegionMarkerKey(worldName, town, region);
+        final List<Polyline> rings = new ArrayList<>(region.holes().size() + 1);
+        rings.add(getRing(key + "/outline", region.outline()));
+        for (int i = 0; i < region.holes().size(); i++) {
+            rings.add(getRing(key + "/hole/" + i, region.holes().get(i)));
+        }
+        return Marker.polygon(key, rings.toArray(Polyline[]::new)).setOptions(getMarkerOptions(town));
+    }
+
+    @NotNull
+    private static Polyline getRing(@NotNull String key, @NotNull List<ClaimRegion.Point> points) {
+        return Marker.polyline(key, points.stream()
+            .map(point -> Point.of(point.x(), point.z()))
+            .toArray(Point[]::new));
     }
 
     private void registerLayers(@NotNull net.pl3x.map.core.world.World mapWorld) {
@@ -127,10 +106,10 @@ public class Pl3xMapHook extends MapHook {
     }
 
     @NotNull
-    public Options getMarkerOptions(@NotNull TownClaim claim) {
-        final TextColor color = claim.town().getDisplayColor();
+    public Options getMarkerOptions(@NotNull Town town) {
+        final TextColor color = town.getDisplayColor();
         return Options.builder()
-            .tooltip(new Tooltip(claim.town().getName()).setDirection(Tooltip.Direction.TOP))
+            .tooltip(new Tooltip(town.getName()).setDirection(Tooltip.Direction.TOP))
             .fillColor(Colors.argb(255 / 2, color.red(), color.green(), color.blue()))
             .strokeColor(Colors.rgb((int) (color.red() * 0.7), (int) (color.green() * 0.7), (int) (color.blue() * 0.7)))
             .build();
@@ -150,22 +129,10 @@ public class Pl3xMapHook extends MapHook {
         @Override
         @NotNull
         public Collection<Marker<?>> getMarkers() {
-            Collection<Marker<?>> markers = new ArrayList<>();
-
-            Optional<ClaimWorld> world = Optional.ofNullable(hook.plugin.getClaimWorlds().get(mapWorld.getName()));
-
-            world.ifPresent(claimWorld -> {
-                ConcurrentLinkedQueue<TownClaim> claimQueue = hook.claims.get(claimWorld);
-
-                if (claimQueue != null) {
-                    claimQueue.forEach(claim -> markers.add(Marker.rectangle(
-                        hook.getClaimMarkerKey(claim, mapWorld),
-                        Point.of((claim.claim().getChunk().getX() * 16), (claim.claim().getChunk().getZ() * 16)),
-                        Point.of(((claim.claim().getChunk().getX() * 16) + 16), ((claim.claim().getChunk().getZ() * 16) + 16))
-                    ).setOptions(hook.getMarkerOptions(claim))));
-                }
-            });
-
+            final Collection<Marker<?>> markers = new ArrayList<>();
+            hook.getTownRegions(mapWorld.getName()).forEach((town, regions) -> regions.forEach(
+                region -> markers.add(hook.getRegionMarker(town, region, mapWorld.getName()))
+            ));
             return markers;
         }
     }
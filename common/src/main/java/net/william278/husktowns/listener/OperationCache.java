@@ -0,0 +1,219 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.listener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import net.william278.cloplib.operation.OperationType;
+import net.william278.husktowns.HuskTowns;
+import net.william278.husktowns.claim.Chunk;
+import net.william278.husktowns.claim.ClaimWorld;
+import net.william278.husktowns.claim.Position;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches the outcome of {@link OperationHandler#cancelOperation(net.william278.cloplib.operation.Operation)} checks,
+ * keyed by the user, chunk and type of the operation.
+ * <p>
+ * Cached decisions are stamped when they are made, and are discarded once the claims in their world change, the town
+ * owning their chunk is updated, the preferences of the user who made them change, or the cache is invalidated as a
+ * whole.
+ */
+public class OperationCache {
+
+    private static final int MAXIMUM_SIZE = 10_000;
+    private static final long EXPIRE_AFTER_ACCESS_MINUTES = 5;
+
+    private final HuskTowns plugin;
+    private final Cache<Key, Entry> decisions = CacheBuilder.newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+        .build();
+
+    // Town and user versions and the last full invalidation are all taken from one counter, so a decision is still
+    // valid for as long as nothing it depends on has been bumped past the stamp it was made at
+    private final AtomicLong counter = new AtomicLong();
+    private final Map<Integer, Long> townVersions = Maps.newConcurrentMap();
+    private final Map<UUID, Long> userVersions = Maps.newConcurrentMap();
+    private volatile long invalidatedAt = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public OperationCache(@NotNull HuskTowns plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Get the decision for an operation, from the cache if a valid one has been made
+     *
+     * @param user     the UUID of the user performing the operation, if any
+     * @param position the position of the operation
+     * @param type     the type of operation
+     * @param decider  makes the decision if there is no valid cached one
+     * @return the decision
+     */
+    @NotNull
+    Decision getDecision(@Nullable UUID user, @NotNull Position position, @NotNull OperationType type,
+                         @NotNull Supplier<Decision> decider) {
+        if (!plugin.getSettings().getGeneral().isCacheOperationDecisions()) {
+            return decider.get();
+        }
+
+        final String worldName = position.getWorld().getName();
+        final ClaimWorld claimWorld = plugin.getClaimWorlds().get(worldName);
+        final Key key = new Key(user, worldName, Chunk.asLong(
+            (int) Math.floor(position.getX()) >> 4, (int) Math.floor(position.getZ()) >> 4), type);
+        final Entry entry = decisions.getIfPresent(key);
+        if (entry != null && isValid(entry, user, claimWorld)) {
+            hits.increment();
+            return entry.decision();
+        }
+        misses.increment();
+
+        // Take the stamps before deciding, so a concurrent change invalidates the decision
+        final long stamp = counter.get();
+        final long claimsVersion = claimWorld == null ? 0 : claimWorld.getVersion();
+        final Decision decision = decider.get();
+        if (decision.cacheable()) {
+            decisions.put(key, new Entry(decision, claimWorld, claimsVersion, stamp));
+        } else if (entry != null) {
+            decisions.invalidate(key);
+        }
+        return decision;
+    }
+
+    private boolean isValid(@NotNull Entry entry, @Nullable UUID user, @Nullable ClaimWorld claimWorld) {
+        return entry.claimWorld() == claimWorld
+            && (claimWorld == null || claimWorld.getVersion() == entry.claimsVersion())
+            && invalidatedAt <= entry.stamp()
+            && (user == null || userVersions.getOrDefault(user, 0L) <= entry.stamp())
+            && (entry.decision().townId() == Decision.NO_TOWN
+            || townVersions.getOrDefault(entry.decision().townId(), 0L) <= entry.stamp());
+    }
+
+    /**
+     * Invalidate cached decisions about operations in a town's claims, such as when its rules, roles or members change
+     *
+     * @param townId the ID of the town
+     */
+    public void invalidate(int townId) {
+        townVersions.put(townId, counter.incrementAndGet());
+    }
+
+    /**
+     * Invalidate cached decisions about operations performed by a user, such as when their preferences change
+     *
+     * @param user the UUID of the user
+     */
+    public void invalidate(@NotNull UUID user) {
+        userVersions.put(user, counter.incrementAndGet());
+    }
+
+    /**
+     * Remove cached decisions about operations performed by a user, such as when they leave the server
+     *
+     * @param user the UUID of the user
+     */
+    public void removeUser(@NotNull UUID user) {
+        decisions.asMap().keySet().removeIf(key -> user.equals(key.user()));
+        userVersions.remove(user);
+    }
+
+    /**
+     * Invalidate all cached decisions
+     */
+    public void invalidate() {
+        invalidatedAt = counter.incrementAndGet();
+        townVersions.clear();
+        userVersions.clear();
+        decisions.invalidateAll();
+    }
+
+    @NotNull
+    public Statistics getStatistics() {
+        return new Statistics(hits.sum(), misses.sum(), decisions.size());
+    }
+
+    /**
+     * The outcome of an operation check
+     *
+     * @param cancelled whether the operation is cancelled
+     * @param locale    the locale to send to the user if a verbose operation is cancelled, if any
+     * @param argument  the argument to format the locale with, if any
+     * @param townId    the ID of the town the decision depends on, or {@link #NO_TOWN}
+     * @param cacheable whether the decision may be cached
+     */
+    record Decision(boolean cancelled, @Nullable String locale, @Nullable String argument, int townId,
+                    boolean cacheable) {
+
+        static final int NO_TOWN = Integer.MIN_VALUE;
+        static final Decision ALLOW = new Decision(false, null, null, NO_TOWN, true);
+
+        @NotNull
+        static Decision allow(int townId) {
+            return new Decision(false, null, null, townId, true);
+        }
+
+        @NotNull
+        static Decision cancel(int townId, @Nullable String locale, @Nullable String argument) {
+            return new Decision(true, locale, argument, townId, true);
+        }
+
+        @NotNull
+        Decision uncacheable() {
+            return new Decision(cancelled, locale, argument, townId, false);
+        }
+
+    }
+
+    /**
+     * Statistics about the decisions served by an {@link OperationCache}
+     *
+     * @param hits    the number of decisions served from the cache
+     * @param misses  the number of decisions that had to be made
+     * @param entries the number of decisions currently cached
+     */
+    public record Statistics(long hits, long misses, long entries) {
+
+        public double hitRate() {
+            final long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+    }
+
+    private record Key(@Nullable UUID user, @NotNull String world, long chunk, @NotNull OperationType type) {
+    }
+
+    private record Entry(@NotNull Decision decision, @Nullable ClaimWorld claimWorld, long claimsVersion,
+                         long stamp) {
+    }
+
+}
@@ -35,6 +35,7 @@ import net.william278.husktowns.town.Privilege;
 import net.william278.husktowns.town.Town;
 import net.william278.husktowns.user.OnlineUser;
 import net.william278.husktowns.user.Preferences;
+import net.william278.husktowns.util.PerformanceMetrics;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Optional;
@@ -61,27 +62,33 @@ public interface OperationHandler extends ChunkHandler {
             return false;
         }
 
+        // Look up the claim being entered; the claim being left is already tracked for the user
+        final World world = user.getWorld();
+        final ClaimTracker tracker = getPlugin().getClaimTracker();
+        final Optional<TownClaim> fromClaim = tracker.getClaimAt(user, world, from);
+        final Optional<TownClaim> toClaim = tracker.track(user, world, to);
+
         // Handle wars
-        final Optional<TownClaim> fromClaim = getPlugin().getClaimAt(from, user.getWorld());
-        final Optional<TownClaim> toClaim = getPlugin().getClaimAt(to, user.getWorld());
-        final Locales.Slot notificationSlot = getPlugin().getSettings().getGeneral().getNotificationSlot();
         getPlugin().getManager().wars().ifPresent(wars -> wars.handlePlayerFlee(user));
 
         // Auto-claiming
         if (toClaim.isEmpty() && getPlugin().getUserPreferences(user.getUuid())
             .map(Preferences::isAutoClaimingLand)
             .orElse(false)) {
-            getPlugin().getManager().claims().createClaim(user, user.getWorld(), to, false);
+            getPlugin().getManager().claims().createClaim(user, world, to, false);
             return false;
         }
-        if (fromClaim.map(TownClaim::town).equals(toClaim.map(TownClaim::town))) {
+        if (fromClaim.map(claim -> claim.town().getId()).equals(toClaim.map(claim -> claim.town().getId()))) {
             return false;
         }
 
         // Claim entry messages
+        final Locales.Slot notificationSlot = getPlugin().getSettings().getGeneral().getNotificationSlot();
+        final Position position = user.getPosition();
         if (toClaim.isPresent()) {
             final TownClaim entering = toClaim.get();
-            if (getPlugin().fireIsCancelled(getPlugin().getPlayerEnterTownEvent(user, entering, user.getPosition(), user.getPosition()))) {
+            if (getPlugin().fireIsCancelled(getPlugin().getPlayerEnterTownEvent(user, entering, position, position))) {
+                tracker.track(user, world, from);
                 return true;
             }
 
@@ -91,7 +98,7 @@ public interface OperationHandler extends ChunkHandler {
             if (town.getGreeting().isPresent()) {
                 user.sendMessage(Component.text(town.getGreeting().get()).color(color));
             } else {
-                getPlugin().getLocales().getLocale("entering_town", town.getName(), town.getColorRgb())
+                getPlugin().getLocales().getLocaleComponent("entering_town", town.getName(), town.getColorRgb())
                     .ifPresent(user::sendMessage);
             }
             return false;
@@ -100,17 +107,18 @@ public interface OperationHandler extends ChunkHandler {
         // Town exit messages
         if (fromClaim.isPresent()) {
             final TownClaim leaving = fromClaim.get();
-            if (getPlugin().fireIsCancelled(getPlugin().getPlayerLeaveTownEvent(user, leaving, user.getPosition(), user.getPosition()))) {
+            if (getPlugin().fireIsCancelled(getPlugin().getPlayerLeaveTownEvent(user, leaving, position, position))) {
+                tracker.track(user, world, from);
                 return true;
             }
 
             final Town town = leaving.town();
-            getPlugin().getLocales().getLocale("wilderness")
+            getPlugin().getLocales().getLocaleComponent("wilderness")
                 .ifPresent(locale -> user.sendMessage(notificationSlot, locale));
             if (town.getFarewell().isPresent()) {
                 user.sendMessage(Component.text(town.getFarewell().get()).color(TextColor.fromHexString(town.getColorRgb())));
             } else {
-                getPlugin().getLocales().getLocale("leaving_town", town.getName(), town.getColorRgb())
+                getPlugin().getLocales().getLocaleComponent("leaving_town", town.getName(), town.getColorRgb())
                     .ifPresent(user::sendMessage);
             }
         }
@@ -125,11 +133,21 @@ public interface OperationHandler extends ChunkHandler {
      */
     @Override
     default boolean cancelOperation(@NotNull Operation operation) {
+        final PerformanceMetrics.Timer timer = getPlugin().getMetrics().operationChecks();
+        final long start = timer.start();
+        try {
+            return checkOperation(operation);
+        } finally {
+            timer.stop(start);
+        }
+    }
+
+    private boolean checkOperation(@NotNull Operation operation) {
         final Optional<OnlineUser> optionalUser = operation.getUser().map(u -> (OnlineUser) u);
 
         // Handle operations while the plugin is not loaded
         if (!getPlugin().isLoaded()) {
-            optionalUser.ifPresent(user -> getPlugin().getLocales().getLocale("error_not_loaded")
+            optionalUser.ifPresent(user -> getPlugin().getLocales().getLocaleComponent("error_not_loaded")
                 .ifPresent(user::sendMessage));
             return true;
         }
@@ -139,118 +157,146 @@ public interface OperationHandler extends ChunkHandler {
         if (optionalVictim.isPresent() && optionalUser.isPresent()
             && cancelFriendlyFire(optionalUser.get(), optionalVictim.get())) {
             if (operation.isVerbose()) {
-                getPlugin().getLocales().getLocale("operation_cancelled_friendly",
+                getPlugin().getLocales().getLocaleComponent("operation_cancelled_friendly",
                     optionalVictim.get().getName()).ifPresent(optionalUser.get()::sendMessage);
             }
             return true;
         }
 
+        // Handle operations in claims and the wilderness, using a cached decision if possible
+        final Position position = (Position) operation.getOperationPosition();
+        final OperationCache.Decision decision = getPlugin().getOperationCache().getDecision(
+            optionalUser.map(OnlineUser::getUuid).orElse(null), position, operation.getType(),
+            () -> getDecision(operation, position)
+        );
+        if (decision.cancelled() && decision.locale() != null && operation.isVerbose() && optionalUser.isPresent()) {
+            (decision.argument() != null
+                ? getPlugin().getLocales().getLocaleComponent(decision.locale(), decision.argument())
+                : getPlugin().getLocales().getLocaleComponent(decision.locale()))
+                .ifPresent(optionalUser.get()::sendMessage);
+        }
+        return decision.cancelled();
+    }
+
+    /**
+     * Decide whether to cancel an {@link Operation} that is not between two users
+     *
+     * @param operation the operation to check
+     * @param position  the position of the operation
+     * @return the decision
+     */
+    @NotNull
+    private OperationCache.Decision getDecision(@NotNull Operation operation, @NotNull Position position) {
         // Handle operations in claims
-        final Optional<TownClaim> claim = getPlugin().getClaimAt((Position) operation.getOperationPosition());
+        final Optional<TownClaim> claim = getPlugin().getClaimAt(position);
         if (claim.isPresent()) {
-            return cancelOperation(operation, claim.get());
+            return getDecision(operation, claim.get());
         }
 
         // Handle operations in unclaimable worlds
-        final Optional<ClaimWorld> world = getPlugin().getClaimWorld((World) operation.getOperationPosition().getWorld());
+        final Optional<ClaimWorld> world = getPlugin().getClaimWorld(position.getWorld());
         if (world.isEmpty()) {
             if (getPlugin().getRulePresets().getUnclaimableWorldRules(getPlugin().getFlags())
                 .cancelOperation(operation.getType(), getPlugin().getFlags())) {
-                if (operation.isVerbose() && optionalUser.isPresent()) {
-                    getPlugin().getLocales().getLocale("operation_cancelled")
-                        .ifPresent(optionalUser.get()::sendMessage);
-                }
-                return true;
+                return OperationCache.Decision.cancel(OperationCache.Decision.NO_TOWN, "operation_cancelled", null);
             }
-            return false;
+            return OperationCache.Decision.ALLOW;
         }
 
         // Handle operations in claim worlds
         if (getPlugin().getRulePresets().getWildernessRules(getPlugin().getFlags())
             .cancelOperation(operation.getType(), getPlugin().getFlags())) {
-            if (operation.isVerbose() && optionalUser.isPresent()) {
-                getPlugin().getLocales().getLocale("operation_cancelled")
-                    .ifPresent(optionalUser.get()::sendMessage);
-            }
-            return true;
+            return OperationCache.Decision.cancel(OperationCache.Decision.NO_TOWN, "operation_cancelled", null);
         }
-        return false;
+        return OperationCache.Decision.ALLOW;
     }
 
     /**
-     * Returns whether to cancel an operation that takes place in a claim
+     * Decide whether to cancel an operation that takes place in a claim
      *
      * @param operation the operation to check
      * @param townClaim the claim to check
-     * @return whether to cancel the operation
+     * @return the decision
      */
-    private boolean cancelOperation(@NotNull Operation operation, @NotNull TownClaim townClaim) {
+    @NotNull
+    private OperationCache.Decision getDecision(@NotNull Operation operation, @NotNull TownClaim townClaim) {
         final Optional<OnlineUser> optionalUser = operation.getUser().map(u -> (OnlineUser) u);
         final Town town = townClaim.town();
-        final Claim claim = townClaim.claim();
 
-        // Apply wartime flags if the user is active in a town that is at war
+        // Apply wartime flags if the user is active in a town that is at war. Wars change as players die or flee,
+        // so decisions about towns at war are never cached
         final Settings.TownSettings.RelationsSettings relations = getPlugin().getSettings().getTowns().getRelations();
-        if (relations.getWars().isEnabled() && relations.isEnabled() &&
-            town.getCurrentWar().map(war -> war.getDefending() == town.getId() && operation.getUser()
+        if (relations.getWars().isEnabled() && relations.isEnabled() && town.getCurrentWar().isPresent()) {
+            if (town.getCurrentWar().map(war -> war.getDefending() == town.getId() && operation.getUser()
                     .map(online -> war.isPlayerActive(online.getUuid()))
                     .orElse(false))
                 .orElse(false)) {
-            return getPlugin().getRulePresets().getWartimeRules(getPlugin().getFlags())
-                .cancelOperation(operation.getType(), getPlugin().getFlags());
+                final boolean cancelled = getPlugin().getRulePresets().getWartimeRules(getPlugin().getFlags())
+                    .cancelOperation(operation.getType(), getPlugin().getFlags());
+                return (cancelled ? OperationCache.Decision.cancel(town.getId(), null, null)
+                    : OperationCache.Decision.allow(town.getId())).uncacheable();
+            }
+            return getClaimDecision(operation, optionalUser, townClaim).uncacheable();
         }
+        return getClaimDecision(operation, optionalUser, townClaim);
+    }
+
+    @NotNull
+    private OperationCache.Decision getClaimDecision(@NotNull Operation operation,
+                                                     @NotNull Optional<OnlineUser> optionalUser,
+                                                     @NotNull TownClaim townClaim) {
+        final Town town = townClaim.town();
+        final Claim claim = townClaim.claim();
 
         // If the operation is not allowed by the claim flags
         if (town.getRules().get(claim.getType()).cancelOperation(operation.getType(), getPlugin().getFlags())) {
             if (optionalUser.isEmpty()) {
-                return true;
+                return OperationCache.Decision.cancel(town.getId(), null, null);
             }
 
-            // Handle admin claims
+            // Handle admin claims. Access depends on a permission, so decisions about admin claims are never cached
             final OnlineUser user = optionalUser.get();
-            if (townClaim.isAdminClaim(getPlugin()) && user.hasPermission(ADMIN_CLAIM_ACCESS_PERMISSION)) {
-                return false;
+            if (townClaim.isAdminClaim(getPlugin())) {
+                if (user.hasPermission(ADMIN_CLAIM_ACCESS_PERMISSION)) {
+                    return OperationCache.Decision.allow(town.getId()).uncacheable();
+                }
+                return getMemberDecision(user, townClaim).uncacheable();
             }
+            return getMemberDecision(user, townClaim);
+        }
+        return OperationCache.Decision.allow(town.getId());
+    }
 
-            // Handle plot memberships
-            final Claim.Type claimType = claim.getType();
-            if (claimType == Claim.Type.PLOT && claim.isPlotMember(user.getUuid())) {
-                return false;
-            }
+    @NotNull
+    private OperationCache.Decision getMemberDecision(@NotNull OnlineUser user, @NotNull TownClaim townClaim) {
+        final Town town = townClaim.town();
+        final Claim claim = townClaim.claim();
 
-            // Handle ignoring claims
-            if (getPlugin().getUserPreferences(user.getUuid()).map(Preferences::isIgnoringClaims).orElse(false)) {
-                return false;
-            }
+        // Handle plot memberships
+        final Claim.Type claimType = claim.getType();
+        if (claimType == Claim.Type.PLOT && claim.isPlotMember(user.getUuid())) {
+            return OperationCache.Decision.allow(town.getId());
+        }
 
-            final Optional<Member> optionalMember = getPlugin().getUserTown(user);
-            if (optionalMember.isEmpty()) {
-                if (operation.isVerbose()) {
-                    getPlugin().getLocales().getLocale("operation_cancelled_claimed",
-                        town.getName()).ifPresent(user::sendMessage);
-                }
-                return true;
-            }
+        // Handle ignoring claims
+        if (getPlugin().getUserPreferences(user.getUuid()).map(Preferences::isIgnoringClaims).orElse(false)) {
+            return OperationCache.Decision.allow(town.getId());
+        }
 
-            final Member member = optionalMember.get();
-            if (!member.town().equals(town)) {
-                if (operation.isVerbose()) {
-                    getPlugin().getLocales().getLocale("operation_cancelled_claimed",
-                        town.getName()).ifPresent(user::sendMessage);
-                }
-                return true;
-            }
+        final Optional<Member> optionalMember = getPlugin().getUserTown(user);
+        if (optionalMember.isEmpty()) {
+            return OperationCache.Decision.cancel(town.getId(), "operation_cancelled_claimed", town.getName());
+        }
 
-            if (!member.hasPrivilege(getPlugin(), Privilege.TRUSTED_ACCESS)) {
-                if (operation.isVerbose()) {
-                    getPlugin().getLocales().getLocale("operation_cancelled_privileges")
-                        .ifPresent(user::sendMessage);
-                }
-                return true;
-            }
-            return false;
+        final Member member = optionalMember.get();
+        if (!member.town().equals(town)) {
+            return OperationCache.Decision.cancel(town.getId(), "operation_cancelled_claimed", town.getName());
         }
-        return false;
+
+        if (!member.hasPrivilege(getPlugin(), Privilege.TRUSTED_ACCESS)) {
+            return OperationCache.Decision.cancel(town.getId(), "operation_cancelled_privileges", null);
+        }
+        return OperationCache.Decision.allow(town.getId());
     }
 
     /**
@@ -265,12 +311,21 @@ public interface OperationHandler extends ChunkHandler {
     default boolean cancelNature(@NotNull OperationWorld operationWorld, @NotNull OperationChunk chunk1,
                                  @NotNull OperationChunk chunk2) {
         final World world = (World) operationWorld;
-        if (getPlugin().getClaimWorld(world).isEmpty()) {
+        final ClaimWorld claimWorld = getPlugin().getClaimWorlds().get(world.getName());
+        if (claimWorld == null) {
+            return false;
+        }
+
+        // Neighbouring chunks can only have different owners if both are border chunks
+        final Chunk from = (Chunk) chunk1;
+        final Chunk to = (Chunk) chunk2;
+        if (Math.abs(from.getX() - to.getX()) <= 1 && Math.abs(from.getZ() - to.getZ()) <= 1
+            && (!claimWorld.isBorderChunk(from.getX(), from.getZ()) || !claimWorld.isBorderChunk(to.getX(), to.getZ()))) {
             return false;
         }
 
-        final Optional<TownClaim> claim1 = getPlugin().getClaimAt((Chunk) chunk1, world);
-        final Optional<TownClaim> claim2 = getPlugin().getClaimAt((Chunk) chunk2, world);
+        final Optional<TownClaim> claim1 = claimWorld.getClaimAt(from, getPlugin());
+        final Optional<TownClaim> claim2 = claimWorld.getClaimAt(to, getPlugin());
         if (claim1.isPresent() && claim2.isPresent()) {
             return !claim1.get().town().equals(claim2.get().town());
         }
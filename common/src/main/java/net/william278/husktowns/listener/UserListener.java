@@ -38,7 +38,19 @@ import java.util.Optional;
 
 public interface UserListener {
 
+    /**
+     * How often to reconcile the global user list, in ticks
+     */
+    long USER_LIST_RECONCILIATION_TICKS = 20 * 60 * 5;
+    /**
+     * How long, in milliseconds, a server can go without reporting its online users before they are removed from the
+     * global user list; one reconciliation window, plus a minute's grace
+     */
+    long USER_LIST_EXPIRY_MILLIS = (USER_LIST_RECONCILIATION_TICKS / 20 + 60) * 1000;
+
     default void handlePlayerJoin(@NotNull OnlineUser user) {
+        getPlugin().getNetworkUserList().add(getPlugin().getServerName(), user);
+        getPlugin().getOnlineMemberIndex().add(user);
         getPlugin().runAsync(() -> {
             final Optional<SavedUser> userData = getPlugin().getDatabase().getUser(user.getUuid());
             if (userData.isEmpty()) {
@@ -73,9 +85,7 @@ public interface UserListener {
                 }
 
                 // Synchronize the global player list
-                getPlugin().runSyncDelayed(() -> this.syncGlobalUserList(
-                    user, getPlugin().getOnlineUsers().stream().map(online -> (User) online).toList()), user, 40L
-                );
+                getPlugin().runSyncDelayed(() -> this.syncGlobalUserList(user), user, 40L);
 
                 // Handle teleportation completion
                 if (preferences.getTeleportTarget().isPresent()) {
@@ -116,22 +126,23 @@ public interface UserListener {
     // When a player quits
     default void handlePlayerQuit(@NotNull OnlineUser user) {
         // Update global user list if needed
+        getPlugin().getNetworkUserList().remove(getPlugin().getServerName(), user.getUuid());
+        getPlugin().getOnlineMemberIndex().remove(user.getUuid());
         if (getPlugin().getSettings().getCrossServer().isEnabled()) {
-            final List<User> localPlayerList = getPlugin().getOnlineUsers().stream()
-                .filter(u -> !u.equals(user)).map(u -> (User) u).toList();
-
             if (getPlugin().getSettings().getCrossServer().getBrokerType() == Broker.Type.REDIS) {
-                this.syncGlobalUserList(user, localPlayerList);
-                return;
+                this.broadcastUserQuit(user, user);
+            } else {
+                getPlugin().getOnlineUsers().stream()
+                    .filter(u -> !u.equals(user))
+                    .findAny()
+                    .ifPresent(player -> this.broadcastUserQuit(player, user));
             }
-            getPlugin().getOnlineUsers().stream()
-                .filter(u -> !u.equals(user))
-                .findAny()
-                .ifPresent(player -> this.syncGlobalUserList(player, localPlayerList));
         }
 
         // Handle war victory checks
         getPlugin().getManager().wars().ifPresent(wars -> wars.handlePlayerQuit(user));
+        getPlugin().getClaimTracker().untrack(user.getUuid());
+        getPlugin().getOperationCache().removeUser(user.getUuid());
     }
 
     default boolean handlePlayerChat(@NotNull OnlineUser user, @NotNull String message) {
@@ -143,28 +154,59 @@ public interface UserListener {
         return false;
     }
 
-    // Synchronize the global player list
-    default void syncGlobalUserList(@NotNull OnlineUser user, @NotNull List<User> onlineUsers) {
+    // Synchronize the global player list when a user joins
+    default void syncGlobalUserList(@NotNull OnlineUser user) {
         final Optional<Broker> optionalBroker = getPlugin().getMessageBroker();
         if (optionalBroker.isEmpty()) {
             return;
         }
         final Broker broker = optionalBroker.get();
 
-        // Send this server's player list to all servers
-        Message.builder()
-            .type(Message.Type.USER_LIST)
-            .target(Message.TARGET_ALL, Message.TargetType.SERVER)
-            .payload(Payload.userList(onlineUsers))
-            .build().send(broker, user);
-
-        // Clear cached global player lists and request updated lists from all servers
+        // If this is the only user online, the server may have missed updates; resync all lists
         if (getPlugin().getOnlineUsers().size() == 1) {
-            getPlugin().getGlobalUserList().clear();
+            getPlugin().getNetworkUserList().clearOtherServers(getPlugin().getServerName());
+            this.broadcastUserList(user);
             Message.builder()
                 .type(Message.Type.REQUEST_USER_LIST)
                 .target(Message.TARGET_ALL, Message.TargetType.SERVER)
                 .build().send(broker, user);
+            return;
+        }
+
+        // Otherwise, just tell other servers that the user has joined
+        Message.builder()
+            .type(Message.Type.USER_LIST_ADD)
+            .target(Message.TARGET_ALL, Message.TargetType.SERVER)
+            .payload(Payload.userList(List.of(User.of(user.getUuid(), user.getUsername()))))
+            .build().send(broker, user);
+    }
+
+    // Tell other servers that a user has left this server
+    default void broadcastUserQuit(@NotNull OnlineUser sender, @NotNull User user) {
+        getPlugin().getMessageBroker().ifPresent(broker -> Message.builder()
+            .type(Message.Type.USER_LIST_REMOVE)
+            .target(Message.TARGET_ALL, Message.TargetType.SERVER)
+            .payload(Payload.uuid(user.getUuid()))
+            .build().send(broker, sender));
+    }
+
+    // Send this server's full list of online users to all servers
+    default void broadcastUserList(@NotNull OnlineUser sender) {
+        getPlugin().getMessageBroker().ifPresent(broker -> Message.builder()
+            .type(Message.Type.USER_LIST)
+            .target(Message.TARGET_ALL, Message.TargetType.SERVER)
+            .payload(Payload.userList(getPlugin().getOnlineUsers().stream()
+                .map(online -> User.of(online.getUuid(), online.getUsername())).toList()))
+            .build().send(broker, sender));
+    }
+
+    // Periodically reconcile this server's entries in the global user list, and resend them to other servers
+    default void reconcileGlobalUserList() {
+        final List<? extends OnlineUser> online = getPlugin().getOnlineUsers();
+        getPlugin().getNetworkUserList().setServerUsers(getPlugin().getServerName(), online);
+        getPlugin().getNetworkUserList().expireServers(getPlugin().getServerName(), USER_LIST_EXPIRY_MILLIS);
+        if (getPlugin().getSettings().getCrossServer().isEnabled()) {
+            online.stream().findAny().ifPresent(this::broadcastUserList);
         }
     }
 
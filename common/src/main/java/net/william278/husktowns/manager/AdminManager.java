@@ -43,14 +43,24 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 
 public class AdminManager {
     private final HuskTowns plugin;
+    private final ClaimJobRunner claimJobs;
 
     protected AdminManager(@NotNull HuskTowns plugin) {
         this.plugin = plugin;
+        this.claimJobs = new ClaimJobRunner(plugin);
+    }
+
+    @NotNull
+    public ClaimJobRunner getClaimJobs() {
+        return claimJobs;
     }
 
     private Optional<Town> getTownByName(@NotNull String townName) {
@@ -121,6 +131,133 @@ public class AdminManager {
                 .ifPresent(user::sendMessage));
     }
 
+    /**
+     * Start a job to delete every claim, including admin claims, within a rectangle of chunks
+     *
+     * @param executor the user starting the job
+     * @param world    the world the region is in
+     * @param from     one corner of the region
+     * @param to       the opposite corner of the region
+     */
+    public void unclaimRegion(@NotNull CommandUser executor, @NotNull World world, @NotNull Chunk from,
+                              @NotNull Chunk to) {
+        if (plugin.getClaimWorld(world).isEmpty()) {
+            plugin.getLocales().getLocale("error_world_not_claimable")
+                .ifPresent(executor::sendMessage);
+            return;
+        }
+        claimJobs.start(ClaimJob.unclaimRegion(world.getName(), from, to), executor);
+    }
+
+    /**
+     * Start a job to make every chunk within a rectangle of chunks an admin claim, taking chunks from towns that had
+     * claimed them
+     *
+     * @param executor the user starting the job
+     * @param world    the world the region is in
+     * @param from     one corner of the region
+     * @param to       the opposite corner of the region
+     */
+    public void adminClaimRegion(@NotNull CommandUser executor, @NotNull World world, @NotNull Chunk from,
+                                 @NotNull Chunk to) {
+        if (plugin.getClaimWorld(world).isEmpty()) {
+            plugin.getLocales().getLocale("error_world_not_claimable")
+                .ifPresent(executor::sendMessage);
+            return;
+        }
+        claimJobs.start(ClaimJob.adminClaimRegion(world.getName(), from, to), executor);
+    }
+
+    /**
+     * Start a job to move all of one town's claims on this server to another town
+     *
+     * @param executor   the user starting the job
+     * @param sourceName the name of the town to take the claims from
+     * @param targetName the name of the town to give the claims to
+     */
+    public void transferClaims(@NotNull CommandUser executor, @NotNull String sourceName, @NotNull String targetName) {
+        final Optional<Town> source = getTownByName(sourceName);
+        final Optional<Town> target = getTownByName(targetName);
+        if (source.isEmpty() || target.isEmpty()) {
+            plugin.getLocales().getLocale("error_town_not_found", source.isEmpty() ? sourceName : targetName)
+                .ifPresent(executor::sendMessage);
+            return;
+        }
+        if (source.get().equals(target.get()) || target.get().getId() == plugin.getAdminTown().getId()) {
+            plugin.getLocales().getLocale("error_claim_job_invalid_transfer")
+                .ifPresent(executor::sendMessage);
+            return;
+        }
+
+        final long claims = plugin.getClaimWorlds().values().stream()
+            .mapToLong(world -> world.getTownClaimCounts().getOrDefault(source.get().getId(), 0))
+            .sum();
+        claimJobs.start(ClaimJob.transferClaims(source.get().getId(), target.get().getId(), claims), executor);
+    }
+
+    /**
+     * Start a job to delete the claims on this server left behind by towns that no longer exist
+     *
+     * @param executor the user starting the job
+     */
+    public void purgeDeletedTownClaims(@NotNull CommandUser executor) {
+        final long claims = plugin.getClaimWorlds().values().stream()
+            .flatMap(world -> world.getTownClaimCounts().entrySet().stream())
+            .filter(entry -> plugin.findTown(entry.getKey()).isEmpty())
+            .mapToLong(Map.Entry::getValue)
+            .sum();
+        if (claims == 0) {
+            plugin.getLocales().getLocale("error_no_deleted_town_claims")
+                .ifPresent(executor::sendMessage);
+            return;
+        }
+        claimJobs.start(ClaimJob.purgeDeletedTowns(claims), executor);
+    }
+
+    public void listClaimJobs(@NotNull CommandUser executor) {
+        final List<ClaimJob> jobs = claimJobs.getJobs();
+        if (jobs.isEmpty()) {
+            plugin.getLocales().getLocale("error_no_claim_jobs")
+                .ifPresent(executor::sendMessage);
+            return;
+        }
+        plugin.getLocales().getLocale("claim_job_list")
+            .ifPresent(executor::sendMessage);
+        final String paused = plugin.getLocales().getRawLocale("claim_job_status_paused").orElse("paused");
+        final String running = plugin.getLocales().getRawLocale("claim_job_status_running").orElse("running");
+        jobs.forEach(job -> plugin.getLocales().getLocale("claim_job_list_item",
+                Integer.toString(job.getId()), job.getType().getId(), Integer.toString(job.getPercentDone()),
+                Long.toString(job.getChanged()), job.isPaused() ? paused : running)
+            .ifPresent(executor::sendMessage));
+    }
+
+    public void pauseClaimJob(@NotNull CommandUser executor, int jobId) {
+        claimJobs.getJob(jobId).ifPresentOrElse(job -> {
+            claimJobs.pause(job);
+            plugin.getLocales().getLocale("claim_job_paused", Integer.toString(jobId))
+                .ifPresent(executor::sendMessage);
+        }, () -> plugin.getLocales().getLocale("error_claim_job_not_found", Integer.toString(jobId))
+            .ifPresent(executor::sendMessage));
+    }
+
+    public void resumeClaimJob(@NotNull CommandUser executor, int jobId) {
+        claimJobs.getJob(jobId).ifPresentOrElse(job -> {
+            claimJobs.resume(job, executor);
+            plugin.getLocales().getLocale("claim_job_resumed", Integer.toString(jobId))
+                .ifPresent(executor::sendMessage);
+        }, () -> plugin.getLocales().getLocale("error_claim_job_not_found", Integer.toString(jobId))
+            .ifPresent(executor::sendMessage));
+    }
+
+    public void cancelClaimJob(@NotNull CommandUser executor, int jobId) {
+        claimJobs.getJob(jobId).ifPresentOrElse(job -> {
+            claimJobs.cancel(job);
+            plugin.getLocales().getLocale("claim_job_cancelled", Integer.toString(jobId))
+                .ifPresent(executor::sendMessage);
+        }, () -> plugin.getLocales().getLocale("error_claim_job_not_found", Integer.toString(jobId))
+            .ifPresent(executor::sendMessage));
+    }
+
     public void deleteTown(@NotNull OnlineUser user, @NotNull String townName) {
         getTownByName(townName).ifPresentOrElse(
             town -> plugin.getManager().towns().deleteTown(user, town),
@@ -266,12 +403,15 @@ public class AdminManager {
     }
 
     public void sendLocalSpyMessage(@NotNull Town town, @NotNull Member sender, @NotNull String text) {
-        plugin.getOnlineUsers().stream()
-            .filter(user -> !town.getMembers().containsKey(user.getUuid()))
-            .filter(user -> plugin.getUserPreferences(user.getUuid()).orElse(Preferences.getDefaults()).isTownChatSpying())
-            .forEach(user -> plugin.getLocales().getLocale("town_chat_spy_message_format",
-                    town.getName(), sender.user().getUsername(), sender.role().getName(), text)
-                .ifPresent(user::sendMessage));
+        final Collection<OnlineUser> spies = plugin.getOnlineMemberIndex().getSpies();
+        if (spies.isEmpty()) {
+            return;
+        }
+        plugin.getLocales().getLocaleComponent("town_chat_spy_message_format",
+                town.getName(), sender.user().getUsername(), sender.role().getName(), text)
+            .ifPresent(message -> spies.stream()
+                .filter(user -> !town.getMembers().containsKey(user.getUuid()))
+                .forEach(user -> user.sendMessage(message)));
     }
 
     public void setTownBalance(@NotNull CommandUser user, @NotNull String townName, @NotNull BigDecimal amount) {
@@ -0,0 +1,203 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.manager;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import net.william278.husktowns.claim.Chunk;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A bulk admin operation on claims, run in batches in the background by the {@link ClaimJobRunner}.
+ * <p>
+ * Jobs are defined by what they select rather than by a list of claims, so a job can be saved and resumed at any point:
+ * region jobs scan their rectangle of chunks from a saved cursor, while transfer and purge jobs pick up whichever
+ * matching claims are left.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ClaimJob {
+
+    @Expose
+    private int id;
+    @Expose
+    private Type type;
+    @Nullable
+    @Expose
+    private String world;
+    @Expose
+    @SerializedName("from_x")
+    private int fromX;
+    @Expose
+    @SerializedName("from_z")
+    private int fromZ;
+    @Expose
+    @SerializedName("to_x")
+    private int toX;
+    @Expose
+    @SerializedName("to_z")
+    private int toZ;
+    @Expose
+    @SerializedName("source_town")
+    private int sourceTown;
+    @Expose
+    @SerializedName("target_town")
+    private int targetTown;
+    @Expose
+    @Setter(AccessLevel.PACKAGE)
+    private long progress;
+    @Expose
+    @Setter(AccessLevel.PACKAGE)
+    private long total;
+    @Expose
+    @Setter(AccessLevel.PACKAGE)
+    private long changed;
+    @Expose
+    @Setter(AccessLevel.PACKAGE)
+    private boolean paused;
+
+    private ClaimJob(@NotNull Type type) {
+        this.type = type;
+    }
+
+    /**
+     * Create a job that deletes every claim within a rectangle of chunks
+     *
+     * @param world the name of the world the region is in
+     * @param from  one corner of the region
+     * @param to    the opposite corner of the region
+     * @return the job
+     */
+    @NotNull
+    public static ClaimJob unclaimRegion(@NotNull String world, @NotNull Chunk from, @NotNull Chunk to) {
+        return region(Type.UNCLAIM_REGION, world, from, to);
+    }
+
+    /**
+     * Create a job that turns every chunk within a rectangle of chunks into an admin claim, taking it from any town
+     * that had claimed it
+     *
+     * @param world the name of the world the region is in
+     * @param from  one corner of the region
+     * @param to    the opposite corner of the region
+     * @return the job
+     */
+    @NotNull
+    public static ClaimJob adminClaimRegion(@NotNull String world, @NotNull Chunk from, @NotNull Chunk to) {
+        return region(Type.ADMIN_CLAIM_REGION, world, from, to);
+    }
+
+    @NotNull
+    private static ClaimJob region(@NotNull Type type, @NotNull String world, @NotNull Chunk from, @NotNull Chunk to) {
+        final ClaimJob job = new ClaimJob(type);
+        job.world = world;
+        job.fromX = Math.min(from.getX(), to.getX());
+        job.fromZ = Math.min(from.getZ(), to.getZ());
+        job.toX = Math.max(from.getX(), to.getX());
+        job.toZ = Math.max(from.getZ(), to.getZ());
+        job.total = job.getArea();
+        return job;
+    }
+
+    /**
+     * Create a job that moves all of one town's claims, in every world on this server, to another town
+     *
+     * @param sourceTown the ID of the town to take the claims from
+     * @param targetTown the ID of the town to give the claims to
+     * @param claims     the number of claims the source town has on this server
+     * @return the job
+     */
+    @NotNull
+    public static ClaimJob transferClaims(int sourceTown, int targetTown, long claims) {
+        final ClaimJob job = new ClaimJob(Type.TRANSFER_CLAIMS);
+        job.sourceTown = sourceTown;
+        job.targetTown = targetTown;
+        job.total = claims;
+        return job;
+    }
+
+    /**
+     * Create a job that deletes the claims left behind by towns that no longer exist, in every world on this server
+     *
+     * @param claims the number of such claims on this server
+     * @return the job
+     */
+    @NotNull
+    public static ClaimJob purgeDeletedTowns(long claims) {
+        final ClaimJob job = new ClaimJob(Type.PURGE_DELETED_TOWNS);
+        job.total = claims;
+        return job;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the number of chunks in the job's region
+     *
+     * @return the region's area, in chunks
+     */
+    public long getArea() {
+        return ((long) toX - fromX + 1) * ((long) toZ - fromZ + 1);
+    }
+
+    /**
+     * Get the chunk in the job's region at a position in the order it is scanned; west to east, then north to south
+     *
+     * @param index the position of the chunk in the scan order
+     * @return the chunk
+     */
+    @NotNull
+    Chunk getRegionChunk(long index) {
+        final long width = (long) toX - fromX + 1;
+        return Chunk.at((int) (fromX + index % width), (int) (fromZ + index / width));
+    }
+
+    /**
+     * Get how far through the job is, as a percentage
+     *
+     * @return the percentage of the job done
+     */
+    public int getPercentDone() {
+        return total <= 0 ? 100 : (int) Math.min(100, progress * 100 / total);
+    }
+
+    /**
+     * The kinds of bulk claim operation
+     */
+    public enum Type {
+        UNCLAIM_REGION,
+        ADMIN_CLAIM_REGION,
+        TRANSFER_CLAIMS,
+        PURGE_DELETED_TOWNS;
+
+        @NotNull
+        public String getId() {
+            return name().toLowerCase();
+        }
+    }
+
+}
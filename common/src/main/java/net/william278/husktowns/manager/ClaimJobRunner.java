@@ -0,0 +1,405 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.manager;
+
+import com.google.common.collect.Maps;
+import net.william278.husktowns.HuskTowns;
+import net.william278.husktowns.audit.Action;
+import net.william278.husktowns.claim.*;
+import net.william278.husktowns.town.Town;
+import net.william278.husktowns.user.CommandUser;
+import net.william278.husktowns.user.OnlineUser;
+import net.william278.husktowns.util.Task;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Runs {@link ClaimJob}s in the background, one batch at a time.
+ * <p>
+ * Each batch changes up to the configured number of claims in a single world, then writes that claim world once, edits
+ * each affected town once and queues the changes to the map hook. Running jobs take turns, so a long job doesn't hold
+ * up a short one, and progress is reported to whoever started or last resumed each job. Jobs are saved to disk after
+ * every batch; on startup, saved jobs are restored paused, to be resumed by an admin.
+ */
+public class ClaimJobRunner {
+
+    private static final String JOBS_FILE = "claim_jobs.json";
+    private static final long BATCH_INTERVAL_TICKS = 10L;
+    // Region jobs scan at most this many chunks per claim changed, so sparse regions don't stall a batch
+    private static final int REGION_SCAN_FACTOR = 16;
+    private static final int REPORT_PERCENT_STEP = 10;
+
+    private final HuskTowns plugin;
+    private final Map<Integer, ClaimJob> jobs = new ConcurrentSkipListMap<>();
+    private final Map<Integer, CommandUser> reporters = Maps.newConcurrentMap();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private Task.Repeating task;
+
+    // Only touched from the runner task
+    private int turn = 0;
+
+    ClaimJobRunner(@NotNull HuskTowns plugin) {
+        this.plugin = plugin;
+        this.load();
+        plugin.getMetrics().gauge("claim_jobs.running",
+            () -> jobs.values().stream().filter(job -> !job.isPaused()).count());
+    }
+
+    /**
+     * Get the jobs that haven't finished, running or paused
+     *
+     * @return the jobs, in the order they were started
+     */
+    @NotNull
+    public List<ClaimJob> getJobs() {
+        return List.copyOf(jobs.values());
+    }
+
+    public Optional<ClaimJob> getJob(int id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Start running a new job
+     *
+     * @param job      the job
+     * @param reporter the user to report the job's progress to
+     */
+    public synchronized void start(@NotNull ClaimJob job, @NotNull CommandUser reporter) {
+        job.setId(nextId.getAndIncrement());
+        jobs.put(job.getId(), job);
+        reporters.put(job.getId(), reporter);
+        plugin.getLocales().getLocale("claim_job_started", Integer.toString(job.getId()), job.getType().getId(),
+                Long.toString(job.getTotal()))
+            .ifPresent(reporter::sendMessage);
+        save();
+        startTask();
+    }
+
+    /**
+     * Pause a running job; its progress is kept
+     *
+     * @param job the job
+     */
+    public synchronized void pause(@NotNull ClaimJob job) {
+        job.setPaused(true);
+        save();
+    }
+
+    /**
+     * Resume a paused job, reporting its progress from now on to the user resuming it
+     *
+     * @param job      the job
+     * @param reporter the user to report the job's progress to
+     */
+    public synchronized void resume(@NotNull ClaimJob job, @NotNull CommandUser reporter) {
+        reporters.put(job.getId(), reporter);
+        job.setPaused(false);
+        save();
+        startTask();
+    }
+
+    /**
+     * Cancel a job; changes made by batches that have already run are kept
+     *
+     * @param job the job
+     */
+    public synchronized void cancel(@NotNull ClaimJob job) {
+        jobs.remove(job.getId());
+        reporters.remove(job.getId());
+        save();
+    }
+
+    /**
+     * Stop running jobs and save their progress, to be resumed on the next startup
+     */
+    public synchronized void close() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        save();
+    }
+
+    private synchronized void startTask() {
+        if (task == null) {
+            task = plugin.getRepeatingTask(this::tick, BATCH_INTERVAL_TICKS);
+            task.run();
+        }
+    }
+
+    // Run the next batch of the running job whose turn it is, stopping the task once no jobs are running
+    private synchronized void tick() {
+        if (task == null || !plugin.isLoaded()) {
+            return;
+        }
+        final List<ClaimJob> running = jobs.values().stream().filter(job -> !job.isPaused()).toList();
+        if (running.isEmpty()) {
+            task.cancel();
+            task = null;
+            return;
+        }
+
+        final ClaimJob job = running.get(Math.floorMod(turn++, running.size()));
+        final int percentBefore = job.getPercentDone();
+        try {
+            if (runBatch(job)) {
+                jobs.remove(job.getId());
+                report(job, "claim_job_completed", Integer.toString(job.getId()), job.getType().getId(),
+                    Long.toString(job.getChanged()));
+                reporters.remove(job.getId());
+            } else if (job.getPercentDone() / REPORT_PERCENT_STEP > percentBefore / REPORT_PERCENT_STEP) {
+                report(job, "claim_job_progress", Integer.toString(job.getId()), job.getType().getId(),
+                    Integer.toString(job.getPercentDone()), Long.toString(job.getChanged()));
+            }
+        } catch (Throwable e) {
+            plugin.log(Level.SEVERE, "An exception occurred running bulk claim job #" + job.getId(), e);
+            job.setPaused(true);
+            report(job, "error_claim_job_failed", Integer.toString(job.getId()), job.getType().getId());
+        }
+        save();
+    }
+
+    // Run a batch of a job, returning whether the job is finished
+    private boolean runBatch(@NotNull ClaimJob job) {
+        final int batchSize = Math.max(1, plugin.getSettings().getGeneral().getClaimJobBatchSize());
+        return switch (job.getType()) {
+            case UNCLAIM_REGION, ADMIN_CLAIM_REGION -> runRegionBatch(job, batchSize);
+            case TRANSFER_CLAIMS -> runTransferBatch(job, batchSize);
+            case PURGE_DELETED_TOWNS -> runPurgeBatch(job, batchSize);
+        };
+    }
+
+    private boolean runRegionBatch(@NotNull ClaimJob job, int batchSize) {
+        final World world = plugin.getWorlds().stream()
+            .filter(serverWorld -> serverWorld.getName().equals(job.getWorld()))
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("World \"" + job.getWorld() + "\" is not loaded"));
+        final ClaimWorld claimWorld = plugin.getClaimWorld(world)
+            .orElseThrow(() -> new IllegalStateException("World \"" + world.getName() + "\" is not claimable"));
+
+        // Scan the region from where the last batch left off, collecting the claims to change
+        final boolean adminClaiming = job.getType() == ClaimJob.Type.ADMIN_CLAIM_REGION;
+        final Map<Integer, List<TownClaim>> townClaims = new HashMap<>();
+        final List<Chunk> adminChunks = new ArrayList<>();
+        final List<TownClaim> newAdminClaims = new ArrayList<>();
+        final long end = Math.min(job.getArea(), job.getProgress() + (long) batchSize * REGION_SCAN_FACTOR);
+        long cursor = job.getProgress();
+        int changes = 0;
+        for (; cursor < end && changes < batchSize; cursor++) {
+            final Chunk chunk = job.getRegionChunk(cursor);
+            final Optional<TownClaim> claim;
+            try {
+                claim = claimWorld.getClaimAt(chunk, plugin);
+            } catch (IllegalStateException e) {
+                // Claims of deleted towns are left to be purged
+                continue;
+            }
+            if (claim.isPresent() && claim.get().isAdminClaim(plugin)) {
+                if (!adminClaiming) {
+                    adminChunks.add(chunk);
+                    changes++;
+                }
+                continue;
+            }
+            claim.ifPresent(townClaim -> townClaims.computeIfAbsent(townClaim.town().getId(),
+                id -> new ArrayList<>()).add(townClaim));
+            if (adminClaiming) {
+                newAdminClaims.add(TownClaim.admin(chunk, plugin));
+            }
+            if (claim.isPresent() || adminClaiming) {
+                changes++;
+            }
+        }
+
+        // Apply the changes, writing the claim world once
+        final Map<Integer, Integer> removedCounts = new HashMap<>();
+        townClaims.forEach((townId, claims) -> removedCounts.put(townId, claimWorld.removeClaims(townId,
+            claims.stream().map(townClaim -> townClaim.claim().getChunk()).toList())));
+        claimWorld.removeAdminClaims(adminChunks);
+        claimWorld.addAdminClaims(newAdminClaims.stream().map(TownClaim::claim).toList());
+        if (changes > 0) {
+            plugin.getDatabase().updateClaimWorld(claimWorld);
+        }
+        removedCounts.forEach((townId, removed) -> editTown(job, townId, town -> {
+            town.setClaimCount(Math.max(0, town.getClaimCount() - removed));
+            town.getLog().log(Action.of(Action.Type.ADMIN_DELETE_CLAIMS, Integer.toString(removed)));
+        }));
+        plugin.getMapHook().ifPresent(map -> {
+            townClaims.values().forEach(claims -> map.removeClaimMarkers(claims, world));
+            if (!adminChunks.isEmpty()) {
+                map.removeClaimMarkers(adminChunks.stream().map(chunk -> TownClaim.admin(chunk, plugin)).toList(),
+                    world);
+            }
+            if (!newAdminClaims.isEmpty()) {
+                map.setClaimMarkers(newAdminClaims, world);
+            }
+        });
+
+        job.setProgress(cursor);
+        job.setChanged(job.getChanged() + changes);
+        return cursor >= job.getArea();
+    }
+
+    private boolean runTransferBatch(@NotNull ClaimJob job, int batchSize) {
+        final Town target = plugin.findTown(job.getTargetTown())
+            .orElseThrow(() -> new IllegalStateException("Town #" + job.getTargetTown() + " no longer exists"));
+        for (World world : plugin.getWorlds()) {
+            final Optional<ClaimWorld> claimWorld = plugin.getClaimWorld(world);
+            final List<Claim> claims = claimWorld
+                .map(loaded -> loaded.getTownClaims(job.getSourceTown(), batchSize))
+                .orElse(List.of());
+            if (claims.isEmpty()) {
+                continue;
+            }
+
+            // Move the claims, writing the claim world once; plot members belong to the old town, so plots are reset
+            final int removed = claimWorld.get().removeClaims(job.getSourceTown(),
+                claims.stream().map(Claim::getChunk).toList());
+            claims.stream().filter(claim -> claim.getType() == Claim.Type.PLOT)
+                .forEach(claim -> claim.setType(Claim.Type.CLAIM));
+            claimWorld.get().addClaims(target, claims);
+            plugin.getDatabase().updateClaimWorld(claimWorld.get());
+
+            final Optional<Town> source = plugin.findTown(job.getSourceTown());
+            editTown(job, job.getSourceTown(), town -> {
+                town.setClaimCount(Math.max(0, town.getClaimCount() - removed));
+                town.getLog().log(Action.of(Action.Type.ADMIN_TRANSFER_CLAIMS,
+                    claims.size() + " → " + target.getName()));
+            });
+            editTown(job, target.getId(), town -> {
+                town.setClaimCount(town.getClaimCount() + claims.size());
+                town.getLog().log(Action.of(Action.Type.ADMIN_TRANSFER_CLAIMS,
+                    claims.size() + " ← " + source.map(Town::getName).orElse("#" + job.getSourceTown())));
+            });
+            plugin.getMapHook().ifPresent(map -> {
+                source.ifPresent(town -> map.removeClaimMarkers(claims.stream()
+                    .map(claim -> new TownClaim(town, claim)).toList(), world));
+                map.setClaimMarkers(claims.stream().map(claim -> new TownClaim(target, claim)).toList(), world);
+            });
+
+            job.setProgress(job.getProgress() + claims.size());
+            job.setChanged(job.getChanged() + claims.size());
+            return false;
+        }
+        job.setProgress(job.getTotal());
+        return true;
+    }
+
+    private boolean runPurgeBatch(@NotNull ClaimJob job, int batchSize) {
+        for (World world : plugin.getWorlds()) {
+            final Optional<ClaimWorld> claimWorld = plugin.getClaimWorld(world);
+            if (claimWorld.isEmpty()) {
+                continue;
+            }
+            final Optional<Integer> deletedTown = claimWorld.get().getTownClaimCounts().keySet().stream()
+                .filter(townId -> plugin.findTown(townId).isEmpty())
+                .findFirst();
+            if (deletedTown.isEmpty()) {
+                continue;
+            }
+
+            final List<Claim> claims = claimWorld.get().getTownClaims(deletedTown.get(), batchSize);
+            final int removed = claimWorld.get().removeClaims(deletedTown.get(),
+                claims.stream().map(Claim::getChunk).toList());
+            plugin.getDatabase().updateClaimWorld(claimWorld.get());
+
+            job.setProgress(job.getProgress() + removed);
+            job.setChanged(job.getChanged() + removed);
+            return false;
+        }
+        job.setProgress(job.getTotal());
+        return true;
+    }
+
+    // Edit a town with the job's reporter (or any online user) if possible, otherwise update it directly
+    private void editTown(@NotNull ClaimJob job, int townId, @NotNull Consumer<Town> editor) {
+        final Optional<Town> town = plugin.findTown(townId);
+        if (town.isEmpty()) {
+            return;
+        }
+        final OnlineUser actor = reporters.get(job.getId()) instanceof OnlineUser online
+            ? online : plugin.getOnlineUsers().stream().findAny().orElse(null);
+        if (actor != null) {
+            plugin.getManager().editTown(actor, town.get(), editor);
+            return;
+        }
+        editor.accept(town.get());
+        plugin.updateTown(town.get());
+        plugin.getDatabase().updateTown(town.get());
+    }
+
+    private void report(@NotNull ClaimJob job, @NotNull String key, @NotNull String... args) {
+        final CommandUser reporter = reporters.get(job.getId());
+        if (reporter instanceof OnlineUser online && plugin.getOnlineUsers().stream()
+            .noneMatch(user -> user.getUuid().equals(online.getUuid()))) {
+            return;
+        }
+        if (reporter != null) {
+            plugin.getLocales().getLocale(key, args).ifPresent(reporter::sendMessage);
+        }
+    }
+
+    private void load() {
+        final Path file = plugin.getConfigDirectory().resolve(JOBS_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            final ClaimJob[] saved = plugin.getGson().fromJson(Files.readString(file, StandardCharsets.UTF_8),
+                ClaimJob[].class);
+            for (ClaimJob job : saved) {
+                job.setPaused(true);
+                jobs.put(job.getId(), job);
+                nextId.accumulateAndGet(job.getId() + 1, Math::max);
+            }
+            if (!jobs.isEmpty()) {
+                plugin.log(Level.INFO, "Restored " + jobs.size() + " paused bulk claim job(s); "
+                    + "use /admintown jobs to resume them");
+            }
+        } catch (Throwable e) {
+            plugin.log(Level.WARNING, "Failed to load saved bulk claim jobs from " + JOBS_FILE, e);
+        }
+    }
+
+    private void save() {
+        final Path file = plugin.getConfigDirectory().resolve(JOBS_FILE);
+        try {
+            if (jobs.isEmpty()) {
+                Files.deleteIfExists(file);
+                return;
+            }
+            Files.writeString(file, plugin.getGson().toJson(jobs.values().toArray(new ClaimJob[0])),
+                StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            plugin.log(Level.WARNING, "Failed to save bulk claim jobs to " + JOBS_FILE, e);
+        }
+    }
+
+}
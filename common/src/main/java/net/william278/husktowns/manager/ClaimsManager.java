@@ -36,7 +36,7 @@ import net.william278.husktowns.user.SavedUser;
 import net.william278.husktowns.user.User;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Optional;
+import java.util.*;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
@@ -144,6 +144,256 @@ public class ClaimsManager {
         plugin.getMapHook().ifPresent(map -> map.setClaimMarker(claim, world));
     }
 
+    /**
+     * Claim an area of chunks for the user's town at once.
+     * <p>
+     * The whole area is validated before anything is claimed: if any chunk in it can't be claimed, nothing is.
+     * Chunks the town has already claimed are skipped.
+     *
+     * @param user    the user claiming the area
+     * @param world   the world the area is in
+     * @param area    the chunks in the area
+     * @param showMap whether to show the user a claim map afterward
+     */
+    public void createClaims(@NotNull OnlineUser user, @NotNull World world, @NotNull Collection<Chunk> area,
+                             boolean showMap) {
+        plugin.getManager().ifMember(user, Privilege.CLAIM, (member -> {
+            final Optional<ClaimWorld> optionalClaimWorld = plugin.getClaimWorld(world);
+            if (optionalClaimWorld.isEmpty()) {
+                plugin.getLocales().getLocale("error_world_not_claimable")
+                    .ifPresent(user::sendMessage);
+                return;
+            }
+            final ClaimWorld claimWorld = optionalClaimWorld.get();
+            final Settings.TownSettings settings = plugin.getSettings().getTowns();
+            if (area.size() > settings.getMaxClaimAreaSize()) {
+                plugin.getLocales().getLocale("error_claim_area_too_large",
+                        Integer.toString(settings.getMaxClaimAreaSize()))
+                    .ifPresent(user::sendMessage);
+                return;
+            }
+
+            // Check every chunk is free to claim, skipping chunks the town already owns
+            final Town town = member.town();
+            final Optional<WorldGuardHook> worldGuardHook = plugin.getHookManager().getHook(WorldGuardHook.class);
+            final List<Chunk> chunks = new ArrayList<>();
+            for (Chunk chunk : new LinkedHashSet<>(area)) {
+                final Optional<TownClaim> existingClaim = claimWorld.getClaimAt(chunk, plugin);
+                if (existingClaim.isPresent()) {
+                    if (existingClaim.get().town().equals(town)) {
+                        continue;
+                    }
+                    plugin.getLocales().getLocale("error_chunk_claimed_by", existingClaim.get().town().getName())
+                        .ifPresent(user::sendMessage);
+                    return;
+                }
+                if (worldGuardHook.isPresent() && worldGuardHook.get().isChunkInRestrictedRegion(chunk, world.getName())) {
+                    plugin.getLocales().getLocale("error_chunk_not_claimable").ifPresent(user::sendMessage);
+                    return;
+                }
+                chunks.add(chunk);
+            }
+            if (chunks.isEmpty()) {
+                plugin.getLocales().getLocale("error_claim_area_none_unclaimed")
+                    .ifPresent(user::sendMessage);
+                return;
+            }
+
+            // Carry out adjacency check; areas are connected, so one chunk touching the town's claims is enough
+            if (settings.isRequireClaimAdjacency() && town.getClaimCount() > 0 && chunks.stream()
+                .noneMatch(chunk -> claimWorld.getAdjacentClaims(chunk, plugin).stream()
+                    .anyMatch(claim -> claim.town().equals(town)))) {
+                plugin.getLocales().getLocale("error_claim_not_adjacent")
+                    .ifPresent(user::sendMessage);
+                return;
+            }
+
+            // Carry out minimum chunk separation check, looking up each chunk around the area only once
+            final Optional<TownClaim> nearbyClaim = getClaimsAround(claimWorld, chunks,
+                settings.getMinimumChunkSeparation()).stream()
+                .filter(claim -> !claim.town().equals(town))
+                .findFirst();
+            if (nearbyClaim.isPresent()) {
+                plugin.getLocales().getLocale("error_claim_too_close_to", nearbyClaim.get().town().getName())
+                    .ifPresent(user::sendMessage);
+                return;
+            }
+
+            if (town.getClaimCount() + chunks.size() > town.getMaxClaims(plugin)) {
+                plugin.getLocales().getLocale("error_claim_limit_reached", Integer.toString(town.getClaimCount()),
+                        Integer.toString(town.getMaxClaims(plugin)))
+                    .ifPresent(user::sendMessage);
+                return;
+            }
+
+            // Create the claims, firing the event
+            final List<TownClaim> townClaims = chunks.stream()
+                .map(chunk -> new TownClaim(town, Claim.at(chunk)))
+                .toList();
+            plugin.fireEvent(plugin.getBulkClaimEvent(user, town, townClaims), (event -> {
+                createClaimsData(user, town, townClaims, world);
+                plugin.getLocales().getLocale("claims_created", Integer.toString(townClaims.size()), town.getName())
+                    .ifPresent(user::sendMessage);
+
+                // Visualize the claims
+                plugin.highlightClaims(user, townClaims);
+                if (showMap) {
+                    user.sendMessage(ClaimMap.builder(plugin)
+                        .center(user.getChunk()).world(user.getWorld())
+                        .build()
+                        .toComponent(user));
+                }
+            }));
+        }));
+    }
+
+    // Get the claims within a radius of any of a set of chunks
+    @NotNull
+    private List<TownClaim> getClaimsAround(@NotNull ClaimWorld claimWorld, @NotNull Collection<Chunk> chunks,
+                                            int radius) {
+        final Set<Long> checked = new HashSet<>();
+        final List<TownClaim> claims = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            for (int x = chunk.getX() - radius; x <= chunk.getX() + radius; x++) {
+                for (int z = chunk.getZ() - radius; z <= chunk.getZ() + radius; z++) {
+                    if (checked.add(Chunk.asLong(x, z))) {
+                        claimWorld.getClaimAt(x, z, plugin).ifPresent(claims::add);
+                    }
+                }
+            }
+        }
+        return claims;
+    }
+
+    /**
+     * Create the data for several of a town's claims in a world at once: the claim world is updated and saved once,
+     * the town is edited once, and the map is updated once
+     *
+     * @param user   the user creating the claims
+     * @param town   the town the claims are for
+     * @param claims the claims to create
+     * @param world  the world the claims are in
+     * @throws IllegalArgumentException if the world is not claimable
+     */
+    public void createClaimsData(@NotNull OnlineUser user, @NotNull Town town, @NotNull List<TownClaim> claims,
+                                 @NotNull World world) throws IllegalArgumentException {
+        final ClaimWorld claimWorld = plugin.getClaimWorld(world)
+            .orElseThrow(() -> new IllegalArgumentException("World \"" + world.getName() + "\" is not claimable"));
+        if (town.getId() == plugin.getAdminTown().getId()) {
+            claims.forEach(claim -> claimWorld.addAdminClaim(claim.claim()));
+        } else {
+            claimWorld.addClaims(town, claims.stream().map(TownClaim::claim).toList());
+            plugin.getManager().editTown(user, town, (townToEdit -> {
+                final boolean firstClaims = townToEdit.getClaimCount() == 0;
+                townToEdit.setClaimCount(townToEdit.getClaimCount() + claims.size());
+                claims.forEach(claim -> townToEdit.getLog()
+                    .log(Action.of(user, Action.Type.CREATE_CLAIM, claim.claim().toString())));
+
+                if (firstClaims && plugin.getSettings().getGeneral().isFirstClaimAutoSetspawn()) {
+                    plugin.getManager().towns().setTownSpawn(user, user.getPosition());
+                }
+            }));
+        }
+        plugin.getDatabase().updateClaimWorld(claimWorld);
+        plugin.getMapHook().ifPresent(map -> map.setClaimMarkers(claims, world));
+    }
+
+    /**
+     * Claim the area of unclaimed chunks around a chunk that is enclosed by the user's town's claims
+     *
+     * @param user    the user claiming the area
+     * @param world   the world the area is in
+     * @param start   a chunk within the area
+     * @param showMap whether to show the user a claim map afterward
+     */
+    public void fillClaims(@NotNull OnlineUser user, @NotNull World world, @NotNull Chunk start, boolean showMap) {
+        plugin.getManager().ifMember(user, Privilege.CLAIM, (member -> {
+            final Optional<ClaimWorld> claimWorld = plugin.getClaimWorld(world);
+            if (claimWorld.isEmpty()) {
+                plugin.getLocales().getLocale("error_world_not_claimable")
+                    .ifPresent(user::sendMessage);
+                return;
+            }
+            final Optional<List<Chunk>> area = getEnclosedArea(claimWorld.get(), member.town(), start,
+                plugin.getSettings().getTowns().getMaxClaimAreaSize());
+            if (area.isEmpty()) {
+                plugin.getLocales().getLocale("error_claim_area_not_enclosed")
+                    .ifPresent(user::sendMessage);
+                return;
+            }
+            createClaims(user, world, area.get(), showMap);
+        }));
+    }
+
+    /**
+     * Get the area of unclaimed chunks enclosed by a town's claims, flood-filling outward from a chunk until the
+     * town's claims are reached
+     *
+     * @param claimWorld the claim world to fill in
+     * @param town       the town whose claims bound the area
+     * @param start      the chunk to fill from
+     * @param maxChunks  the most chunks the area may contain
+     * @return the chunks in the area, or an empty optional if the area is not enclosed within {@code maxChunks} chunks
+     */
+    @NotNull
+    public Optional<List<Chunk>> getEnclosedArea(@NotNull ClaimWorld claimWorld, @NotNull Town town,
+                                                 @NotNull Chunk start, int maxChunks) {
+        final List<Chunk> area = new ArrayList<>();
+        final Set<Long> visited = new HashSet<>();
+        final Deque<Chunk> queue = new ArrayDeque<>();
+        queue.add(start);
+        visited.add(start.asLong());
+        while (!queue.isEmpty()) {
+            final Chunk chunk = queue.poll();
+            if (claimWorld.getClaimAt(chunk, plugin).map(claim -> claim.town().equals(town)).orElse(false)) {
+                continue;
+            }
+            area.add(chunk);
+            if (area.size() > maxChunks) {
+                return Optional.empty();
+            }
+            for (Chunk neighbour : List.of(Chunk.at(chunk.getX() + 1, chunk.getZ()),
+                Chunk.at(chunk.getX() - 1, chunk.getZ()), Chunk.at(chunk.getX(), chunk.getZ() + 1),
+                Chunk.at(chunk.getX(), chunk.getZ() - 1))) {
+                if (visited.add(neighbour.asLong())) {
+                    queue.add(neighbour);
+                }
+            }
+        }
+        return Optional.of(area);
+    }
+
+    /**
+     * Get the chunks in a rectangle between two corner chunks, inclusive
+     *
+     * @param from one corner of the rectangle
+     * @param to   the opposite corner of the rectangle
+     * @return the chunks in the rectangle
+     */
+    @NotNull
+    public static List<Chunk> getRectangle(@NotNull Chunk from, @NotNull Chunk to) {
+        final List<Chunk> chunks = new ArrayList<>();
+        for (int x = Math.min(from.getX(), to.getX()); x <= Math.max(from.getX(), to.getX()); x++) {
+            for (int z = Math.min(from.getZ(), to.getZ()); z <= Math.max(from.getZ(), to.getZ()); z++) {
+                chunks.add(Chunk.at(x, z));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Get the chunks in a square around a chunk
+     *
+     * @param center the chunk at the center of the square
+     * @param radius the number of chunks the square extends out from the center in each direction
+     * @return the chunks in the square
+     */
+    @NotNull
+    public static List<Chunk> getRadius(@NotNull Chunk center, int radius) {
+        return getRectangle(Chunk.at(center.getX() - radius, center.getZ() - radius),
+            Chunk.at(center.getX() + radius, center.getZ() + radius));
+    }
+
     public void deleteClaim(@NotNull OnlineUser user, @NotNull World world, @NotNull Chunk chunk, boolean showMap) {
         plugin.getManager().ifMember(user, Privilege.UNCLAIM, (member -> {
             final Optional<TownClaim> existingClaim = plugin.getClaimAt(chunk, world);
@@ -196,6 +446,70 @@ public class ClaimsManager {
         }));
     }
 
+    /**
+     * Delete the user's town's claims in an area of chunks at once. Chunks in the area not claimed by the town are
+     * skipped.
+     *
+     * @param user    the user deleting the claims
+     * @param world   the world the area is in
+     * @param area    the chunks in the area
+     * @param showMap whether to show the user a claim map afterward
+     */
+    public void deleteClaims(@NotNull OnlineUser user, @NotNull World world, @NotNull Collection<Chunk> area,
+                             boolean showMap) {
+        plugin.getManager().ifMember(user, Privilege.UNCLAIM, (member -> {
+            final Optional<ClaimWorld> optionalClaimWorld = plugin.getClaimWorld(world);
+            if (optionalClaimWorld.isEmpty()) {
+                plugin.getLocales().getLocale("error_world_not_claimable")
+                    .ifPresent(user::sendMessage);
+                return;
+            }
+            final ClaimWorld claimWorld = optionalClaimWorld.get();
+            final int maxAreaSize = plugin.getSettings().getTowns().getMaxClaimAreaSize();
+            if (area.size() > maxAreaSize) {
+                plugin.getLocales().getLocale("error_claim_area_too_large", Integer.toString(maxAreaSize))
+                    .ifPresent(user::sendMessage);
+                return;
+            }
+
+            final Town town = member.town();
+            final List<TownClaim> claims = new LinkedHashSet<>(area).stream()
+                .map(chunk -> claimWorld.getClaimAt(chunk, plugin))
+                .flatMap(Optional::stream)
+                .filter(claim -> claim.town().equals(town))
+                .toList();
+            if (claims.isEmpty()) {
+                plugin.getLocales().getLocale("error_claim_area_none_claimed")
+                    .ifPresent(user::sendMessage);
+                return;
+            }
+
+            // If the town spawn is within the area
+            if (town.getSpawn().isPresent() && claims.stream()
+                .anyMatch(claim -> claim.contains(town.getSpawn().get().getPosition()))) {
+                if (!member.hasPrivilege(plugin, Privilege.SET_SPAWN)) {
+                    plugin.getLocales().getLocale("error_cannot_delete_spawn_claim")
+                        .ifPresent(user::sendMessage);
+                    return;
+                }
+                plugin.getManager().towns().clearTownSpawn(user);
+            }
+
+            plugin.fireEvent(plugin.getBulkUnClaimEvent(user, town, claims), (event -> {
+                deleteClaimsData(user, town, claims, world);
+                plugin.getLocales().getLocale("claims_deleted", Integer.toString(claims.size()))
+                    .ifPresent(user::sendMessage);
+
+                if (showMap) {
+                    user.sendMessage(ClaimMap.builder(plugin)
+                        .center(user.getChunk()).world(user.getWorld())
+                        .build()
+                        .toComponent(user));
+                }
+            }));
+        }));
+    }
+
     public void deleteAllClaimsConfirm(@NotNull OnlineUser user, boolean confirmed) {
         plugin.getManager().ifMayor(user, (mayor) -> {
             if (!confirmed) {
@@ -218,14 +532,7 @@ public class ClaimsManager {
         plugin.fireEvent(plugin.getUnClaimAllEvent(user, town), (event -> {
             try {
                 plugin.getMapHook().ifPresent(mapHook -> mapHook.removeClaimMarkers(town));
-                plugin.getClaimWorlds().values().forEach(world -> world.removeTownClaims(town.getId()));
-                plugin.getDatabase().getAllClaimWorlds().forEach((serverWorld, claimWorld) -> {
-                    if (serverWorld.server().equals(plugin.getServerName())) {
-                        if (claimWorld.removeTownClaims(town.getId()) > 0) {
-                            plugin.getDatabase().updateClaimWorld(claimWorld);
-                        }
-                    }
-                });
+                this.deleteTownClaimData(town);
                 plugin.getManager().editTown(user, town, (townToEdit -> {
                     townToEdit.setClaimCount(0);
                     townToEdit.clearSpawn();
@@ -250,6 +557,31 @@ public class ClaimsManager {
         }));
     }
 
+    /**
+     * Remove all of a town's claims from the claim worlds on this server and persist the affected worlds.
+     * <p>
+     * The claim index is used to look up which claim worlds hold the town's claims, so only those are written.
+     *
+     * @param town the town to remove claims for
+     */
+    public void deleteTownClaimData(@NotNull Town town) {
+        final Set<Integer> indexedWorlds = new HashSet<>(
+            plugin.getDatabase().getTownClaimWorlds(town.getId(), plugin.getServerName())
+        );
+        plugin.getClaimWorlds().values().forEach(world -> {
+            final boolean indexed = indexedWorlds.remove(world.getId());
+            if (world.removeTownClaims(town.getId()) > 0 || indexed) {
+                plugin.getDatabase().updateClaimWorld(world);
+            }
+        });
+
+        // Remove claims from indexed worlds on this server that aren't loaded (i.e. worlds marked unclaimable)
+        indexedWorlds.forEach(worldId -> plugin.getDatabase().getClaimWorld(worldId).ifPresent(world -> {
+            world.removeTownClaims(town.getId());
+            plugin.getDatabase().updateClaimWorld(world);
+        }));
+    }
+
     public void deleteClaimData(@NotNull OnlineUser user, @NotNull TownClaim claim, @NotNull World world) throws IllegalArgumentException {
         final ClaimWorld claimWorld = plugin.getClaimWorld(world)
             .orElseThrow(() -> new IllegalArgumentException("World \"" + world.getName() + "\" is not claimable"));
@@ -270,6 +602,39 @@ public class ClaimsManager {
         }));
     }
 
+    /**
+     * Delete the data for several of a town's claims in a world at once: the claim world is updated and saved once,
+     * the town is edited once, and the map is updated once
+     *
+     * @param user   the user deleting the claims
+     * @param town   the town the claims belong to
+     * @param claims the claims to delete
+     * @param world  the world the claims are in
+     * @throws IllegalArgumentException if the world is not claimable
+     */
+    public void deleteClaimsData(@NotNull OnlineUser user, @NotNull Town town, @NotNull List<TownClaim> claims,
+                                 @NotNull World world) throws IllegalArgumentException {
+        final ClaimWorld claimWorld = plugin.getClaimWorld(world)
+            .orElseThrow(() -> new IllegalArgumentException("World \"" + world.getName() + "\" is not claimable"));
+        final List<Chunk> chunks = claims.stream().map(claim -> claim.claim().getChunk()).toList();
+        if (town.getId() == plugin.getAdminTown().getId()) {
+            chunks.forEach(claimWorld::removeAdminClaim);
+            plugin.getDatabase().updateClaimWorld(claimWorld);
+            plugin.getMapHook().ifPresent(map -> map.removeClaimMarkers(claims, world));
+            return;
+        }
+
+        plugin.getManager().editTown(user, town, (townToEdit -> {
+            final int removed = claimWorld.removeClaims(town, chunks);
+            townToEdit.setClaimCount(Math.max(0, townToEdit.getClaimCount() - removed));
+            claims.forEach(claim -> townToEdit.getLog()
+                .log(Action.of(user, Action.Type.DELETE_CLAIM, claim.claim().toString())));
+        }), (townToEdit -> {
+            plugin.getDatabase().updateClaimWorld(claimWorld);
+            plugin.getMapHook().ifPresent(map -> map.removeClaimMarkers(claims, world));
+        }));
+    }
+
     public void makeClaimPlot(@NotNull OnlineUser user, @NotNull World world, @NotNull Chunk chunk) {
         plugin.getManager().ifMember(user, Privilege.SET_PLOT, member ->
             plugin.getManager().ifClaimOwner(member, user, chunk, world, townClaim -> {
@@ -479,6 +844,31 @@ public class ClaimsManager {
             })), () -> plugin.getLocales().getLocale("error_not_in_town").ifPresent(user::sendMessage));
     }
 
+    public void listPlots(@NotNull OnlineUser user) {
+        final String managerMark = plugin.getLocales().getRawLocale("plot_manager_mark").orElse("[M]");
+        final List<MineDown> plots = new ArrayList<>();
+        plugin.getWorlds().stream()
+            .sorted(Comparator.comparing(World::getName))
+            .forEach(world -> plugin.getClaimWorld(world).ifPresent(claimWorld -> claimWorld
+                .getPlotsOf(user.getUuid(), plugin).stream()
+                .sorted(Comparator.comparingInt((TownClaim plot) -> plot.claim().getChunk().getX())
+                    .thenComparingInt(plot -> plot.claim().getChunk().getZ()))
+                .forEach(plot -> plugin.getLocales().getLocale("plot_list_item",
+                        plot.town().getName(), world.getName(),
+                        Integer.toString(plot.claim().getChunk().getX()),
+                        Integer.toString(plot.claim().getChunk().getZ()),
+                        plot.claim().isPlotManager(user.getUuid()) ? managerMark : "")
+                    .ifPresent(plots::add))));
+        if (plots.isEmpty()) {
+            plugin.getLocales().getLocale("error_no_plots")
+                .ifPresent(user::sendMessage);
+            return;
+        }
+        plugin.getLocales().getLocale("plot_list", Integer.toString(plots.size()))
+            .ifPresent(user::sendMessage);
+        plots.forEach(user::sendMessage);
+    }
+
     public void toggleAutoClaiming(@NotNull OnlineUser user) {
         plugin.getManager().ifMember(
             user, Privilege.CLAIM,
@@ -488,7 +878,7 @@ public class ClaimsManager {
                     preferences.setAutoClaimingLand(autoClaim);
                     plugin.getLocales().getLocale("auto_claim_" + (autoClaim ? "enabled" : "disabled"))
                         .ifPresent(user::sendMessage);
-                    if (autoClaim && plugin.getClaimAt(user.getPosition()).isEmpty()) {
+                    if (autoClaim && plugin.getClaimAt(user).isEmpty()) {
                         createClaim(user, user.getWorld(), user.getChunk(), false);
                     }
                 }
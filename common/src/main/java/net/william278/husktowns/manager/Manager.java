@@ -51,12 +51,15 @@ public class Manager {
     private final ClaimsManager claims;
     private final AdminManager admin;
     private final WarManager wars;
+    private final TownEditExecutor editExecutor;
 
     public Manager(@NotNull HuskTowns plugin) {
         this.plugin = plugin;
         this.towns = new TownsManager(plugin);
         this.claims = new ClaimsManager(plugin);
         this.admin = new AdminManager(plugin);
+        this.editExecutor = new TownEditExecutor(plugin);
+        plugin.getMetrics().gauge("town_edits.queued", editExecutor::getQueuedEdits);
         final Settings.TownSettings.RelationsSettings settings = plugin.getSettings().getTowns().getRelations();
         this.wars = settings.isEnabled() && settings.getWars().isEnabled() ? new WarManager(plugin) : null;
     }
@@ -87,9 +90,10 @@ public class Manager {
 
     public void editTown(@NotNull OnlineUser user, @NotNull Town town, @NotNull Consumer<Town> editor,
                          @Nullable Consumer<Town> callback) {
-        plugin.runAsync(() -> {
+        editExecutor.submit(user, town, () -> {
             editor.accept(town);
-            updateTownData(user, town);
+            return true;
+        }, () -> {
             if (callback != null) {
                 callback.accept(town);
             }
@@ -99,15 +103,13 @@ public class Manager {
 
     public void memberEditTown(@NotNull OnlineUser user, @Nullable Privilege privilege,
                                @NotNull Function<Member, Boolean> editor, @Nullable Consumer<Member> callback) {
-        this.ifMember(user, privilege, (member -> plugin.runAsync(() -> {
-            if (editor.apply(member)) {
-                updateTownData(user, member.town());
+        this.ifMember(user, privilege, (member -> editExecutor.submit(user, member.town(),
+            () -> editor.apply(member), () -> {
                 if (callback != null) {
                     callback.accept(member);
                 }
                 plugin.checkAdvancements(member.town(), user);
-            }
-        })));
+            })));
     }
 
     public void memberEditTown(@NotNull OnlineUser user, @NotNull Privilege privilege, @NotNull Function<Member, Boolean> editor) {
@@ -122,17 +124,21 @@ public class Manager {
      * @param callback the callback to run
      */
     public void mayorEditTown(@NotNull OnlineUser user, @NotNull Function<Member, Boolean> editor, @Nullable Consumer<Member> callback) {
-        this.ifMayor(user, (mayor -> plugin.runSync(() -> {
-            if (editor.apply(mayor)) {
-                plugin.runAsync(() -> {
-                    updateTownData(user, mayor.town());
-                    if (callback != null) {
-                        callback.accept(mayor);
-                    }
-                    plugin.checkAdvancements(mayor.town(), user);
-                });
-            }
-        }, user)));
+        this.ifMayor(user, (mayor -> editExecutor.submit(user, mayor.town(),
+            () -> editor.apply(mayor), () -> {
+                if (callback != null) {
+                    callback.accept(mayor);
+                }
+                plugin.checkAdvancements(mayor.town(), user);
+            })));
+    }
+
+    /**
+     * Stop running bulk claim jobs, then wait for queued town edits to be saved and stop accepting new ones
+     */
+    public void close() {
+        admin.getClaimJobs().close();
+        editExecutor.shutdown();
     }
 
     /**
@@ -257,8 +263,7 @@ public class Manager {
      * @param message The message to send
      */
     public void sendTownMessage(@NotNull Town town, @NotNull Component message) {
-        plugin.getOnlineUsers().stream()
-            .filter(user -> town.getMembers().containsKey(user.getUuid()))
+        plugin.getOnlineMemberIndex().getOnlineMembers(town.getId()).stream()
             .filter(user -> plugin.getUserPreferences(user.getUuid())
                 .map(Preferences::sendTownMessages).orElse(true))
             .forEach(user -> user.sendMessage(message));
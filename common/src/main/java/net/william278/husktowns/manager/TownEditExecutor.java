@@ -0,0 +1,164 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.manager;
+
+import com.google.common.collect.Maps;
+import net.william278.husktowns.HuskTowns;
+import net.william278.husktowns.town.Town;
+import net.william278.husktowns.user.OnlineUser;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+
+/**
+ * Runs edits to {@link Town}s on a set of single-threaded lanes, striped by town ID.
+ * <p>
+ * Edits to the same town always run on the same lane, one at a time and in the order they were submitted, while edits
+ * to different towns run in parallel. Once all queued edits to a town have run, its data is persisted and broadcast
+ * once, after which the edits' callbacks are run.
+ */
+final class TownEditExecutor {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final HuskTowns plugin;
+    private final ExecutorService[] lanes;
+    private final Map<Integer, PendingUpdate> pendingUpdates = Maps.newConcurrentMap();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    TownEditExecutor(@NotNull HuskTowns plugin) {
+        this.plugin = plugin;
+        this.lanes = new ExecutorService[Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()))];
+        for (int i = 0; i < lanes.length; i++) {
+            final String threadName = plugin.getKey("town_editor_" + i).toString();
+            lanes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Queue an edit to a town
+     *
+     * @param actor    the user making the edit
+     * @param town     the town to edit
+     * @param editor   the edit to make; returns {@code true} if the town was changed and should be updated
+     * @param callback a callback to run once the edited town has been updated
+     */
+    void submit(@NotNull OnlineUser actor, @NotNull Town town, @NotNull BooleanSupplier editor,
+                @NotNull Runnable callback) {
+        final ExecutorService lane = lanes[Math.floorMod(town.getId(), lanes.length)];
+        queued.incrementAndGet();
+        lane.execute(() -> {
+            queued.decrementAndGet();
+            try {
+                if (!editor.getAsBoolean()) {
+                    return;
+                }
+            } catch (Throwable e) {
+                plugin.log(Level.SEVERE, "An exception occurred editing town " + town.getName(), e);
+                return;
+            }
+
+            // Schedule the update step for this town, unless one is already queued to run after this edit.
+            // Pending updates are only touched from the town's lane, so need no further synchronization
+            final PendingUpdate pending = pendingUpdates.get(town.getId());
+            if (pending != null) {
+                pending.actor = actor;
+                pending.callbacks.add(callback);
+                return;
+            }
+            final PendingUpdate update = new PendingUpdate();
+            update.actor = actor;
+            update.callbacks.add(callback);
+            pendingUpdates.put(town.getId(), update);
+            try {
+                lane.execute(() -> update(town.getId()));
+            } catch (RejectedExecutionException e) {
+                // Shutting down; update now rather than dropping the edit
+                update(town.getId());
+            }
+        });
+    }
+
+    // Persist and broadcast a town once for all the edits made to it since it was last updated. The town is looked up
+    // again, as the instance the edits were queued with may since have been replaced, such as by an update from
+    // another server, or the town deleted
+    private void update(int townId) {
+        final PendingUpdate pending = pendingUpdates.remove(townId);
+        final Optional<Town> town = plugin.findTown(townId);
+        if (town.isEmpty()) {
+            plugin.log(Level.WARNING, "Skipped updating town #" + townId + " as it no longer exists");
+            return;
+        }
+        try {
+            plugin.getManager().updateTownData(pending.actor, town.get());
+            pending.callbacks.forEach(Runnable::run);
+        } catch (Throwable e) {
+            plugin.log(Level.SEVERE, "An exception occurred updating town " + town.get().getName(), e);
+        }
+    }
+
+    /**
+     * Get the number of edits waiting to run
+     *
+     * @return the number of queued edits
+     */
+    int getQueuedEdits() {
+        return queued.get();
+    }
+
+    /**
+     * Stop accepting edits and wait for queued edits to finish
+     */
+    void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        try {
+            for (ExecutorService lane : lanes) {
+                if (!lane.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    plugin.log(Level.WARNING, "Timed out waiting for queued town edits to be saved");
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class PendingUpdate {
+        private final List<Runnable> callbacks = new ArrayList<>();
+        private OnlineUser actor;
+    }
+
+}
@@ -104,6 +104,8 @@ public class TownsManager {
     public Town createTownData(@NotNull OnlineUser user, @NotNull String townName) {
         final Town town = plugin.getDatabase().createTown(townName, user);
         plugin.getTowns().add(town);
+        plugin.getOnlineMemberIndex().updateTown(town);
+        plugin.getTownNameIndex().updateTown(town);
         plugin.getMessageBroker().ifPresent(broker -> Message.builder()
             .type(Message.Type.TOWN_UPDATE)
             .payload(Payload.integer(town.getId()))
@@ -141,11 +143,7 @@ public class TownsManager {
         plugin.getMapHook().ifPresent(mapHook -> mapHook.removeClaimMarkers(town));
         plugin.getDatabase().deleteTown(town.getId());
         plugin.removeTown(town);
-        plugin.getClaimWorlds().values().forEach(world -> {
-            if (world.removeTownClaims(town.getId()) > 0) {
-                plugin.getDatabase().updateClaimWorld(world);
-            }
-        });
+        plugin.getManager().claims().deleteTownClaimData(town);
 
         // Propagate the town deletion to all servers
         if (user != null) {
@@ -997,10 +995,9 @@ public class TownsManager {
 
     public void sendLocalChatMessage(@NotNull String text, @NotNull Member member, @NotNull HuskTowns plugin) {
         final Town town = member.town();
-        plugin.getLocales().getLocale("town_chat_message_format",
+        plugin.getLocales().getLocaleComponent("town_chat_message_format",
                 town.getName(), town.getColorRgb(), member.user().getUsername(),
                 member.role().getName(), text)
-            .map(MineDown::toComponent)
             .ifPresent(locale -> plugin.getManager().sendTownMessage(town, locale));
         plugin.getManager().admin().sendLocalSpyMessage(town, member, text);
     }
@@ -19,6 +19,7 @@
 
 package net.william278.husktowns.manager;
 
+import com.google.common.collect.Maps;
 import net.william278.desertwell.util.ThrowingConsumer;
 import net.william278.husktowns.HuskTowns;
 import net.william278.husktowns.audit.Action;
@@ -37,9 +38,11 @@ import org.jetbrains.annotations.Nullable;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static net.william278.husktowns.config.Settings.TownSettings.RelationsSettings.WarSettings;
 
@@ -48,11 +51,14 @@ public class WarManager {
     private final HuskTowns plugin;
     private final List<War> activeWars;
     private final List<Declaration> pendingDeclarations;
+    // The war each player still alive in an active war is fighting in, so events from everyone else can be ignored
+    private final Map<UUID, War> participants;
 
     public WarManager(@NotNull HuskTowns plugin) {
         this.plugin = plugin;
-        this.activeWars = new ArrayList<>();
-        this.pendingDeclarations = new ArrayList<>();
+        this.activeWars = new CopyOnWriteArrayList<>();
+        this.pendingDeclarations = new CopyOnWriteArrayList<>();
+        this.participants = Maps.newConcurrentMap();
     }
 
     @NotNull
@@ -286,10 +292,12 @@ public class WarManager {
                 }),
                 (defending -> {
                     // Add the war to the local map
-                    getActiveWars().removeIf(
-                        w -> w.getAttacking() == attacker.getId() || w.getDefending() == defender.getId()
-                    );
+                    getActiveWars().stream()
+                        .filter(w -> w.getAttacking() == attacker.getId() || w.getDefending() == defender.getId())
+                        .forEach(this::removeActiveWar);
                     getActiveWars().add(war);
+                    war.getAliveAttackers().forEach(uuid -> participants.put(uuid, war));
+                    war.getAliveDefenders().forEach(uuid -> participants.put(uuid, war));
 
                     // Accept callback
                     callback.accept(war);
@@ -316,33 +324,54 @@ public class WarManager {
 
     public void removeActiveWar(@NotNull War war) {
         getActiveWars().remove(war);
+        participants.values().removeIf(w -> w == war);
+    }
+
+    /**
+     * Get the active war a player is still alive in
+     *
+     * @param uuid the player's UUID
+     * @return the war the player is fighting in, if any
+     */
+    public Optional<War> getParticipatingWar(@NotNull UUID uuid) {
+        return Optional.ofNullable(participants.get(uuid));
     }
 
     public void handlePlayerQuit(@NotNull OnlineUser user) {
-        for (int i = 0; i < getActiveWars().size(); i++) {
-            final War war = getActiveWars().get(i);
-            if (war.isPlayerActive(user.getUuid())) {
-                plugin.runSyncDelayed(
-                    () -> war.handlePlayerDieOrFlee(plugin, user, true), user, 10L
-                );
-                return;
-            }
-        }
+        getParticipatingWar(user.getUuid()).ifPresent(war -> plugin.runSyncDelayed(
+            () -> handlePlayerDieOrFlee(war, user, true), user, 10L
+        ));
     }
 
     public void handlePlayerDeath(@NotNull OnlineUser user) {
-        for (int i = 0; i < getActiveWars().size(); i++) {
-            getActiveWars().get(i).handlePlayerDieOrFlee(plugin, user, false);
+        final War participating = participants.get(user.getUuid());
+        if (participating != null) {
+            handlePlayerDieOrFlee(participating, user, false);
+        }
+
+        // Wars only time out when checked, so check the others when anyone dies, as before
+        for (War war : getActiveWars()) {
+            if (war != participating && war.hasTimedOut()) {
+                war.checkVictoryCondition(plugin);
+            }
         }
     }
 
     public void handlePlayerFlee(@NotNull OnlineUser user) {
-        for (int i = 0; i < getActiveWars().size(); i++) {
-            final War war = getActiveWars().get(i);
-            if (war.isPlayerActive(user.getUuid()) &&
-                user.getPosition().distanceBetween(war.getDefenderSpawn()) > war.getWarZoneRadius()) {
-                war.handlePlayerDieOrFlee(plugin, user, true);
-            }
+        final War war = participants.get(user.getUuid());
+        if (war == null) {
+            return;
+        }
+        final double radius = war.getWarZoneRadius();
+        if (user.getPosition().distanceSquaredBetween(war.getDefenderSpawn()) > radius * radius) {
+            handlePlayerDieOrFlee(war, user, true);
+        }
+    }
+
+    private void handlePlayerDieOrFlee(@NotNull War war, @NotNull OnlineUser user, boolean fled) {
+        war.handlePlayerDieOrFlee(plugin, user, fled);
+        if (!war.isPlayerActive(user.getUuid())) {
+            participants.remove(user.getUuid(), war);
         }
     }
 
@@ -20,6 +20,8 @@
 package net.william278.husktowns.map;
 
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.TextColor;
 import net.william278.husktowns.HuskTowns;
 import net.william278.husktowns.claim.Chunk;
 import net.william278.husktowns.claim.World;
@@ -28,6 +30,10 @@ import net.william278.husktowns.user.OnlineUser;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
 /**
  * Utility for displaying a map of claims to chat.
  * See {@link ClaimMap#builder(HuskTowns)} to create a new instance.
@@ -50,6 +56,9 @@ public class ClaimMap {
 
     /**
      * Get the {@link Component} representation of the map
+     * <p>
+     * Rows are taken from the {@link ClaimMapCache} where possible; the row containing the user's position is always
+     * rendered afresh, as its square is marked as their current position.
      *
      * @param user the intended user who will view the map
      * @return the {@link Component} representation of the map
@@ -60,21 +69,51 @@ public class ClaimMap {
         if (width < 1 || height < 1) {
             throw new IllegalArgumentException("Map width and height must be greater than 0");
         }
-        Component map = Component.empty();
+        final Chunk userChunk = user instanceof OnlineUser onlineUser ? onlineUser.getChunk() : null;
+        final int fromX = center.getX() - (width / 2);
+        final int toX = center.getX() + (width / 2);
+        final Map<String, Component> headers = new HashMap<>();
+        final TextComponent.Builder map = Component.text();
         for (int y = center.getZ() - (height / 2); y < center.getZ() + (height / 2); y++) {
-            for (int x = center.getX() - (width / 2); x < center.getX() + (width / 2); x++) {
-                final Chunk chunk = Chunk.at(x, y);
-                final MapSquare square = plugin.getClaimAt(chunk, world)
-                    .map(townClaim -> MapSquare.claim(chunk, world, townClaim, plugin))
-                    .orElseGet(() -> MapSquare.wilderness(chunk, world, plugin));
-                if (user instanceof OnlineUser onlineUser && onlineUser.getChunk().equals(chunk)) {
-                    square.markAsCurrentPosition(true);
+            final int z = y;
+            final Component row = userChunk != null && userChunk.getZ() == z
+                ? renderRow(z, fromX, toX, userChunk, headers)
+                : plugin.getClaimMapCache().getRow(world, z, fromX, toX,
+                () -> renderRow(z, fromX, toX, null, headers));
+            map.append(row).append(Component.newline());
+        }
+        return map.build();
+    }
+
+    // Render a row of squares, merging adjacent squares of the same color into one run that carries the color
+    @NotNull
+    private Component renderRow(int z, int fromX, int toX, @Nullable Chunk userChunk,
+                                @NotNull Map<String, Component> headers) {
+        final TextComponent.Builder row = Component.text();
+        TextComponent.Builder run = null;
+        TextColor runColor = null;
+        for (int x = fromX; x < toX; x++) {
+            final Chunk chunk = Chunk.at(x, z);
+            final MapSquare square = plugin.getClaimAt(chunk, world)
+                .map(townClaim -> MapSquare.claim(chunk, world, townClaim, plugin))
+                .orElseGet(() -> MapSquare.wilderness(chunk, world, plugin));
+            if (chunk.equals(userChunk)) {
+                square.markAsCurrentPosition(true);
+            }
+            final TextColor color = square.getColor();
+            if (run == null || !Objects.equals(color, runColor)) {
+                if (run != null) {
+                    row.append(run);
                 }
-                map = map.append(square.toComponent());
+                run = Component.text().color(color);
+                runColor = color;
             }
-            map = map.appendNewline();
+            run.append(square.toRunComponent(headers));
+        }
+        if (run != null) {
+            row.append(run);
         }
-        return map;
+        return row.build();
     }
 
     @NotNull
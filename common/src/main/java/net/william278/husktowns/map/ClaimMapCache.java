@@ -0,0 +1,137 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.map;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import net.kyori.adventure.text.Component;
+import net.william278.husktowns.HuskTowns;
+import net.william278.husktowns.claim.ClaimWorld;
+import net.william278.husktowns.claim.World;
+import net.william278.husktowns.town.Town;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches rendered rows of {@link ClaimMap}s, keyed by the world, row and span of chunks they cover.
+ * <p>
+ * Cached rows are stamped when they are rendered, and are discarded once the claims in their world change, a town with
+ * claims is renamed or recolored, or the cache is invalidated as a whole. Rows also expire a short while after being rendered, so that
+ * changes outside HuskTowns, such as to WorldGuard regions, are picked up.
+ */
+public class ClaimMapCache {
+
+    private static final int MAXIMUM_SIZE = 2_000;
+    private static final long EXPIRE_AFTER_WRITE_MINUTES = 1;
+
+    private final HuskTowns plugin;
+    private final Cache<Key, Entry> rows = CacheBuilder.newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .expireAfterWrite(EXPIRE_AFTER_WRITE_MINUTES, TimeUnit.MINUTES)
+        .build();
+
+    private final AtomicLong counter = new AtomicLong();
+    private volatile long invalidatedAt = 0;
+
+    // The name and color each town was last shown with, by town ID
+    private final Map<Integer, String> townAppearances = Maps.newConcurrentMap();
+
+    public ClaimMapCache(@NotNull HuskTowns plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Get a rendered row of a map, from the cache if a valid one has been rendered
+     *
+     * @param world    the world the row is in
+     * @param z        the z coordinate of the row's chunks
+     * @param fromX    the x coordinate of the row's first chunk
+     * @param toX      the x coordinate after the row's last chunk
+     * @param renderer renders the row if there is no valid cached one
+     * @return the rendered row
+     */
+    @NotNull
+    Component getRow(@NotNull World world, int z, int fromX, int toX, @NotNull Supplier<Component> renderer) {
+        final ClaimWorld claimWorld = plugin.getClaimWorlds().get(world.getName());
+        final Key key = new Key(world.getName(), z, fromX, toX);
+        final Entry entry = rows.getIfPresent(key);
+        if (entry != null && isValid(entry, claimWorld)) {
+            return entry.row();
+        }
+
+        // Take the stamps before rendering, so a concurrent change invalidates the row
+        final long stamp = counter.get();
+        final long claimsVersion = claimWorld == null ? 0 : claimWorld.getVersion();
+        final Component row = renderer.get();
+        rows.put(key, new Entry(row, claimWorld, claimsVersion, stamp));
+        return row;
+    }
+
+    private boolean isValid(@NotNull Entry entry, @Nullable ClaimWorld claimWorld) {
+        return entry.claimWorld() == claimWorld
+            && (claimWorld == null || claimWorld.getVersion() == entry.claimsVersion())
+            && invalidatedAt <= entry.stamp();
+    }
+
+    /**
+     * Update the cache for a town that has been added or updated, invalidating all cached rows if the town has claims
+     * and its name or color has changed
+     *
+     * @param town the town
+     */
+    public void updateTown(@NotNull Town town) {
+        final String appearance = town.getName() + ":" + town.getColorRgb();
+        final String previous = townAppearances.put(town.getId(), appearance);
+        if (town.getClaimCount() > 0 && !appearance.equals(previous)) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Remove a deleted town from the cache; rows showing its claims are discarded once they are removed from their
+     * claim worlds
+     *
+     * @param townId the ID of the town
+     */
+    public void removeTown(int townId) {
+        townAppearances.remove(townId);
+    }
+
+    /**
+     * Invalidate all cached rows
+     */
+    public void invalidate() {
+        invalidatedAt = counter.incrementAndGet();
+        rows.invalidateAll();
+    }
+
+    private record Key(@NotNull String world, int z, int fromX, int toX) {
+    }
+
+    private record Entry(@NotNull Component row, @Nullable ClaimWorld claimWorld, long claimsVersion, long stamp) {
+    }
+
+}
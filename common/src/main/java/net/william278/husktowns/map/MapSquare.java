@@ -32,6 +32,7 @@ import net.william278.husktowns.hook.WorldGuardHook;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
 import java.util.Optional;
 
 public class MapSquare {
@@ -68,13 +69,12 @@ public class MapSquare {
 
     @NotNull
     private Component getSquareTooltip() {
-        Component component = getSquareHeaderLocale()
-            .map(MineDown::toComponent).orElse(Component.empty());
-        if (!isWilderness() && (claim.claim().getType() != Claim.Type.CLAIM || claim.isAdminClaim(plugin))) {
-            component = component.appendNewline().append(getSquareTypeLocale()
-                .map(MineDown::toComponent).orElse(Component.empty()));
-        }
-        component = component.appendNewline()
+        return getSquareTooltip(getSquareTooltipHeader());
+    }
+
+    @NotNull
+    private Component getSquareTooltip(@NotNull Component header) {
+        Component component = header.appendNewline()
             .append(plugin.getLocales().getLocale("claim_map_square_coordinates",
                     Integer.toString(chunk.getX()), Integer.toString(chunk.getZ()))
                 .map(MineDown::toComponent).orElse(Component.empty()));
@@ -86,6 +86,28 @@ public class MapSquare {
         return component;
     }
 
+    // The part of the tooltip describing who owns the square, which is the same for every square of a claim type
+    @NotNull
+    private Component getSquareTooltipHeader() {
+        Component component = getSquareHeaderLocale()
+            .map(MineDown::toComponent).orElse(Component.empty());
+        if (!isWilderness() && (claim.claim().getType() != Claim.Type.CLAIM || claim.isAdminClaim(plugin))) {
+            component = component.appendNewline().append(getSquareTypeLocale()
+                .map(MineDown::toComponent).orElse(Component.empty()));
+        }
+        return component;
+    }
+
+    // Identifies squares that share a tooltip header
+    @NotNull
+    private String getSquareTooltipHeaderKey() {
+        if (isWilderness()) {
+            return isUnclaimable() || isProtected() ? "unclaimable" : "wilderness";
+        }
+        final String key = claim.town().getId() + ":" + claim.claim().getType() + ":" + claim.isAdminClaim(plugin);
+        return isProtected() ? "protected:" + key : key;
+    }
+
     private Optional<MineDown> getSquareTypeLocale() {
         if (claim == null) {
             return Optional.empty();
@@ -129,9 +151,26 @@ public class MapSquare {
 
     @NotNull
     public Component toComponent() {
-        Component component = Component.text(isWilderness() ? wildernessChar : claimChar)
-            .color(TextColor.fromHexString(getSquareColor()))
-            .hoverEvent(getSquareTooltip());
+        return withClickEvent(Component.text(getSquareChar())
+            .color(getColor())
+            .hoverEvent(getSquareTooltip()));
+    }
+
+    /**
+     * Get the square as a component without a color, to be drawn within a run of squares sharing its color
+     *
+     * @param headers tooltip headers already built while rendering the map, by header key; added to when missing
+     * @return the uncolored component
+     */
+    @NotNull
+    Component toRunComponent(@NotNull Map<String, Component> headers) {
+        final Component header = headers.computeIfAbsent(getSquareTooltipHeaderKey(),
+            key -> getSquareTooltipHeader());
+        return withClickEvent(Component.text(getSquareChar()).hoverEvent(getSquareTooltip(header)));
+    }
+
+    @NotNull
+    private Component withClickEvent(@NotNull Component component) {
         if (!isUnclaimable()) {
             if (isWilderness()) {
                 component = component.clickEvent(ClickEvent.runCommand("/town claim " + chunk.getX() + " " + chunk.getZ() + " -m"));
@@ -140,7 +179,15 @@ public class MapSquare {
             }
         }
         return component;
+    }
+
+    @Nullable
+    TextColor getColor() {
+        return TextColor.fromHexString(getSquareColor());
+    }
 
+    char getSquareChar() {
+        return isWilderness() ? wildernessChar : claimChar;
     }
 
     private boolean isUnclaimable() {
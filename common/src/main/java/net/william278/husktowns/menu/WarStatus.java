@@ -94,7 +94,7 @@ public class WarStatus {
     @NotNull
     private Component getStatusBlock(@NotNull List<UUID> players, @NotNull Town town) {
         final List<String> usernames = new ArrayList<>(players.stream()
-            .map(uuid -> plugin.getUserList().stream().filter(a -> a.getUuid().equals(uuid)).findFirst())
+            .map(uuid -> plugin.getNetworkUserList().getUser(uuid))
             .filter(Optional::isPresent).map(Optional::get)
             .map(User::getUsername)
             .limit(9).toList());
@@ -61,6 +61,8 @@ public class LegacyMigrator extends Migrator {
                 plugin.log(Level.WARNING, "Skipped migrating " + town.getName() + ": " + e.getMessage());
             }
         });
+        plugin.getOnlineMemberIndex().rebuild();
+        plugin.getTownNameIndex().rebuild();
 
         // Convert claims into claim worlds
         plugin.log(Level.INFO, "Migrating claims...");
@@ -62,31 +62,28 @@ public abstract class Broker {
         if (message.getSourceServer().equals(getServer())) {
             return;
         }
+        plugin.getMetrics().increment(message.getType().getInboundMetric());
         switch (message.getType()) {
             case TOWN_DELETE -> message.getPayload().getInteger()
                 .flatMap(townId -> plugin.getTowns().stream().filter(town -> town.getId() == townId).findFirst())
-                .ifPresent(town -> plugin.runAsync(() -> {
+                .ifPresent(town -> handleAsync(() -> {
                     plugin.getManager().sendTownMessage(town, plugin.getLocales()
                         .getLocale("town_deleted_notification", town.getName())
                         .map(MineDown::toComponent).orElse(Component.empty()));
                     plugin.getMapHook().ifPresent(mapHook -> mapHook.removeClaimMarkers(town));
                     plugin.removeTown(town);
-                    plugin.getClaimWorlds().values().forEach(world -> {
-                        if (world.removeTownClaims(town.getId()) > 0) {
-                            plugin.getDatabase().updateClaimWorld(world);
-                        }
-                    });
+                    plugin.getManager().claims().deleteTownClaimData(town);
                 }));
             case TOWN_DELETE_ALL_CLAIMS -> message.getPayload().getInteger()
                 .flatMap(townId -> plugin.getTowns().stream().filter(town -> town.getId() == townId).findFirst())
-                .ifPresent(town -> plugin.runAsync(() -> {
+                .ifPresent(town -> handleAsync(() -> {
                     plugin.getManager().sendTownMessage(town, plugin.getLocales()
                         .getLocale("deleted_all_claims_notification", town.getName())
                         .map(MineDown::toComponent).orElse(Component.empty()));
                     plugin.getMapHook().ifPresent(mapHook -> mapHook.removeClaimMarkers(town));
-                    plugin.getClaimWorlds().values().forEach(world -> world.removeTownClaims(town.getId()));
+                    plugin.getManager().claims().deleteTownClaimData(town);
                 }));
-            case TOWN_UPDATE -> plugin.runAsync(() -> message.getPayload().getInteger()
+            case TOWN_UPDATE -> handleAsync(() -> message.getPayload().getInteger()
                 .flatMap(id -> plugin.getDatabase().getTown(id))
                 .ifPresentOrElse(
                     plugin::updateTown,
@@ -120,9 +117,9 @@ public abstract class Broker {
                     .ifPresent(locale -> plugin.getManager().sendTownMessage(townMember.town(), locale));
             });
             case TOWN_CHAT_MESSAGE -> message.getPayload().getString()
-                .ifPresent(text -> plugin.getDatabase().getUser(message.getSender())
+                .ifPresent(text -> handleAsync(() -> plugin.getDatabase().getUser(message.getSender())
                     .flatMap(sender -> plugin.getUserTown(sender.user()))
-                    .ifPresent(member -> plugin.getManager().towns().sendLocalChatMessage(text, member, plugin)));
+                    .ifPresent(member -> plugin.getManager().towns().sendLocalChatMessage(text, member, plugin))));
             case REQUEST_USER_LIST -> {
                 if (receiver == null) {
                     return;
@@ -136,6 +133,13 @@ public abstract class Broker {
             case USER_LIST -> message.getPayload()
                 .getUserList()
                 .ifPresent(players -> plugin.setUserList(message.getSourceServer(), players));
+            case USER_LIST_ADD -> message.getPayload()
+                .getUserList()
+                .ifPresent(players -> players.forEach(player -> plugin.getNetworkUserList()
+                    .add(message.getSourceServer(), player)));
+            case USER_LIST_REMOVE -> message.getPayload()
+                .getUuid()
+                .ifPresent(uuid -> plugin.getNetworkUserList().remove(message.getSourceServer(), uuid));
             case TOWN_LEVEL_UP, TOWN_TRANSFERRED, TOWN_RENAMED ->
                 message.getPayload().getInteger().flatMap(id -> plugin.getTowns().stream()
                     .filter(town -> town.getId() == id).findFirst()).ifPresent(town -> {
@@ -238,6 +242,15 @@ public abstract class Broker {
         }
     }
 
+    /**
+     * Run part of a message handler that may block, such as database lookups, off the thread handling the message
+     *
+     * @param runnable the blocking work to run
+     */
+    protected void handleAsync(@NotNull Runnable runnable) {
+        plugin.runAsync(runnable);
+    }
+
     /**
      * Initialize the message broker
      *
@@ -0,0 +1,205 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.network;
+
+import com.google.common.collect.Sets;
+import net.william278.husktowns.HuskTowns;
+import net.william278.husktowns.town.Invite;
+import net.william278.husktowns.war.Declaration;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Dispatches inbound {@link Message}s off the thread that received them.
+ * <p>
+ * Messages are routed to one of a fixed number of single-threaded lanes by the town they concern (or, failing that,
+ * their sender), so messages about the same town are handled in the order they were received while messages about
+ * different towns are handled in parallel.
+ * <p>
+ * Town updates only tell a server to reload a town, so an update waiting in a lane absorbs any further updates for the
+ * same town, which are then handled once with the latest message. Each lane's queue is capped; when a queue is full,
+ * the receiving thread waits for room rather than dropping messages, which would leave this server out of sync.
+ */
+final class InboundDispatcher {
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final long FULL_WARNING_INTERVAL_MILLIS = 30_000;
+
+    private final HuskTowns plugin;
+    private final ThreadPoolExecutor[] lanes;
+    private final Set<Thread> laneThreads = Sets.newConcurrentHashSet();
+    private final AtomicLong lastFullWarning = new AtomicLong();
+    // Town updates waiting in a lane, by town ID; guarded by itself
+    private final Map<Integer, PendingUpdate> pendingUpdates = new HashMap<>();
+
+    InboundDispatcher(@NotNull HuskTowns plugin, int laneCount) {
+        this.plugin = plugin;
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            final String threadName = plugin.getKey("redis_dispatcher_" + i).toString();
+            lanes[i] = new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, threadName);
+                    thread.setDaemon(true);
+                    laneThreads.add(thread);
+                    return thread;
+                },
+                this::waitForRoom
+            );
+        }
+    }
+
+    /**
+     * Dispatch a message handler to the lane for the message
+     *
+     * @param message the message being handled
+     * @param handler the handler to run
+     */
+    void dispatch(@NotNull Message message, @NotNull Runnable handler) {
+        final Object key = getOrderingKey(message);
+        final ThreadPoolExecutor lane = lanes[Math.floorMod(key.hashCode(), lanes.length)];
+        if (!(key instanceof Integer townId)) {
+            lane.execute(() -> handle(message.getType(), handler));
+            return;
+        }
+
+        final PendingUpdate update;
+        synchronized (pendingUpdates) {
+            if (message.getType() != Message.Type.TOWN_UPDATE) {
+                // Later updates must be handled after this message, so they can't join an update queued before it
+                pendingUpdates.remove(townId);
+                update = null;
+            } else {
+                final PendingUpdate pending = pendingUpdates.get(townId);
+                if (pending != null) {
+                    pending.handler = handler;
+                    return;
+                }
+                update = new PendingUpdate(handler);
+                pendingUpdates.put(townId, update);
+            }
+        }
+
+        if (update == null) {
+            lane.execute(() -> handle(message.getType(), handler));
+            return;
+        }
+        lane.execute(() -> {
+            final Runnable latest;
+            synchronized (pendingUpdates) {
+                pendingUpdates.remove(townId, update);
+                latest = update.handler;
+            }
+            handle(Message.Type.TOWN_UPDATE, latest);
+        });
+    }
+
+    private void handle(@NotNull Message.Type type, @NotNull Runnable handler) {
+        try {
+            handler.run();
+        } catch (Throwable e) {
+            plugin.log(Level.SEVERE, "Failed to handle " + type + " message", e);
+        }
+    }
+
+    /**
+     * Returns whether the current thread is one of this dispatcher's lanes
+     *
+     * @return {@code true} if called from a dispatcher lane
+     */
+    boolean isDispatchThread() {
+        return laneThreads.contains(Thread.currentThread());
+    }
+
+    /**
+     * Get the number of messages waiting to be handled across all lanes
+     *
+     * @return the number of queued messages
+     */
+    int getQueuedMessages() {
+        int queued = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+
+    void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    // Messages about the same town share a key, so that they are handled in order
+    @NotNull
+    private Object getOrderingKey(@NotNull Message message) {
+        final Payload payload = message.getPayload();
+        return switch (message.getType()) {
+            case TOWN_UPDATE, TOWN_DELETE, TOWN_DELETE_ALL_CLAIMS, TOWN_LEVEL_UP, TOWN_TRANSFERRED, TOWN_RENAMED,
+                TOWN_WAR_END -> payload.getInteger().map(Object.class::cast).orElse(message.getSender());
+            case TOWN_INVITE_REQUEST -> payload.getInvite().map(Invite::getTownId)
+                .map(Object.class::cast).orElse(message.getSender());
+            case TOWN_WAR_DECLARATION_SENT, TOWN_WAR_DECLARATION_ACCEPTED -> payload.getDeclaration()
+                .map(Declaration::attackingTown).map(Object.class::cast).orElse(message.getSender());
+            default -> message.getSender();
+        };
+    }
+
+    // Rejection handler for full lanes; blocks the receiving thread until the lane has room for the message
+    private void waitForRoom(@NotNull Runnable runnable, @NotNull ThreadPoolExecutor lane) {
+        if (lane.isShutdown()) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final long last = lastFullWarning.get();
+        if (now - last >= FULL_WARNING_INTERVAL_MILLIS && lastFullWarning.compareAndSet(last, now)) {
+            plugin.log(Level.WARNING, "Inbound cross-server messages are arriving faster than they can be handled; "
+                + "waiting for the dispatch queue to empty. Is your database responding slowly?");
+        }
+        try {
+            while (!lane.getQueue().offer(runnable, 1, TimeUnit.SECONDS)) {
+                if (lane.isShutdown()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting to dispatch a message", e);
+        }
+    }
+
+    // A town update waiting in a lane; replaced with the latest update for the town until it is handled
+    private static final class PendingUpdate {
+        private Runnable handler;
+
+        private PendingUpdate(@NotNull Runnable handler) {
+            this.handler = handler;
+        }
+    }
+
+}
@@ -64,6 +64,13 @@ public class Message {
         this.targetType = targetType;
     }
 
+    Message(@NotNull Type type, @NotNull String target, @NotNull TargetType targetType, @NotNull Payload payload,
+            @NotNull String sender, @NotNull String sourceServer) {
+        this(type, target, targetType, payload);
+        this.sender = sender;
+        this.sourceServer = sourceServer;
+    }
+
     @NotNull
     public static Builder builder() {
         return new Builder();
@@ -72,6 +79,7 @@ public class Message {
     public void send(@NotNull Broker broker, @NotNull OnlineUser sender) {
         this.sender = sender.getUsername();
         this.sourceServer = broker.getServer();
+        broker.plugin.getMetrics().increment(type.getOutboundMetric());
         broker.send(this, sender);
     }
 
@@ -215,7 +223,29 @@ public class Message {
         /**
          * A message containing a list of users on a server
          */
-        USER_LIST
+        USER_LIST,
+        /**
+         * A message indicating a user (the only entry in the user list payload) has joined the source server
+         */
+        USER_LIST_ADD,
+        /**
+         * A message indicating a user (by UUID payload) has left the source server
+         */
+        USER_LIST_REMOVE;
+
+        // Metric names are built once, as they are counted for every message sent and received
+        private final String inboundMetric = "broker.in." + name().toLowerCase();
+        private final String outboundMetric = "broker.out." + name().toLowerCase();
+
+        @NotNull
+        String getInboundMetric() {
+            return inboundMetric;
+        }
+
+        @NotNull
+        String getOutboundMetric() {
+            return outboundMetric;
+        }
     }
 
     @AllArgsConstructor(access = AccessLevel.PRIVATE)
@@ -0,0 +1,191 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.network;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes batches of {@link Message}s into a compact binary envelope for publishing over Redis.
+ * <p>
+ * An envelope is a version byte and a flags byte, followed by the (optionally deflated) batch body: the number of
+ * messages, then each message's header fields and {@link Payload}.
+ * <p>
+ * Messages published by older versions as a single Gson JSON object are also accepted when decoding, so servers can be
+ * upgraded one at a time.
+ */
+final class MessageCodec {
+
+    private static final byte VERSION = 1;
+    private static final byte FLAG_COMPRESSED = 0x01;
+    private static final int MAX_LENGTH = 1 << 24;
+
+    private final Gson gson;
+    private final int compressionThreshold;
+
+    /**
+     * Create a message codec
+     *
+     * @param gson                 the Gson instance used to encode complex payload objects
+     * @param compressionThreshold the batch body size (in bytes) above which batches are compressed,
+     *                             or {@code -1} to never compress
+     */
+    MessageCodec(@NotNull Gson gson, int compressionThreshold) {
+        this.gson = gson;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Encode a batch of messages into an envelope
+     *
+     * @param messages the messages to encode
+     * @return the encoded envelope
+     * @throws IOException if the batch could not be encoded
+     */
+    byte[] encode(@NotNull List<Message> messages) throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(body)) {
+            output.writeInt(messages.size());
+            for (Message message : messages) {
+                writeMessage(output, message);
+            }
+        }
+
+        final boolean compress = compressionThreshold >= 0 && body.size() > compressionThreshold;
+        final ByteArrayOutputStream envelope = new ByteArrayOutputStream(body.size() + 2);
+        envelope.write(VERSION);
+        envelope.write(compress ? FLAG_COMPRESSED : 0);
+        if (compress) {
+            try (DeflaterOutputStream deflater = new DeflaterOutputStream(envelope)) {
+                body.writeTo(deflater);
+            }
+        } else {
+            body.writeTo(envelope);
+        }
+        return envelope.toByteArray();
+    }
+
+    /**
+     * Decode an envelope into the batch of messages it contains
+     *
+     * @param envelope the encoded envelope
+     * @return the decoded messages
+     * @throws IOException if the envelope is malformed or was encoded with an unsupported version
+     */
+    @NotNull
+    List<Message> decode(byte[] envelope) throws IOException {
+        try {
+            if (envelope.length > 0 && envelope[0] == '{') {
+                return decodeLegacy(envelope);
+            }
+            if (envelope.length < 2 || envelope[0] != VERSION) {
+                throw new IOException("Unsupported message envelope version");
+            }
+            return decodeBatch(envelope);
+        } catch (JsonParseException | IllegalArgumentException e) {
+            throw new IOException("Malformed message envelope", e);
+        }
+    }
+
+    // Messages published by older versions are a single message serialized as JSON
+    @NotNull
+    private List<Message> decodeLegacy(byte[] json) {
+        final Message message = gson.fromJson(new String(json, StandardCharsets.UTF_8), Message.class);
+        return message == null || message.getType() == null ? List.of() : List.of(message);
+    }
+
+    @NotNull
+    private List<Message> decodeBatch(byte[] envelope) throws IOException {
+        InputStream body = new ByteArrayInputStream(envelope, 2, envelope.length - 2);
+        if ((envelope[1] & FLAG_COMPRESSED) != 0) {
+            body = new InflaterInputStream(body);
+        }
+        try (DataInputStream input = new DataInputStream(body)) {
+            final int count = readLength(input);
+            final List<Message> messages = new ArrayList<>(Math.min(count, 256));
+            for (int i = 0; i < count; i++) {
+                final Message message = readMessage(input);
+                if (message != null) {
+                    messages.add(message);
+                }
+            }
+            return messages;
+        }
+    }
+
+    private void writeMessage(@NotNull DataOutput output, @NotNull Message message) throws IOException {
+        output.writeUTF(message.getType().name());
+        output.writeByte(message.getTargetType().ordinal());
+        writeString(output, message.getTarget());
+        writeString(output, message.getSender());
+        writeString(output, message.getSourceServer());
+        message.getPayload().write(output, gson);
+    }
+
+    // Returns null for messages of a type this server doesn't recognise
+    private Message readMessage(@NotNull DataInput input) throws IOException {
+        final String type = input.readUTF();
+        final int targetTypeIndex = input.readUnsignedByte();
+        if (targetTypeIndex >= Message.TargetType.values().length) {
+            throw new IOException("Unknown message target type " + targetTypeIndex);
+        }
+        final Message.TargetType targetType = Message.TargetType.values()[targetTypeIndex];
+        final String target = readString(input);
+        final String sender = readString(input);
+        final String sourceServer = readString(input);
+        final Payload payload = Payload.read(input, gson);
+        try {
+            return new Message(Message.Type.valueOf(type), target, targetType, payload, sender, sourceServer);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static void writeString(@NotNull DataOutput output, @NotNull String string) throws IOException {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    @NotNull
+    static String readString(@NotNull DataInput input) throws IOException {
+        final byte[] bytes = new byte[readLength(input)];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Read a length or count, rejecting values a corrupt envelope could use to allocate huge arrays
+    static int readLength(@NotNull DataInput input) throws IOException {
+        final int length = input.readInt();
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new IOException("Invalid length " + length + " in message envelope");
+        }
+        return length;
+    }
+
+}
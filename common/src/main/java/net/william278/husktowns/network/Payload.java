@@ -19,6 +19,7 @@
 
 package net.william278.husktowns.network;
 
+import com.google.gson.Gson;
 import com.google.gson.annotations.Expose;
 import net.william278.husktowns.town.Invite;
 import net.william278.husktowns.user.User;
@@ -26,11 +27,23 @@ import net.william278.husktowns.war.Declaration;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public class Payload {
+    private static final int UUID_FIELD = 1;
+    private static final int INTEGER_FIELD = 1 << 1;
+    private static final int INVITE_FIELD = 1 << 2;
+    private static final int DECLARATION_FIELD = 1 << 3;
+    private static final int BOOL_FIELD = 1 << 4;
+    private static final int STRING_FIELD = 1 << 5;
+    private static final int USER_LIST_FIELD = 1 << 6;
+
     @Nullable
     @Expose
     private UUID uuid;
@@ -143,4 +156,72 @@ public class Payload {
         return Optional.ofNullable(userList);
     }
 
+    // Write this payload in binary form; a bitmask of present fields followed by each present field
+    void write(@NotNull DataOutput output, @NotNull Gson gson) throws IOException {
+        output.writeByte((uuid != null ? UUID_FIELD : 0) | (integer != null ? INTEGER_FIELD : 0)
+            | (invite != null ? INVITE_FIELD : 0) | (declaration != null ? DECLARATION_FIELD : 0)
+            | (bool != null ? BOOL_FIELD : 0) | (string != null ? STRING_FIELD : 0)
+            | (userList != null ? USER_LIST_FIELD : 0));
+        if (uuid != null) {
+            output.writeLong(uuid.getMostSignificantBits());
+            output.writeLong(uuid.getLeastSignificantBits());
+        }
+        if (integer != null) {
+            output.writeInt(integer);
+        }
+        if (invite != null) {
+            MessageCodec.writeString(output, gson.toJson(invite));
+        }
+        if (declaration != null) {
+            MessageCodec.writeString(output, gson.toJson(declaration));
+        }
+        if (bool != null) {
+            output.writeBoolean(bool);
+        }
+        if (string != null) {
+            MessageCodec.writeString(output, string);
+        }
+        if (userList != null) {
+            output.writeInt(userList.size());
+            for (User user : userList) {
+                output.writeLong(user.getUuid().getMostSignificantBits());
+                output.writeLong(user.getUuid().getLeastSignificantBits());
+                output.writeUTF(user.getUsername());
+            }
+        }
+    }
+
+    @NotNull
+    static Payload read(@NotNull DataInput input, @NotNull Gson gson) throws IOException {
+        final Payload payload = new Payload();
+        final int fields = input.readUnsignedByte();
+        if ((fields & UUID_FIELD) != 0) {
+            payload.uuid = new UUID(input.readLong(), input.readLong());
+        }
+        if ((fields & INTEGER_FIELD) != 0) {
+            payload.integer = input.readInt();
+        }
+        if ((fields & INVITE_FIELD) != 0) {
+            payload.invite = gson.fromJson(MessageCodec.readString(input), Invite.class);
+        }
+        if ((fields & DECLARATION_FIELD) != 0) {
+            payload.declaration = gson.fromJson(MessageCodec.readString(input), Declaration.class);
+        }
+        if ((fields & BOOL_FIELD) != 0) {
+            payload.bool = input.readBoolean();
+        }
+        if ((fields & STRING_FIELD) != 0) {
+            payload.string = MessageCodec.readString(input);
+        }
+        if ((fields & USER_LIST_FIELD) != 0) {
+            final int size = MessageCodec.readLength(input);
+            final List<User> users = new ArrayList<>(Math.min(size, 256));
+            for (int i = 0; i < size; i++) {
+                users.add(User.of(new UUID(input.readLong(), input.readLong()), input.readUTF()));
+            }
+            payload.userList = users;
+        }
+        return payload;
+    }
+
 }
@@ -19,7 +19,9 @@
 
 package net.william278.husktowns.network;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.gson.Gson;
 import net.william278.husktowns.HuskTowns;
 import net.william278.husktowns.config.Settings;
 import net.william278.husktowns.user.OnlineUser;
@@ -27,14 +29,58 @@ import org.jetbrains.annotations.NotNull;
 import redis.clients.jedis.*;
 import redis.clients.jedis.util.Pool;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 
 /**
- * Redis message broker implementation
+ * Redis message broker implementation.
+ * <p>
+ * Outbound messages are queued and published by a single publisher thread, which flushes at most once per server
+ * tick: everything queued since the last flush is encoded by a {@link MessageCodec} and published in one pipeline.
+ * Received batches are decoded on the subscriber thread and handed to an {@link InboundDispatcher}.
+ * <p>
+ * Batches are published on their own channel, so servers running older versions, which expect one JSON message per
+ * publish on the {@link #getSubChannelId() plain channel}, never receive them. JSON messages from those servers are
+ * still received on the plain channel, and can optionally be published there too while servers are being upgraded.
  */
 public class RedisBroker extends PluginMessageBroker {
+
+    private static final long FLUSH_INTERVAL_MILLIS = 50;
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final int JSON_SAMPLE_RATE = 16;
+    private static final int DISPATCHER_LANES = 4;
+    private static final long MIN_RESUBSCRIBE_DELAY_MILLIS = 1000;
+    private static final long MAX_RESUBSCRIBE_DELAY_MILLIS = 30_000;
+    private static final String OUTBOUND_QUEUE_GAUGE = "broker.outbound_queue";
+    private static final String INBOUND_QUEUE_GAUGE = "broker.inbound_queue";
+    private static final String BATCH_CHANNEL_SUFFIX = "/batch";
+
+    private final BlockingQueue<Message> outbound = new LinkedBlockingQueue<>();
+    private final LongAdder messagesPublished = new LongAdder();
+    private final LongAdder batchesPublished = new LongAdder();
+    private final LongAdder bytesPublished = new LongAdder();
+    private final LongAdder sampledMessages = new LongAdder();
+    private final LongAdder sampledJsonBytes = new LongAdder();
+    private final LongAdder malformedEnvelopes = new LongAdder();
+    // Servers seen publishing batches, whose copies of messages in the old format should be ignored
+    private final Set<String> batchingServers = Sets.newConcurrentHashSet();
     private Pool<Jedis> jedisPool;
+    private MessageCodec codec;
+    private InboundDispatcher dispatcher;
+    private volatile BinaryJedisPubSub subscriber;
+    private Gson gson;
+    private Thread publisher;
+    private volatile boolean running;
+    private long startTime;
 
     public RedisBroker(@NotNull HuskTowns plugin) {
         super(plugin);
@@ -45,7 +91,16 @@ public class RedisBroker extends PluginMessageBroker {
         super.initialize();
 
         this.jedisPool = establishJedisPool();
-        new Thread(getSubscriber(), plugin.getKey("redis_subscriber").toString()).start();
+        this.gson = plugin.getGson();
+        this.codec = new MessageCodec(gson, plugin.getSettings().getCrossServer().getRedis().getCompressionThreshold());
+        this.running = true;
+        this.startTime = System.currentTimeMillis();
+        this.dispatcher = new InboundDispatcher(plugin, DISPATCHER_LANES);
+        new Thread(this::subscribe, plugin.getKey("redis_subscriber").toString()).start();
+        this.publisher = new Thread(this::publishQueued, plugin.getKey("redis_publisher").toString());
+        this.publisher.start();
+        plugin.getMetrics().gauge(OUTBOUND_QUEUE_GAUGE, outbound::size);
+        plugin.getMetrics().gauge(INBOUND_QUEUE_GAUGE, dispatcher::getQueuedMessages);
 
         plugin.log(Level.INFO, "Initialized Redis connection pool");
     }
@@ -78,46 +133,224 @@ public class RedisBroker extends PluginMessageBroker {
     }
 
     @NotNull
-    private Runnable getSubscriber() {
-        return () -> {
+    private String getBatchChannelId() {
+        return getSubChannelId() + BATCH_CHANNEL_SUFFIX;
+    }
+
+    // Subscriber thread loop; decodes received batches and hands them to the dispatcher, resubscribing on failure
+    private void subscribe() {
+        final byte[] batchChannel = getBatchChannelId().getBytes(StandardCharsets.UTF_8);
+        final byte[] legacyChannel = getSubChannelId().getBytes(StandardCharsets.UTF_8);
+        long retryDelay = MIN_RESUBSCRIBE_DELAY_MILLIS;
+        while (running) {
             try (Jedis jedis = jedisPool.getResource()) {
-                jedis.subscribe(new JedisPubSub() {
-                    @Override
-                    public void onMessage(@NotNull String channel, @NotNull String encodedMessage) {
-                        if (!channel.equals(getSubChannelId())) {
-                            return;
-                        }
-
-                        final Message message = plugin.getMessageFromJson(encodedMessage);
-                        if (message.getTargetType() == Message.TargetType.PLAYER) {
-                            plugin.getOnlineUsers().stream()
-                                .filter(online -> online.getName().equalsIgnoreCase(message.getTarget()))
-                                .findFirst()
-                                .ifPresent(receiver -> handle(receiver, message));
-                            return;
-                        }
-                        handle(plugin.getOnlineUsers().stream().findAny().orElse(null), message);
+                retryDelay = MIN_RESUBSCRIBE_DELAY_MILLIS;
+                subscriber = createSubscriber(batchChannel, legacyChannel);
+                jedis.subscribe(subscriber, batchChannel, legacyChannel);
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                plugin.log(Level.WARNING, "Lost connection to the Redis server; resubscribing in "
+                    + retryDelay + "ms", e);
+                try {
+                    Thread.sleep(retryDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                retryDelay = Math.min(retryDelay * 2, MAX_RESUBSCRIBE_DELAY_MILLIS);
+            }
+        }
+    }
+
+    @NotNull
+    private BinaryJedisPubSub createSubscriber(byte[] batchChannel, byte[] legacyChannel) {
+        return new BinaryJedisPubSub() {
+            @Override
+            public void onMessage(byte[] messageChannel, byte[] envelope) {
+                if (!Arrays.equals(messageChannel, batchChannel) && !Arrays.equals(messageChannel, legacyChannel)) {
+                    return;
+                }
+
+                // Skip malformed envelopes rather than letting them break the subscription
+                final List<Message> messages;
+                try {
+                    messages = codec.decode(envelope);
+                } catch (IOException e) {
+                    malformedEnvelopes.increment();
+                    plugin.log(Level.WARNING, "Skipped a malformed batch of Redis messages", e);
+                    return;
+                }
+
+                final boolean legacy = Arrays.equals(messageChannel, legacyChannel);
+                for (Message message : messages) {
+                    if (!legacy) {
+                        batchingServers.add(message.getSourceServer());
+                    } else if (batchingServers.contains(message.getSourceServer())) {
+                        continue;
                     }
-                }, getSubChannelId());
+                    dispatcher.dispatch(message, () -> handleMessage(message));
+                }
             }
         };
     }
 
+    private void handleMessage(@NotNull Message message) {
+        if (message.getTargetType() == Message.TargetType.PLAYER) {
+            plugin.getOnlineUsers().stream()
+                .filter(online -> online.getName().equalsIgnoreCase(message.getTarget()))
+                .findFirst()
+                .ifPresent(receiver -> handle(receiver, message));
+            return;
+        }
+        handle(plugin.getOnlineUsers().stream().findAny().orElse(null), message);
+    }
+
+    @Override
+    protected void handleAsync(@NotNull Runnable runnable) {
+        // Handlers dispatched to a lane are already off the main thread; running inline keeps them in order
+        if (dispatcher != null && dispatcher.isDispatchThread()) {
+            runnable.run();
+            return;
+        }
+        super.handleAsync(runnable);
+    }
+
     @Override
     protected void send(@NotNull Message message, @NotNull OnlineUser sender) {
-        plugin.runAsync(() -> {
-            try (Jedis jedis = jedisPool.getResource()) {
-                jedis.publish(getSubChannelId(), plugin.getGson().toJson(message));
+        outbound.add(message);
+    }
+
+    // Publisher thread loop; waits for queued messages, then publishes them in batches at most once per tick
+    private void publishQueued() {
+        long lastFlush = 0;
+        final List<Message> batch = new ArrayList<>();
+        while (running || !outbound.isEmpty()) {
+            try {
+                final Message first = outbound.poll(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Let the rest of this tick's messages queue up before flushing
+                final long sinceLastFlush = System.currentTimeMillis() - lastFlush;
+                if (running && sinceLastFlush < FLUSH_INTERVAL_MILLIS) {
+                    Thread.sleep(FLUSH_INTERVAL_MILLIS - sinceLastFlush);
+                }
+            } catch (InterruptedException e) {
+                // Interrupted on close; flush what remains in the queue
+                running = false;
+            }
+            outbound.drainTo(batch);
+            if (!batch.isEmpty()) {
+                publish(batch);
+                batch.clear();
+                lastFlush = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private void publish(@NotNull List<Message> messages) {
+        final byte[] channel = getBatchChannelId().getBytes(StandardCharsets.UTF_8);
+        try (Jedis jedis = jedisPool.getResource()) {
+            final Pipeline pipeline = jedis.pipelined();
+            for (List<Message> batch : Lists.partition(messages, MAX_BATCH_SIZE)) {
+                final byte[] envelope = codec.encode(batch);
+                pipeline.publish(channel, envelope);
+                batchesPublished.increment();
+                bytesPublished.add(envelope.length);
             }
-        });
+            if (plugin.getSettings().getCrossServer().getRedis().isPublishLegacyMessages()) {
+                final String legacyChannel = getSubChannelId();
+                messages.forEach(message -> pipeline.publish(legacyChannel, gson.toJson(message)));
+            }
+            pipeline.sync();
+            messagesPublished.add(messages.size());
+            sampleJsonSize(messages);
+        } catch (IOException e) {
+            plugin.log(Level.SEVERE, "Failed to encode a batch of Redis messages", e);
+        } catch (Exception e) {
+            plugin.log(Level.SEVERE, "Failed to publish a batch of Redis messages", e);
+        }
+    }
+
+    // Measure the JSON size of a sample of messages, for estimating how many bytes the binary encoding saves
+    private void sampleJsonSize(@NotNull List<Message> messages) {
+        for (int i = 0; i < messages.size(); i += JSON_SAMPLE_RATE) {
+            sampledJsonBytes.add(gson.toJson(messages.get(i)).getBytes(StandardCharsets.UTF_8).length);
+            sampledMessages.increment();
+        }
+    }
+
+    /**
+     * Get statistics about messages published by this broker since it was initialized
+     *
+     * @return the broker's publishing statistics
+     */
+    @NotNull
+    public Statistics getStatistics() {
+        final long messages = messagesPublished.sum();
+        final long sampled = sampledMessages.sum();
+        final long bytes = bytesPublished.sum();
+        final long estimatedJsonBytes = sampled == 0 ? bytes : sampledJsonBytes.sum() * messages / sampled;
+        final double seconds = Math.max(1, System.currentTimeMillis() - startTime) / 1000d;
+        return new Statistics(messages, batchesPublished.sum(), bytes, estimatedJsonBytes - bytes, seconds);
     }
 
     @Override
     public void close() {
         super.close();
+        running = false;
+        if (subscriber != null && subscriber.isSubscribed()) {
+            subscriber.unsubscribe();
+        }
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        plugin.getMetrics().removeGauge(OUTBOUND_QUEUE_GAUGE);
+        plugin.getMetrics().removeGauge(INBOUND_QUEUE_GAUGE);
+        if (publisher != null) {
+            publisher.interrupt();
+            try {
+                publisher.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (malformedEnvelopes.sum() > 0) {
+            plugin.log(Level.WARNING, "Skipped " + malformedEnvelopes.sum() + " malformed batch(es) of Redis messages");
+        }
+        if (messagesPublished.sum() > 0) {
+            final Statistics statistics = getStatistics();
+            plugin.log(Level.INFO, String.format("Published %d message(s) in %d batch(es) to Redis "
+                    + "(%.2f messages/s, ~%.0f bytes/s saved by batch encoding)", statistics.messages(),
+                statistics.batches(), statistics.messagesPerSecond(), statistics.bytesSavedPerSecond()));
+        }
         if (jedisPool != null) {
             jedisPool.close();
         }
     }
 
+    /**
+     * Statistics about messages published by a {@link RedisBroker}
+     *
+     * @param messages   the number of messages published
+     * @param batches    the number of batches the messages were published in
+     * @param bytes      the number of bytes published
+     * @param bytesSaved the estimated number of bytes saved compared to publishing each message as JSON
+     * @param seconds    the number of seconds the broker has been running for
+     */
+    public record Statistics(long messages, long batches, long bytes, long bytesSaved, double seconds) {
+
+        public double messagesPerSecond() {
+            return messages / seconds;
+        }
+
+        public double bytesSavedPerSecond() {
+            return bytesSaved / seconds;
+        }
+
+    }
+
 }
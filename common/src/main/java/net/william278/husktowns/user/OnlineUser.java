@@ -94,6 +94,13 @@ public abstract class OnlineUser extends User implements CommandUser, OperationU
 
     public abstract boolean isSneaking();
 
+    /**
+     * Get how far the user can see, in chunks
+     *
+     * @return the user's view distance
+     */
+    public abstract int getViewDistance();
+
     public abstract void spawnMarkerParticle(@NotNull Position position, @NotNull TextColor color, int count);
 
     public abstract void teleportTo(@NotNull Position position);
@@ -21,21 +21,15 @@ package net.william278.husktowns.util;
 
 import net.william278.husktowns.HuskTowns;
 import net.william278.husktowns.audit.Action;
-import net.william278.husktowns.town.Member;
 import net.william278.husktowns.town.Town;
 import net.william278.husktowns.user.OnlineUser;
-import net.william278.husktowns.user.SavedUser;
-import net.william278.husktowns.user.User;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Set;
-import java.util.UUID;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 
 import static net.william278.husktowns.config.Settings.TownSettings;
 
@@ -60,29 +54,16 @@ public interface DataPruner {
     }
 
     /**
-     * Delete towns that have been inactive for a given number of days
+     * Start pruning towns that have been inactive for a given number of days in the background
      * <p>
      * This method will use the "prune_after_days" setting to determine the number of days a town must have
      * been inactive for to be deleted.
      * <p>
-     * The "prune_on_startup" setting must be enabled for this to work.
+     * The "prune_on_startup" setting must be enabled to prune now, and the "prune_interval_hours" setting must be
+     * above zero to prune periodically afterward.
      */
     default void pruneInactiveTowns() {
-        final TownSettings.TownPruningSettings settings = getPlugin().getSettings().getTowns().getPruneInactiveTowns();
-        final int inactiveDays = settings.getPruneAfterDays();
-        if (!settings.isPruneOnStartup() || inactiveDays <= 0) {
-            return;
-        }
-        getPlugin().log(Level.INFO, "Pruning inactive towns...");
-        final LocalTime startTime = LocalTime.now();
-
-        final long pruned = this.pruneInactiveTowns(
-            inactiveDays,
-            getPlugin().getOnlineUsers().stream().findAny().orElse(null)
-        );
-
-        getPlugin().log(Level.INFO, "Successfully pruned " + pruned + " inactive towns in " +
-            (ChronoUnit.MILLIS.between(startTime, LocalTime.now()) / 1000d) + " seconds");
+        getPlugin().getTownPruner().schedule();
     }
 
     /**
@@ -98,16 +79,8 @@ public interface DataPruner {
             return 0L;
         }
 
-        // Get inactive users
-        final List<SavedUser> inactiveUsers = getPlugin().getDatabase().getInactiveUsers(daysInactive);
-        final Set<UUID> inactiveUuids = inactiveUsers.stream()
-            .map(SavedUser::user).map(User::getUuid)
-            .collect(Collectors.toUnmodifiableSet());
-
-        // Find towns matching the inactive users and prune
-        return inactiveUsers.stream()
-            .flatMap(user -> getPlugin().getUserTown(user.user()).stream().map(Member::town))
-            .filter(town -> inactiveUuids.containsAll(town.getMembers().keySet())).distinct()
+        // Find towns where every member is inactive and prune
+        return getPlugin().getTownPruner().findInactiveTowns(daysInactive).stream()
             .peek(town -> {
                 getPlugin().log(Level.INFO, "Pruning town " + town.getName() + "...");
                 getPlugin().getManager().towns().deleteTownData(actor, town);
@@ -0,0 +1,226 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.util;
+
+import com.google.common.collect.Maps;
+import net.william278.husktowns.user.User;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * The list of users online across the proxy network, indexed by UUID and kept sorted by username.
+ * <p>
+ * Each user is recorded against the server they are online on. The list is kept up to date by join and quit deltas,
+ * and reconciled periodically against each server's full list of online users. Servers that stop reporting, such as
+ * after a crash, have their users {@link #expireServers(String, long) expired}.
+ */
+public class GlobalUserList {
+
+    private static final Comparator<User> BY_NAME = Comparator.comparing(User::getUsername,
+        String.CASE_INSENSITIVE_ORDER).thenComparing(User::getUuid);
+    private static final UUID FIRST_UUID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final Map<UUID, OnlineEntry> users = Maps.newConcurrentMap();
+    private final NavigableSet<User> sortedUsers = new ConcurrentSkipListSet<>(BY_NAME);
+    private final Map<String, Long> lastReports = Maps.newConcurrentMap();
+
+    /**
+     * Record a user as being online on a server, replacing any existing record of them
+     *
+     * @param server the server the user is on
+     * @param user   the user
+     */
+    public synchronized void add(@NotNull String server, @NotNull User user) {
+        lastReports.put(server, System.currentTimeMillis());
+        final User stored = User.of(user.getUuid(), user.getUsername());
+        final OnlineEntry previous = users.put(stored.getUuid(), new OnlineEntry(server, stored));
+        if (previous != null) {
+            sortedUsers.remove(previous.user());
+        }
+        sortedUsers.add(stored);
+    }
+
+    /**
+     * Remove a user, if they are recorded as being online on the given server
+     *
+     * @param server the server the user left
+     * @param uuid   the user's UUID
+     */
+    public synchronized void remove(@NotNull String server, @NotNull UUID uuid) {
+        lastReports.put(server, System.currentTimeMillis());
+        final OnlineEntry entry = users.get(uuid);
+        if (entry != null && entry.server().equals(server)) {
+            users.remove(uuid);
+            sortedUsers.remove(entry.user());
+        }
+    }
+
+    /**
+     * Replace the users recorded as being online on a server with the given list
+     *
+     * @param server the server
+     * @param online the full list of users online on the server
+     */
+    public synchronized void setServerUsers(@NotNull String server, @NotNull Collection<? extends User> online) {
+        lastReports.put(server, System.currentTimeMillis());
+        final Set<UUID> onlineIds = new HashSet<>();
+        online.forEach(user -> onlineIds.add(user.getUuid()));
+        users.values().removeIf(entry -> {
+            if (entry.server().equals(server) && !onlineIds.contains(entry.user().getUuid())) {
+                sortedUsers.remove(entry.user());
+                return true;
+            }
+            return false;
+        });
+        online.forEach(user -> add(server, user));
+    }
+
+    /**
+     * Remove all users recorded as being online on servers other than the given one
+     *
+     * @param server the server to keep users for
+     */
+    public synchronized void clearOtherServers(@NotNull String server) {
+        lastReports.keySet().removeIf(reported -> !reported.equals(server));
+        users.values().removeIf(entry -> {
+            if (!entry.server().equals(server)) {
+                sortedUsers.remove(entry.user());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Remove the users recorded as being online on servers that haven't reported any changes or their full list of
+     * online users recently, such as servers that have crashed
+     *
+     * @param server       this server, whose users are never expired
+     * @param maxAgeMillis how long ago, in milliseconds, a server must have last reported to keep its users
+     */
+    public synchronized void expireServers(@NotNull String server, long maxAgeMillis) {
+        final long cutoff = System.currentTimeMillis() - maxAgeMillis;
+        final Set<String> expired = new HashSet<>();
+        lastReports.entrySet().removeIf(report -> {
+            if (!report.getKey().equals(server) && report.getValue() < cutoff) {
+                expired.add(report.getKey());
+                return true;
+            }
+            return false;
+        });
+        if (expired.isEmpty()) {
+            return;
+        }
+        users.values().removeIf(entry -> {
+            if (expired.contains(entry.server())) {
+                sortedUsers.remove(entry.user());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Returns whether a user is online on any server
+     *
+     * @param uuid the user's UUID
+     * @return {@code true} if the user is online
+     */
+    public boolean contains(@NotNull UUID uuid) {
+        return users.containsKey(uuid);
+    }
+
+    /**
+     * Get an online user by UUID
+     *
+     * @param uuid the user's UUID
+     * @return the user, if they are online
+     */
+    public Optional<User> getUser(@NotNull UUID uuid) {
+        return Optional.ofNullable(users.get(uuid)).map(OnlineEntry::user);
+    }
+
+    /**
+     * Get the server an online user is on
+     *
+     * @param uuid the user's UUID
+     * @return the name of the server, if the user is online
+     */
+    public Optional<String> getServer(@NotNull UUID uuid) {
+        return Optional.ofNullable(users.get(uuid)).map(OnlineEntry::server);
+    }
+
+    /**
+     * Get a live view of all online users, sorted by username
+     *
+     * @return all online users
+     */
+    @NotNull
+    public NavigableSet<User> getUsers() {
+        return Collections.unmodifiableNavigableSet(sortedUsers);
+    }
+
+    /**
+     * Get a snapshot of the users online on each server, sorted by username
+     *
+     * @return a map of server names to the users online on them
+     */
+    @NotNull
+    public Map<String, List<User>> getUsersByServer() {
+        final Map<String, List<User>> servers = new HashMap<>();
+        for (User user : sortedUsers) {
+            final OnlineEntry entry = users.get(user.getUuid());
+            if (entry != null) {
+                servers.computeIfAbsent(entry.server(), server -> new ArrayList<>()).add(user);
+            }
+        }
+        return servers;
+    }
+
+    /**
+     * Get the usernames of online users that start with a prefix, ignoring case, in alphabetical order
+     *
+     * @param prefix the prefix to match
+     * @param limit  the maximum number of usernames to return
+     * @return the matching usernames
+     */
+    @NotNull
+    public List<String> getUsernames(@NotNull String prefix, int limit) {
+        final String trimmed = prefix.trim();
+        final List<String> names = new ArrayList<>(Math.min(limit, 16));
+        for (User user : sortedUsers.tailSet(User.of(FIRST_UUID, trimmed), true)) {
+            if (names.size() >= limit || !user.getUsername().regionMatches(true, 0, trimmed, 0, trimmed.length())) {
+                break;
+            }
+            names.add(user.getUsername());
+        }
+        return names;
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    private record OnlineEntry(@NotNull String server, @NotNull User user) {
+    }
+
+}
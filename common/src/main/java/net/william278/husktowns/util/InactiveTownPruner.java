@@ -0,0 +1,219 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.util;
+
+import net.william278.husktowns.HuskTowns;
+import net.william278.husktowns.town.Town;
+import net.william278.husktowns.user.CommandUser;
+import net.william278.husktowns.user.OnlineUser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+import static net.william278.husktowns.config.Settings.TownSettings;
+
+/**
+ * Finds and deletes inactive towns in the background.
+ * <p>
+ * Candidates are found with a single query for the UUIDs of users who haven't logged in recently, checked against each
+ * town's members in one pass. The candidates are then deleted a few at a time each second; each is looked up again and
+ * checked against its current members first, skipping any town that has since been deleted or has an active member. Pruning can also be run as a dry run, which only reports the towns that would be deleted.
+ */
+public class InactiveTownPruner {
+
+    private static final long BATCH_INTERVAL_TICKS = 20L;
+    private static final long TICKS_PER_HOUR = 20L * 60L * 60L;
+
+    private final HuskTowns plugin;
+    private final Queue<Integer> pending = new ArrayDeque<>();
+    private Task.Repeating batchTask;
+    private Task.Repeating scheduleTask;
+    private long scheduledRuns;
+
+    // The run in progress; only touched while holding the lock
+    @Nullable
+    private CommandUser reporter;
+    private long daysInactive;
+    private long pruned;
+
+    public InactiveTownPruner(@NotNull HuskTowns plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Find the towns on which no member has logged in for a given number of days
+     *
+     * @param daysInactive the number of days a town must have had no members log in for
+     * @return the inactive towns
+     */
+    @NotNull
+    public List<Town> findInactiveTowns(long daysInactive) {
+        final Set<UUID> inactiveUsers = plugin.getDatabase().getInactiveUserUuids(daysInactive);
+        if (inactiveUsers.isEmpty()) {
+            return List.of();
+        }
+        return plugin.getTowns().stream()
+            .filter(town -> isInactive(town, inactiveUsers))
+            .sorted(Comparator.comparingInt(Town::getId))
+            .toList();
+    }
+
+    /**
+     * Start pruning inactive towns in the background
+     *
+     * @param daysInactive the number of days a town must have had no members log in for to be deleted
+     * @param dryRun       whether to only report which towns would be deleted
+     * @param reporter     the user to report to, or {@code null} to report to the console
+     * @return {@code false} if pruning is already in progress
+     */
+    public synchronized boolean prune(long daysInactive, boolean dryRun, @Nullable CommandUser reporter) {
+        if (batchTask != null) {
+            return false;
+        }
+        final List<Town> inactive = findInactiveTowns(daysInactive);
+        if (dryRun) {
+            report(reporter, "prune_inactive_towns_preview", Integer.toString(inactive.size()),
+                Long.toString(daysInactive), inactive.stream().map(Town::getName).collect(Collectors.joining(", ")));
+            return true;
+        }
+        if (inactive.isEmpty()) {
+            report(reporter, "prune_inactive_towns_success", "0", Long.toString(daysInactive));
+            return true;
+        }
+
+        inactive.forEach(town -> this.pending.add(town.getId()));
+        this.reporter = reporter;
+        this.daysInactive = daysInactive;
+        this.pruned = 0;
+        report(reporter, "prune_inactive_towns_started", Integer.toString(inactive.size()),
+            Long.toString(daysInactive));
+        batchTask = plugin.getRepeatingTask(this::pruneBatch, BATCH_INTERVAL_TICKS);
+        batchTask.run();
+        return true;
+    }
+
+    /**
+     * Prune inactive towns according to the pruning settings, now and then on the configured interval
+     */
+    public synchronized void schedule() {
+        final TownSettings.TownPruningSettings settings = plugin.getSettings().getTowns().getPruneInactiveTowns();
+        if (settings.getPruneAfterDays() <= 0) {
+            return;
+        }
+        if (settings.isPruneOnStartup()) {
+            pruneAutomatically();
+        }
+        if (settings.getPruneIntervalHours() > 0 && scheduleTask == null) {
+            scheduledRuns = 0;
+            scheduleTask = plugin.getRepeatingTask(() -> {
+                // The task first runs straight away, so skip that run
+                if (scheduledRuns++ > 0) {
+                    pruneAutomatically();
+                }
+            }, settings.getPruneIntervalHours() * TICKS_PER_HOUR);
+            scheduleTask.run();
+        }
+    }
+
+    /**
+     * Stop pruning, leaving any remaining inactive towns for the next run
+     */
+    public synchronized void cancel() {
+        if (scheduleTask != null) {
+            scheduleTask.cancel();
+            scheduleTask = null;
+        }
+        stop();
+    }
+
+    private void pruneAutomatically() {
+        final TownSettings.TownPruningSettings settings = plugin.getSettings().getTowns().getPruneInactiveTowns();
+        if (!prune(settings.getPruneAfterDays(), settings.isDryRun(), null)) {
+            plugin.log(Level.INFO, "Skipped pruning inactive towns, as pruning is already in progress");
+        }
+    }
+
+    // Delete the next few pending towns that are still inactive
+    private synchronized void pruneBatch() {
+        if (batchTask == null) {
+            return;
+        }
+
+        // An actor is needed to propagate deletions cross-server, so wait for someone to come online
+        final OnlineUser actor = reporter instanceof OnlineUser online && isOnline(online) ? online
+            : plugin.getOnlineUsers().stream().findAny().orElse(null);
+        if (actor == null && plugin.getSettings().getCrossServer().isEnabled()) {
+            return;
+        }
+
+        // Check each town's current members again, as they may have changed or logged in since the towns were found
+        final Set<UUID> inactiveUsers = pending.isEmpty() ? Set.of()
+            : plugin.getDatabase().getInactiveUserUuids(daysInactive);
+        final Set<UUID> onlineUsers = plugin.getOnlineUsers().stream()
+            .map(OnlineUser::getUuid)
+            .collect(Collectors.toSet());
+        int budget = Math.max(1, plugin.getSettings().getTowns().getPruneInactiveTowns().getPruneTownsPerSecond());
+        while (budget > 0 && !pending.isEmpty()) {
+            final Optional<Town> found = plugin.findTown(pending.poll());
+            if (found.isEmpty() || !isInactive(found.get(), inactiveUsers)
+                || found.get().getMembers().keySet().stream().anyMatch(onlineUsers::contains)) {
+                continue;
+            }
+            final Town town = found.get();
+            plugin.log(Level.INFO, "Pruning town " + town.getName() + "...");
+            plugin.getManager().towns().deleteTownData(actor, town);
+            pruned++;
+            budget--;
+        }
+        if (pending.isEmpty()) {
+            report(reporter, "prune_inactive_towns_success", Long.toString(pruned), Long.toString(daysInactive));
+            stop();
+        }
+    }
+
+    // Whether a town has members, none of whom are in the set of inactive users
+    private static boolean isInactive(@NotNull Town town, @NotNull Set<UUID> inactiveUsers) {
+        return !town.getMembers().isEmpty() && inactiveUsers.containsAll(town.getMembers().keySet());
+    }
+
+    private synchronized void stop() {
+        if (batchTask != null) {
+            batchTask.cancel();
+            batchTask = null;
+        }
+        pending.clear();
+        reporter = null;
+    }
+
+    private boolean isOnline(@NotNull OnlineUser user) {
+        return plugin.getOnlineUsers().stream().anyMatch(online -> online.getUuid().equals(user.getUuid()));
+    }
+
+    // Report to the user, or to the console if there is no user or they have gone offline
+    private void report(@Nullable CommandUser reporter, @NotNull String key, @NotNull String... args) {
+        final CommandUser recipient = reporter != null && (!(reporter instanceof OnlineUser online) || isOnline(online))
+            ? reporter : plugin.getConsole();
+        plugin.getLocales().getLocale(key, args).ifPresent(recipient::sendMessage);
+    }
+
+}
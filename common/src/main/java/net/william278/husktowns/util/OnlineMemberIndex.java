@@ -0,0 +1,195 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.util;
+
+import com.google.common.collect.Maps;
+import net.william278.husktowns.HuskTowns;
+import net.william278.husktowns.town.Town;
+import net.william278.husktowns.user.OnlineUser;
+import net.william278.husktowns.user.Preferences;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * The users online on this server, indexed by the town they are a member of, along with the online users spying on
+ * town chat.
+ * <p>
+ * The index is kept up to date as users join and quit, as towns are updated and removed, and as user preferences are
+ * set, so sending a message to a town's online members only visits those members. Updates are serialized, while reads
+ * don't lock.
+ */
+public class OnlineMemberIndex {
+
+    private final HuskTowns plugin;
+    private final Map<UUID, OnlineUser> users = Maps.newConcurrentMap();
+    private final Map<UUID, Integer> userTowns = Maps.newConcurrentMap();
+    private final Map<Integer, Map<UUID, OnlineUser>> townMembers = Maps.newConcurrentMap();
+    private final Map<UUID, OnlineUser> spies = Maps.newConcurrentMap();
+
+    public OnlineMemberIndex(@NotNull HuskTowns plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Get the online members of a town
+     *
+     * @param townId the ID of the town
+     * @return the town's members online on this server
+     */
+    @NotNull
+    public Collection<OnlineUser> getOnlineMembers(int townId) {
+        final Map<UUID, OnlineUser> members = townMembers.get(townId);
+        return members == null ? List.of() : Collections.unmodifiableCollection(members.values());
+    }
+
+    /**
+     * Get the online users spying on town chat
+     *
+     * @return the spying users online on this server
+     */
+    @NotNull
+    public Collection<OnlineUser> getSpies() {
+        return Collections.unmodifiableCollection(spies.values());
+    }
+
+    /**
+     * Index a user who has joined the server
+     *
+     * @param user the user
+     */
+    public synchronized void add(@NotNull OnlineUser user) {
+        users.put(user.getUuid(), user);
+        plugin.getTowns().stream()
+            .filter(town -> town.getMembers().containsKey(user.getUuid()))
+            .findFirst()
+            .ifPresentOrElse(town -> setTown(user, town.getId()), () -> clearTown(user.getUuid()));
+        plugin.getUserPreferences(user.getUuid()).ifPresent(preferences -> updatePreferences(user.getUuid(),
+            preferences));
+    }
+
+    /**
+     * Remove a user who has left the server
+     *
+     * @param uuid the UUID of the user
+     */
+    public synchronized void remove(@NotNull UUID uuid) {
+        users.remove(uuid);
+        spies.remove(uuid);
+        clearTown(uuid);
+    }
+
+    /**
+     * Re-index a town's online members, such as after members join or leave it
+     *
+     * @param town the town
+     */
+    public synchronized void updateTown(@NotNull Town town) {
+        final Map<UUID, OnlineUser> members = townMembers.computeIfAbsent(town.getId(), id -> Maps.newConcurrentMap());
+        members.keySet().removeIf(uuid -> {
+            if (town.getMembers().containsKey(uuid)) {
+                return false;
+            }
+            userTowns.remove(uuid, town.getId());
+            return true;
+        });
+
+        // Visit whichever is smaller: the town's members, or the users online
+        if (town.getMembers().size() < users.size()) {
+            town.getMembers().keySet().forEach(uuid -> {
+                final OnlineUser user = users.get(uuid);
+                if (user != null) {
+                    setTown(user, town.getId());
+                }
+            });
+        } else {
+            users.values().stream()
+                .filter(user -> town.getMembers().containsKey(user.getUuid()))
+                .forEach(user -> setTown(user, town.getId()));
+        }
+        if (members.isEmpty()) {
+            townMembers.remove(town.getId(), members);
+        }
+    }
+
+    /**
+     * Remove a town from the index, such as when it is deleted
+     *
+     * @param townId the ID of the town
+     */
+    public synchronized void removeTown(int townId) {
+        final Map<UUID, OnlineUser> members = townMembers.remove(townId);
+        if (members != null) {
+            members.keySet().forEach(uuid -> userTowns.remove(uuid, townId));
+        }
+    }
+
+    /**
+     * Update whether a user is indexed as spying on town chat
+     *
+     * @param uuid        the UUID of the user
+     * @param preferences the user's preferences
+     */
+    public synchronized void updatePreferences(@NotNull UUID uuid, @NotNull Preferences preferences) {
+        final OnlineUser user = users.get(uuid);
+        if (user != null && preferences.isTownChatSpying()) {
+            spies.put(uuid, user);
+        } else {
+            spies.remove(uuid);
+        }
+    }
+
+    /**
+     * Rebuild the index from the plugin's towns and the users online, such as after all towns are reloaded
+     */
+    public synchronized void rebuild() {
+        users.clear();
+        userTowns.clear();
+        townMembers.clear();
+        spies.clear();
+        plugin.getOnlineUsers().forEach(user -> users.put(user.getUuid(), user));
+        plugin.getTowns().forEach(this::updateTown);
+        users.keySet().forEach(uuid -> plugin.getUserPreferences(uuid)
+            .ifPresent(preferences -> updatePreferences(uuid, preferences)));
+    }
+
+    // Move a user into a town's members, out of any town they were indexed against before
+    private void setTown(@NotNull OnlineUser user, int townId) {
+        final Integer previous = userTowns.put(user.getUuid(), townId);
+        if (previous != null && previous != townId) {
+            final Map<UUID, OnlineUser> members = townMembers.get(previous);
+            if (members != null) {
+                members.remove(user.getUuid());
+            }
+        }
+        townMembers.computeIfAbsent(townId, id -> Maps.newConcurrentMap()).put(user.getUuid(), user);
+    }
+
+    private void clearTown(@NotNull UUID uuid) {
+        final Integer previous = userTowns.remove(uuid);
+        if (previous != null) {
+            final Map<UUID, OnlineUser> members = townMembers.get(previous);
+            if (members != null) {
+                members.remove(uuid);
+            }
+        }
+    }
+
+}
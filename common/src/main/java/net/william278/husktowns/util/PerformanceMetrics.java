@@ -0,0 +1,281 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.util;
+
+import com.google.common.collect.Maps;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counters, latency timers and gauges for the plugin's hot paths.
+ * <p>
+ * Timers and counters are striped, so recording to them from many threads at once doesn't contend. Latencies are
+ * recorded into a log-linear histogram, from which percentiles can be estimated to within an eighth of their value.
+ */
+public class PerformanceMetrics {
+
+    public static final String OPERATION_CHECKS = "operation_checks";
+    public static final String CLAIM_LOOKUPS = "claim_lookups";
+
+    // Histogram buckets are log-linear: each power of two is split into SUB_BUCKETS equal-width buckets, so a bucket's
+    // upper bound is never more than 1 / SUB_BUCKETS above its lower bound. Latencies of 2^MAX_EXPONENT nanoseconds
+    // (about 18 minutes) or more fall into the last bucket.
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long startedAt = System.nanoTime();
+    private final Map<String, Timer> timers = Maps.newConcurrentMap();
+    private final Map<String, LongAdder> counters = Maps.newConcurrentMap();
+    private final Map<String, LongSupplier> gauges = Maps.newConcurrentMap();
+
+    private final Timer operationChecks = timer(OPERATION_CHECKS);
+    private final Timer claimLookups = timer(CLAIM_LOOKUPS);
+
+    /**
+     * Get a timer by name, creating it if it doesn't exist
+     *
+     * @param name the name of the timer
+     * @return the timer
+     */
+    @NotNull
+    public Timer timer(@NotNull String name) {
+        final Timer timer = timers.get(name);
+        return timer != null ? timer : timers.computeIfAbsent(name, key -> new Timer());
+    }
+
+    /**
+     * Get the timer for protection operation checks
+     *
+     * @return the operation check timer
+     */
+    @NotNull
+    public Timer operationChecks() {
+        return operationChecks;
+    }
+
+    /**
+     * Get the timer for claim lookups
+     *
+     * @return the claim lookup timer
+     */
+    @NotNull
+    public Timer claimLookups() {
+        return claimLookups;
+    }
+
+    /**
+     * Increment a counter by name, creating it if it doesn't exist
+     *
+     * @param name the name of the counter
+     */
+    public void increment(@NotNull String name) {
+        add(name, 1);
+    }
+
+    /**
+     * Add to a counter by name, creating it if it doesn't exist
+     *
+     * @param name   the name of the counter
+     * @param amount the amount to add
+     */
+    public void add(@NotNull String name, long amount) {
+        final LongAdder counter = counters.get(name);
+        (counter != null ? counter : counters.computeIfAbsent(name, key -> new LongAdder())).add(amount);
+    }
+
+    /**
+     * Register a gauge, replacing any existing gauge with the same name
+     *
+     * @param name     the name of the gauge
+     * @param supplier supplies the current value of the gauge
+     */
+    public void gauge(@NotNull String name, @NotNull LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * Remove a gauge, such as when the component it measures is shut down
+     *
+     * @param name the name of the gauge
+     */
+    public void removeGauge(@NotNull String name) {
+        gauges.remove(name);
+    }
+
+    /**
+     * Take a snapshot of all metrics
+     *
+     * @return the snapshot, with timers, counters and gauges sorted by name
+     */
+    @NotNull
+    public Snapshot getSnapshot() {
+        final Map<String, TimerSnapshot> timerSnapshots = new TreeMap<>();
+        timers.forEach((name, timer) -> timerSnapshots.put(name, timer.snapshot()));
+        final Map<String, Long> counterValues = new TreeMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.sum()));
+        final Map<String, Long> gaugeValues = new TreeMap<>();
+        gauges.forEach((name, gauge) -> gaugeValues.put(name, gauge.getAsLong()));
+        return new Snapshot(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt),
+            Collections.unmodifiableMap(timerSnapshots), Collections.unmodifiableMap(counterValues),
+            Collections.unmodifiableMap(gaugeValues));
+    }
+
+    /**
+     * Records the count and latency distribution of a timed operation
+     */
+    public static final class Timer {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        private Timer() {
+            Arrays.setAll(buckets, i -> new LongAdder());
+        }
+
+        /**
+         * Start timing an operation
+         *
+         * @return the start time, to pass to {@link #stop(long)}
+         */
+        public long start() {
+            return System.nanoTime();
+        }
+
+        /**
+         * Stop timing an operation, recording its latency
+         *
+         * @param startNanos the start time returned by {@link #start()}
+         */
+        public void stop(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Record the latency of an operation
+         *
+         * @param nanos the latency, in nanoseconds
+         */
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            buckets[bucketOf(nanos)].increment();
+        }
+
+        @NotNull
+        private TimerSnapshot snapshot() {
+            final long[] counts = new long[buckets.length];
+            Arrays.setAll(counts, i -> buckets[i].sum());
+            return new TimerSnapshot(count.sum(), totalNanos.sum(), maxNanos.get(), counts);
+        }
+
+    }
+
+    // Latencies below SUB_BUCKETS nanoseconds get a bucket each; above that, each power of two gets SUB_BUCKETS buckets
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // The lowest latency that falls into a bucket
+    static long lowerBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * A point-in-time view of a {@link Timer}
+     *
+     * @param count      the number of operations recorded
+     * @param totalNanos the total latency of all recorded operations, in nanoseconds
+     * @param maxNanos   the highest latency recorded, in nanoseconds
+     * @param buckets    the number of operations recorded in each histogram bucket
+     */
+    public record TimerSnapshot(long count, long totalNanos, long maxNanos, long @NotNull [] buckets) {
+
+        public double meanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * Estimate a latency percentile, as the upper bound of the histogram bucket it falls into. The estimate is
+         * never more than an eighth above the true latency.
+         *
+         * @param percentile the percentile, between {@code 0} and {@code 1}
+         * @return the estimated latency, in nanoseconds; never more than the highest recorded latency
+         */
+        public long percentileNanos(double percentile) {
+            final long total = Arrays.stream(buckets).sum();
+            if (total == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(percentile * total));
+            long seen = 0;
+            for (int i = 0; i < buckets.length - 1; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(lowerBoundOf(i + 1) - 1, maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+    }
+
+    /**
+     * A point-in-time view of all metrics
+     *
+     * @param uptimeMillis the time since metrics started being recorded, in milliseconds
+     * @param timers       snapshots of each timer, by name
+     * @param counters     the value of each counter, by name
+     * @param gauges       the value of each gauge, by name
+     */
+    public record Snapshot(long uptimeMillis, @NotNull Map<String, TimerSnapshot> timers,
+                           @NotNull Map<String, Long> counters, @NotNull Map<String, Long> gauges) {
+
+        public double perSecond(long count) {
+            return uptimeMillis == 0 ? 0 : count * 1000d / uptimeMillis;
+        }
+
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.util;
+
+import com.google.common.collect.Maps;
+import net.william278.husktowns.HuskTowns;
+import net.william278.husktowns.town.Town;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+
+/**
+ * The names of the plugin's towns, kept sorted case-insensitively so the towns whose names start with a prefix can be
+ * found without visiting every town.
+ * <p>
+ * The index is kept up to date as towns are updated, renamed and removed. Updates are serialized, while reads don't
+ * lock.
+ */
+public class TownNameIndex {
+
+    private static final Comparator<Entry> BY_NAME = Comparator.comparing(Entry::name, String.CASE_INSENSITIVE_ORDER)
+        .thenComparingInt(Entry::id);
+
+    private final HuskTowns plugin;
+    private final Map<Integer, Entry> entries = Maps.newConcurrentMap();
+    private final NavigableSet<Entry> sortedEntries = new ConcurrentSkipListSet<>(BY_NAME);
+
+    public TownNameIndex(@NotNull HuskTowns plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Get the names of the towns whose names start with a prefix, ignoring case, in alphabetical order
+     *
+     * @param prefix the prefix to match
+     * @param limit  the maximum number of names to return
+     * @return the matching town names
+     */
+    @NotNull
+    public List<String> getNames(@NotNull String prefix, int limit) {
+        return getNames(prefix, limit, town -> true);
+    }
+
+    /**
+     * Get the names of the towns whose names start with a prefix, ignoring case, in alphabetical order
+     *
+     * @param prefix the prefix to match
+     * @param limit  the maximum number of names to return
+     * @param filter which of the matching towns to include
+     * @return the matching town names
+     */
+    @NotNull
+    public List<String> getNames(@NotNull String prefix, int limit, @NotNull Predicate<Town> filter) {
+        final String trimmed = prefix.trim();
+        final List<String> names = new ArrayList<>(Math.min(limit, 16));
+        for (Entry entry : sortedEntries.tailSet(new Entry(trimmed, Integer.MIN_VALUE, null), true)) {
+            if (names.size() >= limit || !entry.name().regionMatches(true, 0, trimmed, 0, trimmed.length())) {
+                break;
+            }
+            if (filter.test(entry.town())) {
+                names.add(entry.name());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Index a town that has been added or updated, such as after it is renamed
+     *
+     * @param town the town
+     */
+    public synchronized void updateTown(@NotNull Town town) {
+        final Entry entry = new Entry(town.getName(), town.getId(), town);
+        final Entry previous = entries.put(town.getId(), entry);
+        if (previous != null) {
+            sortedEntries.remove(previous);
+        }
+        sortedEntries.add(entry);
+    }
+
+    /**
+     * Remove a town from the index, such as when it is deleted
+     *
+     * @param townId the ID of the town
+     */
+    public synchronized void removeTown(int townId) {
+        final Entry previous = entries.remove(townId);
+        if (previous != null) {
+            sortedEntries.remove(previous);
+        }
+    }
+
+    /**
+     * Rebuild the index from the plugin's towns, such as after all towns are reloaded
+     */
+    public synchronized void rebuild() {
+        entries.clear();
+        sortedEntries.clear();
+        plugin.getTowns().forEach(this::updateTown);
+    }
+
+    // Entries are compared by name and ID only, so the town may be null when searching
+    private record Entry(@NotNull String name, int id, Town town) {
+    }
+
+}
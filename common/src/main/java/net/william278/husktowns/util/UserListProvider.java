@@ -24,30 +24,45 @@ import net.william278.husktowns.user.User;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
 
 public interface UserListProvider {
 
+    /**
+     * Get the users online across the network, indexed by UUID and sorted by username
+     *
+     * @return the network's online users
+     * @since 3.1
+     */
     @NotNull
-    Map<String, List<User>> getGlobalUserList();
+    GlobalUserList getNetworkUserList();
 
+    /**
+     * Get a snapshot of the users online on each server across the network
+     *
+     * @return a map of server names to the users online on them
+     * @deprecated Use {@link #getNetworkUserList()}, which is indexed and doesn't copy the list
+     */
+    @NotNull
+    @Deprecated(since = "3.1")
+    default Map<String, List<User>> getGlobalUserList() {
+        return getNetworkUserList().getUsersByServer();
+    }
+
+    /**
+     * Get a snapshot of the users online across the network, sorted by username
+     *
+     * @return the list of online users
+     */
     @NotNull
     default List<User> getUserList() {
-        return Stream.concat(
-            getGlobalUserList().values().stream().flatMap(Collection::stream),
-            getPlugin().getOnlineUsers().stream()
-        ).distinct().sorted().toList();
+        return new ArrayList<>(getNetworkUserList().getUsers());
     }
 
     default void setUserList(@NotNull String server, @NotNull List<User> players) {
-        getGlobalUserList().values().forEach(list -> {
-            list.removeAll(players);
-            list.removeAll(getPlugin().getOnlineUsers());
-        });
-        getGlobalUserList().put(server, players);
+        getNetworkUserList().setServerUsers(server, players);
     }
 
     @NotNull
@@ -24,7 +24,9 @@ import net.william278.husktowns.claim.Position;
 import net.william278.husktowns.claim.World;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class ParticleChunk {
 
@@ -33,10 +35,13 @@ public class ParticleChunk {
     private static final double PARTICLE_OFFSET = 0.025d;
     private static final double LINE_LENGTH = CHUNK_SIZE - PARTICLE_OFFSET;
 
+    private final Chunk chunk;
     private final Position[] positions = new Position[4];
 
     private ParticleChunk(@NotNull Chunk chunk, @NotNull World world) {
         super();
+        this.chunk = chunk;
+
         // North West
         positions[0] = Position.at((chunk.getX() * 16) + PARTICLE_OFFSET, 64,
             (chunk.getZ() * 16) + PARTICLE_OFFSET, world);
@@ -69,4 +74,29 @@ public class ParticleChunk {
         );
     }
 
+    /**
+     * Get the lines along the edges of this chunk that border a chunk outside the given set, so that the edges shared
+     * between chunks of the same claim group aren't drawn
+     *
+     * @param group the {@link Chunk#asLong() packed} chunks in the same group as this one
+     * @return the outer lines of this chunk
+     */
+    @NotNull
+    protected List<ParticleLine> getOuterLines(@NotNull Set<Long> group) {
+        final List<ParticleLine> lines = new ArrayList<>(4);
+        if (!group.contains(Chunk.asLong(chunk.getX() - 1, chunk.getZ()))) {
+            lines.add(ParticleLine.between(positions[0], positions[1]));
+        }
+        if (!group.contains(Chunk.asLong(chunk.getX(), chunk.getZ() + 1))) {
+            lines.add(ParticleLine.between(positions[1], positions[2]));
+        }
+        if (!group.contains(Chunk.asLong(chunk.getX() + 1, chunk.getZ()))) {
+            lines.add(ParticleLine.between(positions[2], positions[3]));
+        }
+        if (!group.contains(Chunk.asLong(chunk.getX(), chunk.getZ() - 1))) {
+            lines.add(ParticleLine.between(positions[3], positions[0]));
+        }
+        return lines;
+    }
+
 }
\ No newline at end of file
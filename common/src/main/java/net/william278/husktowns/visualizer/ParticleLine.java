@@ -19,12 +19,12 @@
 
 package net.william278.husktowns.visualizer;
 
-import net.william278.husktowns.HuskTowns;
 import net.william278.husktowns.claim.Position;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.ToDoubleFunction;
 
 public class ParticleLine {
 
@@ -42,16 +42,22 @@ public class ParticleLine {
         return new ParticleLine(start, end);
     }
 
+    /**
+     * Get the positions of particles spaced along this line, placed on the surface
+     *
+     * @param heights gets the surface height at a position
+     * @return the particle positions
+     */
     @NotNull
-    protected List<Position> getInterpolatedPositions(@NotNull HuskTowns plugin) {
+    protected List<Position> getInterpolatedPositions(@NotNull ToDoubleFunction<Position> heights) {
         final List<Position> positions = new ArrayList<>();
         final double distance = start.distanceBetween(end);
         final double step = PARTICLE_SPACING / distance;
         for (double t = 0; t < 1; t += step) {
             positions.add(start.interpolate(end, t));
         }
-        positions.add(end);
-        positions.forEach(position -> position.setY(plugin.getHighestBlockAt(position)));
+        positions.add(Position.at(end.getX(), end.getY(), end.getZ(), end.getWorld()));
+        positions.forEach(position -> position.setY(heights.applyAsDouble(position)));
         return positions;
     }
 
@@ -21,66 +21,164 @@ package net.william278.husktowns.visualizer;
 
 import net.kyori.adventure.text.format.TextColor;
 import net.william278.husktowns.HuskTowns;
+import net.william278.husktowns.claim.Position;
 import net.william278.husktowns.claim.TownClaim;
 import net.william278.husktowns.claim.World;
 import net.william278.husktowns.user.OnlineUser;
-import net.william278.husktowns.util.Task;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.*;
 
 /**
  * Visualizes a claim by outlining it with particles
+ * <p>
+ * The outline is computed once, when the visualizer is created: edges shared between adjacent claims of the same town
+ * are left out, and the surface height is looked up once per block column. Once shown, the outline is redrawn by the
+ * shared {@link VisualizerTicker}, which only sends the particles within range of the viewer.
  */
 public class Visualizer {
     private static final int PARTICLE_COUNT = 3;
     private static final long PARTICLE_FREQUENCY = 10L;
 
+    // Clients don't render particles further away than this, so there is no point sending them
+    private static final double MAX_PARTICLE_DISTANCE = 32d;
+
     private final HuskTowns plugin;
     private final OnlineUser user;
-    private final Map<TextColor, List<ParticleChunk>> chunks;
-    private Task.Repeating task = null;
-    private boolean done = false;
+    private final String worldName;
+    private final Position[] points;
+    private final TextColor[] colors;
+    private volatile long remainingTicks = -1;
+    private volatile boolean done = false;
+
+    // Drawing progress; only touched from the ticker
+    private int cursor = 0;
+    private long nextFrameTick = 0;
+    private Position viewer;
+    private double rangeSquared;
 
     public Visualizer(@NotNull OnlineUser user, @NotNull List<TownClaim> claims, @NotNull World world, @NotNull HuskTowns plugin) {
         this.user = user;
         this.plugin = plugin;
-        this.chunks = new ConcurrentHashMap<>();
+        this.worldName = world.getName();
+
+        final Map<TextColor, List<Position>> outlines = getOutlines(claims, world);
+        final int size = outlines.values().stream().mapToInt(List::size).sum();
+        this.points = new Position[size];
+        this.colors = new TextColor[size];
+        int i = 0;
+        for (Map.Entry<TextColor, List<Position>> outline : outlines.entrySet()) {
+            for (Position point : outline.getValue()) {
+                points[i] = point;
+                colors[i++] = outline.getKey();
+            }
+        }
+    }
+
+    // Compute the particle positions outlining each town's claims, grouped by the color to draw them in
+    @NotNull
+    private Map<TextColor, List<Position>> getOutlines(@NotNull List<TownClaim> claims, @NotNull World world) {
+        final Map<Integer, Set<Long>> townChunks = new HashMap<>();
+        for (TownClaim claim : claims) {
+            townChunks.computeIfAbsent(claim.town().getId(), k -> new HashSet<>())
+                .add(claim.claim().getChunk().asLong());
+        }
+
+        final Map<Long, Double> heights = new HashMap<>();
+        final Map<TextColor, List<Position>> outlines = new HashMap<>();
         for (TownClaim claim : claims) {
-            this.chunks.computeIfAbsent(claim.town().getDisplayColor(), k -> new ArrayList<>())
-                .add(ParticleChunk.of(claim.claim().getChunk(), world));
+            final List<Position> outline = outlines.computeIfAbsent(claim.town().getDisplayColor(),
+                k -> new ArrayList<>());
+            ParticleChunk.of(claim.claim().getChunk(), world)
+                .getOuterLines(townChunks.get(claim.town().getId()))
+                .forEach(line -> outline.addAll(line.getInterpolatedPositions(position -> heights.computeIfAbsent(
+                    getColumnKey(position), key -> plugin.getHighestBlockAt(position)))));
         }
+        return outlines;
+    }
+
+    // Pack the block column a position is in into a long, for caching surface heights
+    private static long getColumnKey(@NotNull Position position) {
+        return ((long) (int) Math.floor(position.getX()) << 32) | ((int) Math.floor(position.getZ()) & 0xFFFFFFFFL);
     }
 
+    /**
+     * Show the visualizer to its user
+     *
+     * @param duration how long to show the visualizer for, in ticks
+     */
     public void show(long duration) {
         if (done) {
             return;
         }
-        final AtomicLong currentTicks = new AtomicLong();
-        this.task = plugin.getRepeatingTask(() -> {
-            if (currentTicks.addAndGet(PARTICLE_FREQUENCY) > duration) {
-                cancel();
-                return;
-            }
-            this.chunks.forEach((color, chunks) -> chunks.forEach(chunk -> chunk.getLines().stream()
-                .map(line -> line.getInterpolatedPositions(plugin))
-                .forEach(line -> line.forEach(point -> user.spawnMarkerParticle(point, color, PARTICLE_COUNT)))));
-        }, PARTICLE_FREQUENCY);
-        this.task.run();
+        this.remainingTicks = duration;
+        plugin.getVisualizerTicker().start();
     }
 
     public void cancel() {
-        if (done) {
+        this.done = true;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    // Count down the time left to show the visualizer, cancelling it once it expires
+    void age() {
+        final long remaining = remainingTicks;
+        if (remaining < 0) {
             return;
         }
-        if (task != null) {
-            task.cancel();
+        if (remaining <= 1) {
+            cancel();
         }
-        this.done = true;
+        remainingTicks = remaining - 1;
+    }
+
+    /**
+     * Send the next particles of the outline to the user, starting a new frame every {@link #PARTICLE_FREQUENCY} ticks
+     *
+     * @param tick   the current ticker tick
+     * @param budget the maximum number of particles to send
+     * @return the number of particles sent
+     */
+    int draw(long tick, int budget) {
+        if (done || remainingTicks < 0) {
+            return 0;
+        }
+        if (cursor == 0) {
+            if (tick < nextFrameTick) {
+                return 0;
+            }
+            nextFrameTick = tick + PARTICLE_FREQUENCY;
+            viewer = user.getPosition();
+            if (!viewer.getWorld().getName().equals(worldName)) {
+                return 0;
+            }
+            final double range = Math.min(user.getViewDistance() * 16d, MAX_PARTICLE_DISTANCE);
+            rangeSquared = range * range;
+        }
+
+        int sent = 0;
+        while (cursor < points.length && sent < budget) {
+            final Position point = points[cursor];
+            if (isInRange(point)) {
+                user.spawnMarkerParticle(point, colors[cursor], PARTICLE_COUNT);
+                sent++;
+            }
+            cursor++;
+        }
+        if (cursor >= points.length) {
+            cursor = 0;
+        }
+        return sent;
+    }
+
+    private boolean isInRange(@NotNull Position point) {
+        final double x = point.getX() - viewer.getX();
+        final double y = point.getY() - viewer.getY();
+        final double z = point.getZ() - viewer.getZ();
+        return x * x + y * y + z * z <= rangeSquared;
     }
 
 }
@@ -0,0 +1,97 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.visualizer;
+
+import net.william278.husktowns.HuskTowns;
+import net.william278.husktowns.util.Task;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Draws all active {@link Visualizer}s from a single repeating task.
+ * <p>
+ * Each tick, visualizers take turns sending particles until the tick's particle budget is spent; a visualizer that
+ * doesn't finish drawing its outline carries on from where it left off on a later tick. The visualizer that goes first
+ * rotates every tick, so no viewer is starved. Cancelled and expired visualizers are removed from the plugin's
+ * {@link HuskTowns#getVisualizers() visualizers}, and the task stops once there are none left.
+ */
+public class VisualizerTicker {
+
+    private final HuskTowns plugin;
+    private Task.Repeating task;
+
+    // Only touched from the ticker task
+    private long tick = 0;
+    private int turn = 0;
+
+    public VisualizerTicker(@NotNull HuskTowns plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start the ticker, if it isn't already running
+     */
+    public synchronized void start() {
+        if (task == null) {
+            task = plugin.getRepeatingTask(this::tick, 1L);
+            task.run();
+        }
+    }
+
+    /**
+     * Stop the ticker
+     */
+    public synchronized void cancel() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    // Stop the ticker if there is nothing left to draw; checked under the lock so a visualizer shown meanwhile restarts it
+    private synchronized boolean stopIfIdle() {
+        if (plugin.getVisualizers().isEmpty()) {
+            cancel();
+            return true;
+        }
+        return false;
+    }
+
+    private void tick() {
+        tick++;
+        final List<Visualizer> active = new ArrayList<>(plugin.getVisualizers().values());
+        active.forEach(Visualizer::age);
+        active.removeIf(Visualizer::isDone);
+        plugin.getVisualizers().values().removeIf(Visualizer::isDone);
+        if (active.isEmpty()) {
+            stopIfIdle();
+            return;
+        }
+
+        int budget = Math.max(1, plugin.getSettings().getGeneral().getVisualizerParticlesPerTick());
+        final int first = Math.floorMod(turn++, active.size());
+        for (int i = 0; i < active.size() && budget > 0; i++) {
+            budget -= active.get((first + i) % active.size()).draw(tick, budget);
+        }
+    }
+
+}
@@ -19,6 +19,7 @@
 
 package net.william278.husktowns.war;
 
+import com.google.common.collect.Sets;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 import de.themoep.minedown.adventure.MineDown;
@@ -33,7 +34,6 @@ import net.william278.husktowns.network.Payload;
 import net.william278.husktowns.town.Spawn;
 import net.william278.husktowns.town.Town;
 import net.william278.husktowns.user.OnlineUser;
-import net.william278.husktowns.user.User;
 import org.jetbrains.annotations.NotNull;
 
 import java.math.BigDecimal;
@@ -77,10 +77,10 @@ public class War {
     private long warZoneRadius;
     @Expose
     @SerializedName("alive_attackers")
-    private List<UUID> aliveAttackers;
+    private Set<UUID> aliveAttackers;
     @Expose
     @SerializedName("alive_defenders")
-    private List<UUID> aliveDefenders;
+    private Set<UUID> aliveDefenders;
 
     @Expose(deserialize = false, serialize = false)
     private BossBar attackersBossBar;
@@ -161,9 +161,7 @@ public class War {
         // Calculate end-state flags
         boolean defendersDead = getOnlineDefenders(plugin, true).isEmpty();
         boolean attackersDead = getOnlineAttackers(plugin, true).isEmpty();
-        boolean hasTimedOut = startTime.plus(Duration.of(
-            WAR_TIMEOUT_HOURS, ChronoUnit.HOURS)
-        ).isBefore(OffsetDateTime.now());
+        boolean hasTimedOut = hasTimedOut();
 
         // Determine state conditions
         if ((defendersDead && attackersDead) || hasTimedOut) {
@@ -243,6 +241,15 @@ public class War {
         this.checkVictoryCondition(plugin);
     }
 
+    /**
+     * Returns whether the war has gone on for longer than the maximum length of a war
+     *
+     * @return {@code true} if the war has timed out
+     */
+    public boolean hasTimedOut() {
+        return startTime.plus(Duration.of(WAR_TIMEOUT_HOURS, ChronoUnit.HOURS)).isBefore(OffsetDateTime.now());
+    }
+
     public boolean isPlayerActive(@NotNull UUID player) {
         return this.aliveAttackers.contains(player) || this.aliveDefenders.contains(player);
     }
@@ -355,9 +362,12 @@ public class War {
     }
 
     @NotNull
-    private List<UUID> getOnlineMembersOf(@NotNull HuskTowns plugin, @NotNull Town town) {
-        final Set<UUID> onlineUsers = plugin.getUserList().stream().map(User::getUuid).collect(Collectors.toSet());
-        return new ArrayList<>(town.getMembers().keySet().stream().filter(onlineUsers::contains).toList());
+    private Set<UUID> getOnlineMembersOf(@NotNull HuskTowns plugin, @NotNull Town town) {
+        final Set<UUID> online = Sets.newConcurrentHashSet();
+        town.getMembers().keySet().stream()
+            .filter(uuid -> plugin.getNetworkUserList().contains(uuid))
+            .forEach(online::add);
+        return online;
     }
 
     public int getAttacking() {
@@ -399,12 +409,12 @@ public class War {
 
     @NotNull
     public List<UUID> getAliveAttackers() {
-        return aliveAttackers;
+        return List.copyOf(aliveAttackers);
     }
 
     @NotNull
     public List<UUID> getAliveDefenders() {
-        return aliveDefenders;
+        return List.copyOf(aliveDefenders);
     }
 
     @Override
@@ -46,4 +46,17 @@ CREATE TABLE IF NOT EXISTS `%claim_data%`
     `claims`            longblob     NOT NULL
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8mb4
-  COLLATE = utf8mb4_unicode_ci;
\ No newline at end of file
+  COLLATE = utf8mb4_unicode_ci;
+
+-- Create the town claim index table if it does not exist
+CREATE TABLE IF NOT EXISTS `%claim_index%`
+(
+    `town_id`     int          NOT NULL,
+    `world_id`    int          NOT NULL,
+    `server_name` varchar(255) NOT NULL,
+    `claim_count` int          NOT NULL DEFAULT 0,
+    PRIMARY KEY (`town_id`, `world_id`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci;
+CREATE INDEX IF NOT EXISTS `%claim_index%_world_id` ON `%claim_index%` (`world_id`);
\ No newline at end of file
@@ -0,0 +1,11 @@
+-- Create the town claim index table if it does not exist
+CREATE TABLE IF NOT EXISTS `%claim_index%`
+(
+    `town_id`     integer      NOT NULL,
+    `world_id`    integer      NOT NULL,
+    `server_name` varchar(255) NOT NULL,
+    `claim_count` integer      NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (`town_id`, `world_id`)
+);
+CREATE INDEX IF NOT EXISTS `%claim_index%_world_id` ON `%claim_index%` (`world_id`);
\ No newline at end of file
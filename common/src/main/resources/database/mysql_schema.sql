@@ -39,5 +39,17 @@ CREATE TABLE IF NOT EXISTS `%claim_data%`
     `world_name`        varchar(128) NOT NULL,
     `world_environment` varchar(32)  NOT NULL,
     `claims`            longblob     NOT NULL
+) CHARACTER SET utf8
+  COLLATE utf8_unicode_ci;
+
+# Create the town claim index table if it does not exist
+CREATE TABLE IF NOT EXISTS `%claim_index%`
+(
+    `town_id`     int          NOT NULL,
+    `world_id`    int          NOT NULL,
+    `server_name` varchar(255) NOT NULL,
+    `claim_count` int          NOT NULL DEFAULT 0,
+    PRIMARY KEY (`town_id`, `world_id`),
+    INDEX `%claim_index%_world_id` (`world_id`)
 ) CHARACTER SET utf8
   COLLATE utf8_unicode_ci;
\ No newline at end of file
@@ -0,0 +1,102 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.config;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Locale Template Tests")
+public class LocaleTemplateTests {
+
+    @Test
+    @DisplayName("Test Filling In Slots")
+    public void testApply() {
+        final LocaleTemplate template = LocaleTemplate.compile("%1% invited %2% to %1%'s town");
+        assertTrue(template.hasSlots());
+        assertEquals("Will invited Steve to Will's town", template.apply("Will", "Steve"));
+        assertEquals("Steve then Will", LocaleTemplate.compile("%2% then %1%").apply("Will", "Steve"));
+    }
+
+    @Test
+    @DisplayName("Test Filling In Adjacent Slots")
+    public void testAdjacentSlots() {
+        final LocaleTemplate template = LocaleTemplate.compile("%1%%2%");
+        assertEquals("WillSteve", template.apply("Will", "Steve"));
+        assertEquals("[%1%%2%]", LocaleTemplate.compile("[%1%%2%]").apply());
+    }
+
+    @Test
+    @DisplayName("Test Literal Percent Signs Are Kept")
+    public void testLiteralPercent() {
+        final LocaleTemplate percent = LocaleTemplate.compile("Taxes are 100%");
+        assertFalse(percent.hasSlots());
+        assertEquals("Taxes are 100%", percent.apply("unused"));
+
+        assertEquals("Job is 50% done", LocaleTemplate.compile("Job is %1%% done").apply("50"));
+        assertEquals("50% of Will", LocaleTemplate.compile("50% of %1%").apply("Will"));
+        assertEquals("Will %% %x% %0%", LocaleTemplate.compile("%1% %% %x% %0%").apply("Will"));
+        assertEquals("%99999999999%", LocaleTemplate.compile("%99999999999%").apply("Will"));
+    }
+
+    @Test
+    @DisplayName("Test Missing Replacements Are Left As Slots")
+    public void testMissingReplacements() {
+        final LocaleTemplate template = LocaleTemplate.compile("%1% invited %2% (%3%)");
+        assertEquals("Will invited %2% (%3%)", template.apply("Will"));
+        assertEquals("%1% invited %2% (%3%)", template.apply());
+    }
+
+    @Test
+    @DisplayName("Test Replacements Are Not Escaped When Applied")
+    public void testApplyDoesNotEscape() {
+        assertEquals("Town [name](#ff0000)", LocaleTemplate.compile("Town %1%").apply("[name](#ff0000)"));
+    }
+
+    @Test
+    @DisplayName("Test Replacements Are Escaped In Components")
+    public void testToComponentEscaping() {
+        final LocaleTemplate template = LocaleTemplate.compile("[Welcome to](#00fb9a) %1%");
+        final String replacement = "[Town](run_command=/op Will) &cred \\ (x)";
+        final Component component = template.toComponent(replacement);
+
+        assertEquals("Welcome to " + replacement, PlainTextComponentSerializer.plainText().serialize(component));
+        assertFalse(hasClickEvent(component), "Replacement was parsed as formatting");
+    }
+
+    @Test
+    @DisplayName("Test Templates Without Slots Reuse Their Component")
+    public void testToComponentCaching() {
+        final LocaleTemplate template = LocaleTemplate.compile("[Taxes are 100%](#00fb9a)");
+        final Component component = template.toComponent();
+        assertEquals("Taxes are 100%", PlainTextComponentSerializer.plainText().serialize(component));
+        assertSame(component, template.toComponent());
+    }
+
+    private static boolean hasClickEvent(@NotNull Component component) {
+        return component.clickEvent() != null
+            || component.children().stream().anyMatch(LocaleTemplateTests::hasClickEvent);
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.hook.map;
+
+import net.william278.husktowns.claim.Chunk;
+import net.william278.husktowns.hook.map.ClaimRegion.Point;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Claim Region Tests")
+public class ClaimRegionTests {
+
+    private static final int CHUNK_AREA = 16 * 16;
+
+    @Test
+    @DisplayName("Test Tracing A Ring")
+    public void testRing() {
+        final ClaimRegion region = traceOne(
+            "###",
+            "#.#",
+            "###"
+        );
+        assertEquals(8, region.chunks());
+        assertEquals(new Point(0, 0), region.anchor());
+        assertRing(points(0, 0, 48, 0, 48, 48, 0, 48), region.outline());
+        assertEquals(1, region.holes().size());
+        assertRing(points(16, 16, 16, 32, 32, 32, 32, 16), region.holes().get(0));
+
+        assertRing(points(0, 0, 48, 0, 48, 48, 0, 48, 0, 24, 16, 24, 16, 32, 32, 32, 32, 16, 16, 16, 16, 24, 0, 24),
+            region.getBridgedOutline());
+        assertArea(region);
+    }
+
+    @Test
+    @DisplayName("Test Tracing Two Holes")
+    public void testTwoHoles() {
+        final ClaimRegion region = traceOne(
+            "#####",
+            "#.#.#",
+            "#####"
+        );
+        assertEquals(13, region.chunks());
+        assertRing(points(0, 0, 80, 0, 80, 48, 0, 48), region.outline());
+
+        final List<List<Point>> holes = new ArrayList<>(region.holes());
+        holes.sort(Comparator.comparingInt(hole -> hole.stream().mapToInt(Point::x).min().orElse(0)));
+        assertEquals(2, holes.size());
+        assertRing(points(16, 16, 16, 32, 32, 32, 32, 16), holes.get(0));
+        assertRing(points(48, 16, 48, 32, 64, 32, 64, 16), holes.get(1));
+
+        final List<Point> bridged = region.getBridgedOutline();
+        holes.forEach(hole -> assertTrue(bridged.containsAll(hole), "Bridged outline is missing a hole"));
+        assertArea(region);
+    }
+
+    @Test
+    @DisplayName("Test Hole Touching The Outline At A Corner")
+    public void testHoleTouchingOutline() {
+        final ClaimRegion region = traceOne(
+            ".##",
+            "#.#",
+            "###"
+        );
+        assertEquals(7, region.chunks());
+        assertTrue(region.holes().isEmpty(), "A hole touching the outline should be merged into it");
+
+        // The outline touches itself at the shared corner, passing through it twice
+        assertRing(points(0, 16, 16, 16, 16, 32, 32, 32, 32, 16, 16, 16, 16, 0, 48, 0, 48, 48, 0, 48),
+            region.outline());
+        assertEquals(region.outline(), region.getBridgedOutline());
+        assertArea(region);
+    }
+
+    @Test
+    @DisplayName("Test Island Inside A Hole")
+    public void testIslandInHole() {
+        final List<ClaimRegion> regions = trace(
+            "#####",
+            "#...#",
+            "#.#.#",
+            "#...#",
+            "#####"
+        );
+        assertEquals(2, regions.size());
+        regions.sort(Comparator.comparingInt(ClaimRegion::chunks));
+
+        final ClaimRegion island = regions.get(0);
+        assertEquals(1, island.chunks());
+        assertRing(points(32, 32, 48, 32, 48, 48, 32, 48), island.outline());
+        assertTrue(island.holes().isEmpty());
+
+        final ClaimRegion surrounding = regions.get(1);
+        assertEquals(16, surrounding.chunks());
+        assertRing(points(0, 0, 80, 0, 80, 80, 0, 80), surrounding.outline());
+        assertEquals(1, surrounding.holes().size());
+        assertRing(points(16, 16, 16, 64, 64, 64, 64, 16), surrounding.holes().get(0));
+        assertArea(island);
+        assertArea(surrounding);
+    }
+
+    @Test
+    @DisplayName("Test Diagonal Chunks Are Separate Regions")
+    public void testDiagonalChunks() {
+        final List<ClaimRegion> regions = trace(
+            "#.",
+            ".#"
+        );
+        assertEquals(2, regions.size());
+        regions.forEach(region -> assertEquals(4, region.outline().size()));
+    }
+
+    // Trace the chunks marked with a '#', where each string is a row of chunks running west to east
+    @NotNull
+    private static List<ClaimRegion> trace(@NotNull String... rows) {
+        final Set<Long> chunks = new HashSet<>();
+        for (int z = 0; z < rows.length; z++) {
+            for (int x = 0; x < rows[z].length(); x++) {
+                if (rows[z].charAt(x) == '#') {
+                    chunks.add(Chunk.asLong(x, z));
+                }
+            }
+        }
+        return new ArrayList<>(ClaimRegion.trace(chunks));
+    }
+
+    @NotNull
+    private static ClaimRegion traceOne(@NotNull String... rows) {
+        final List<ClaimRegion> regions = trace(rows);
+        assertEquals(1, regions.size());
+        return regions.get(0);
+    }
+
+    @NotNull
+    private static List<Point> points(int... coordinates) {
+        final List<Point> points = new ArrayList<>();
+        for (int i = 0; i < coordinates.length; i += 2) {
+            points.add(new Point(coordinates[i], coordinates[i + 1]));
+        }
+        return points;
+    }
+
+    // Rings may start at any corner, so compare them from their most north-westerly corner
+    private static void assertRing(@NotNull List<Point> expected, @NotNull List<Point> actual) {
+        assertEquals(rotate(expected), rotate(actual));
+    }
+
+    @NotNull
+    private static List<Point> rotate(@NotNull List<Point> ring) {
+        final Point first = ring.stream()
+            .min(Comparator.comparingInt(Point::x).thenComparingInt(Point::z))
+            .orElseThrow();
+        final List<Point> rotated = new ArrayList<>(ring);
+        Collections.rotate(rotated, -ring.indexOf(first));
+        return rotated;
+    }
+
+    // The outline less its holes, and the bridged outline, must both cover exactly the region's chunks
+    private static void assertArea(@NotNull ClaimRegion region) {
+        final long holesArea = region.holes().stream().mapToLong(ClaimRegionTests::getDoubleArea).sum();
+        assertEquals(region.chunks() * CHUNK_AREA * 2L, getDoubleArea(region.outline()) + holesArea);
+        assertEquals(region.chunks() * CHUNK_AREA * 2L, getDoubleArea(region.getBridgedOutline()));
+    }
+
+    private static long getDoubleArea(@NotNull List<Point> ring) {
+        long area = 0;
+        for (int i = 0; i < ring.size(); i++) {
+            final Point a = ring.get(i);
+            final Point b = ring.get((i + 1) % ring.size());
+            area += (long) a.x() * b.z() - (long) b.x() * a.z();
+        }
+        return area;
+    }
+
+}
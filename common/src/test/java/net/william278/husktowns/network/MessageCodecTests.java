@@ -0,0 +1,165 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.network;
+
+import com.google.gson.Gson;
+import net.william278.husktowns.town.Invite;
+import net.william278.husktowns.user.User;
+import net.william278.husktowns.util.GsonProvider;
+import net.william278.husktowns.war.Declaration;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Message Codec Tests")
+public class MessageCodecTests {
+
+    private static final Gson GSON = new GsonProvider() {
+    }.getGson();
+    private static final User SENDER = User.of(UUID.randomUUID(), "William278");
+
+    @ParameterizedTest(name = "Compression threshold {0}")
+    @DisplayName("Test Round Trip Of All Payload Kinds")
+    @ValueSource(ints = {-1, 0})
+    public void testRoundTrip(int compressionThreshold) throws IOException {
+        final MessageCodec codec = new MessageCodec(GSON, compressionThreshold);
+        final List<Message> messages = createMessages();
+        final byte[] envelope = codec.encode(messages);
+        assertEquals(compressionThreshold >= 0 ? 1 : 0, envelope[1], "Compression flag not set as expected");
+
+        final List<Message> decoded = codec.decode(envelope);
+        assertEquals(messages.size(), decoded.size());
+        for (int i = 0; i < messages.size(); i++) {
+            assertMessageEquals(messages.get(i), decoded.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Test Compressed Envelope Is Smaller")
+    public void testCompression() throws IOException {
+        final List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            messages.add(message(Message.Type.TOWN_UPDATE, Payload.integer(i)));
+        }
+        final byte[] plain = new MessageCodec(GSON, -1).encode(messages);
+        final byte[] compressed = new MessageCodec(GSON, 0).encode(messages);
+        assertTrue(compressed.length < plain.length, "Compressed envelope is not smaller");
+        assertEquals(messages.size(), new MessageCodec(GSON, -1).decode(compressed).size());
+    }
+
+    @Test
+    @DisplayName("Test Legacy JSON Message Is Decoded")
+    public void testDecodeLegacy() throws IOException {
+        final Message message = message(Message.Type.TOWN_DELETE, Payload.integer(7));
+        final byte[] json = GSON.toJson(message).getBytes(StandardCharsets.UTF_8);
+
+        final List<Message> decoded = new MessageCodec(GSON, -1).decode(json);
+        assertEquals(1, decoded.size());
+        assertMessageEquals(message, decoded.get(0));
+    }
+
+    @Test
+    @DisplayName("Test Malformed Envelopes Are Rejected")
+    public void testRejectMalformed() throws IOException {
+        final MessageCodec codec = new MessageCodec(GSON, -1);
+        final byte[] envelope = codec.encode(List.of(message(Message.Type.TOWN_UPDATE, Payload.integer(1))));
+
+        // Unsupported version
+        final byte[] badVersion = envelope.clone();
+        badVersion[0] = 2;
+        assertThrows(IOException.class, () -> codec.decode(badVersion));
+
+        // Too short, truncated and corrupt envelopes
+        assertThrows(IOException.class, () -> codec.decode(new byte[]{1}));
+        assertThrows(IOException.class, () -> codec.decode(Arrays.copyOf(envelope, envelope.length - 3)));
+        assertThrows(IOException.class, () -> codec.decode(new byte[]{1, 0, -1, -1, -1, -1}));
+        assertThrows(IOException.class, () -> codec.decode("{\"type\":".getBytes(StandardCharsets.UTF_8)));
+
+        // Out of range target type
+        final int targetTypeIndex = 2 + 4 + 2 + Message.Type.TOWN_UPDATE.name().length();
+        final byte[] badTargetType = envelope.clone();
+        badTargetType[targetTypeIndex] = (byte) 0xFF;
+        assertThrows(IOException.class, () -> codec.decode(badTargetType));
+    }
+
+    @NotNull
+    private static List<Message> createMessages() {
+        final Declaration declaration = new Declaration(1, 2, BigDecimal.valueOf(250.5), SENDER,
+            OffsetDateTime.now().plusMinutes(10));
+        return List.of(
+            message(Message.Type.TOWN_UPDATE, Payload.empty()),
+            message(Message.Type.TOWN_DELETE, Payload.integer(42)),
+            message(Message.Type.TOWN_EVICTED, Payload.uuid(UUID.randomUUID())),
+            message(Message.Type.TOWN_INVITE_REQUEST, Payload.invite(Invite.create(3, SENDER))),
+            message(Message.Type.TOWN_WAR_DECLARATION_SENT, Payload.declaration(declaration)),
+            message(Message.Type.TOWN_INVITE_REPLY, Payload.bool(true)),
+            message(Message.Type.TOWN_RENAMED, Payload.string("Ünïcode & \"quoted\" town")),
+            message(Message.Type.USER_LIST_REMOVE, Payload.userList(List.of(SENDER,
+                User.of(UUID.randomUUID(), "Steve"))))
+        );
+    }
+
+    @NotNull
+    private static Message message(@NotNull Message.Type type, @NotNull Payload payload) {
+        return new Message(type, Message.TARGET_ALL, Message.TargetType.SERVER, payload, "William278", "server");
+    }
+
+    private static void assertMessageEquals(@NotNull Message expected, @NotNull Message actual) {
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getTarget(), actual.getTarget());
+        assertEquals(expected.getTargetType(), actual.getTargetType());
+        assertEquals(expected.getSender(), actual.getSender());
+        assertEquals(expected.getSourceServer(), actual.getSourceServer());
+
+        final Payload expectedPayload = expected.getPayload();
+        final Payload actualPayload = actual.getPayload();
+        assertEquals(expectedPayload.getUuid(), actualPayload.getUuid());
+        assertEquals(expectedPayload.getInteger(), actualPayload.getInteger());
+        assertEquals(expectedPayload.getBool(), actualPayload.getBool());
+        assertEquals(expectedPayload.getString(), actualPayload.getString());
+        assertEquals(expectedPayload.getInvite().map(Invite::getTownId),
+            actualPayload.getInvite().map(Invite::getTownId));
+        assertEquals(expectedPayload.getInvite().map(Invite::getSender),
+            actualPayload.getInvite().map(Invite::getSender));
+        assertEquals(expectedPayload.getDeclaration().map(Declaration::attackingTown),
+            actualPayload.getDeclaration().map(Declaration::attackingTown));
+        assertEquals(expectedPayload.getDeclaration().map(Declaration::defendingTown),
+            actualPayload.getDeclaration().map(Declaration::defendingTown));
+        assertEquals(expectedPayload.getDeclaration().map(Declaration::wager),
+            actualPayload.getDeclaration().map(Declaration::wager));
+        assertEquals(expectedPayload.getUserList(), actualPayload.getUserList());
+        assertEquals(expectedPayload.getUserList().map(users -> users.stream().map(User::getUsername).toList()),
+            actualPayload.getUserList().map(users -> users.stream().map(User::getUsername).toList()));
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.util;
+
+import net.william278.husktowns.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Global User List Tests")
+public class GlobalUserListTests {
+
+    private static final String SERVER = "alpha";
+    private static final String OTHER_SERVER = "beta";
+
+    private GlobalUserList userList;
+    private UUID steve;
+    private UUID stephen;
+
+    @BeforeEach
+    public void setUp() {
+        userList = new GlobalUserList();
+        steve = UUID.randomUUID();
+        stephen = UUID.randomUUID();
+        userList.add(SERVER, User.of(steve, "Steve"));
+        userList.add(SERVER, User.of(stephen, "STEPHEN"));
+        userList.add(OTHER_SERVER, User.of(UUID.randomUUID(), "stevie"));
+        userList.add(OTHER_SERVER, User.of(UUID.randomUUID(), "Alex"));
+        userList.add(SERVER, User.of(UUID.randomUUID(), "Notch"));
+    }
+
+    @Test
+    @DisplayName("Test Prefix Matching Ignores Case")
+    public void testMixedCase() {
+        final List<String> expected = List.of("STEPHEN", "Steve", "stevie");
+        assertEquals(expected, userList.getUsernames("ste", 10));
+        assertEquals(expected, userList.getUsernames("STE", 10));
+        assertEquals(List.of("Steve", "stevie"), userList.getUsernames("stev", 10));
+        assertTrue(userList.getUsernames("steven", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Empty Prefix Matches All Users")
+    public void testEmptyPrefix() {
+        assertEquals(List.of("Alex", "Notch", "STEPHEN", "Steve", "stevie"), userList.getUsernames("", 10));
+    }
+
+    @Test
+    @DisplayName("Test Limit Cuts Off Matches")
+    public void testLimit() {
+        assertEquals(List.of("STEPHEN", "Steve"), userList.getUsernames("ste", 2));
+        assertEquals(List.of("Alex"), userList.getUsernames("", 1));
+        assertTrue(userList.getUsernames("", 0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Users Are Re-Indexed After A Rename")
+    public void testRename() {
+        userList.add(OTHER_SERVER, User.of(steve, "Herobrine"));
+        assertEquals(List.of("STEPHEN", "stevie"), userList.getUsernames("ste", 10));
+        assertEquals(List.of("Herobrine"), userList.getUsernames("hero", 10));
+        assertEquals(5, userList.size());
+
+        // Users may share a username, differing only by case
+        userList.add(SERVER, User.of(UUID.randomUUID(), "stephen"));
+        assertEquals(2, userList.getUsernames("stephen", 10).size());
+    }
+
+    @Test
+    @DisplayName("Test Removed Users Are Not Matched")
+    public void testRemove() {
+        // Users are only removed by the server they are online on
+        userList.remove(OTHER_SERVER, stephen);
+        assertEquals(List.of("STEPHEN", "Steve", "stevie"), userList.getUsernames("ste", 10));
+
+        userList.remove(SERVER, stephen);
+        assertEquals(List.of("Steve", "stevie"), userList.getUsernames("ste", 10));
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of HuskTowns, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.husktowns.util;
+
+import net.william278.husktowns.town.Town;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Town Name Index Tests")
+public class TownNameIndexTests {
+
+    private TownNameIndex index;
+    private Town oakvale;
+
+    @BeforeEach
+    public void setUp() {
+        // The plugin is only used to rebuild the index from scratch, which these tests don't do
+        index = new TownNameIndex(null);
+        oakvale = town(1, "Oakvale");
+        index.updateTown(oakvale);
+        index.updateTown(town(2, "oakridge"));
+        index.updateTown(town(3, "OAKWOOD"));
+        index.updateTown(town(4, "Ashford"));
+        index.updateTown(town(5, "Birchwood"));
+    }
+
+    @Test
+    @DisplayName("Test Prefix Matching Ignores Case")
+    public void testMixedCase() {
+        final List<String> expected = List.of("oakridge", "Oakvale", "OAKWOOD");
+        assertEquals(expected, index.getNames("oak", 10));
+        assertEquals(expected, index.getNames("OaK", 10));
+        assertEquals(expected, index.getNames(" oak ", 10));
+        assertEquals(List.of("Oakvale"), index.getNames("oakv", 10));
+        assertTrue(index.getNames("oaks", 10).isEmpty());
+        assertTrue(index.getNames("zed", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Empty Prefix Matches All Towns")
+    public void testEmptyPrefix() {
+        assertEquals(List.of("Ashford", "Birchwood", "oakridge", "Oakvale", "OAKWOOD"), index.getNames("", 10));
+    }
+
+    @Test
+    @DisplayName("Test Limit Cuts Off Matches")
+    public void testLimit() {
+        assertEquals(List.of("oakridge", "Oakvale"), index.getNames("oak", 2));
+        assertEquals(List.of("Ashford"), index.getNames("", 1));
+        assertTrue(index.getNames("", 0).isEmpty());
+
+        // The limit applies to the towns left after filtering
+        assertEquals(List.of("Oakvale", "OAKWOOD"), index.getNames("oak", 2, town -> town.getId() != 2));
+    }
+
+    @Test
+    @DisplayName("Test Towns Are Re-Indexed After A Rename")
+    public void testRename() {
+        oakvale.setName("Elmstead");
+        index.updateTown(oakvale);
+        assertEquals(List.of("oakridge", "OAKWOOD"), index.getNames("oak", 10));
+        assertEquals(List.of("Elmstead"), index.getNames("elm", 10));
+        assertEquals(5, index.getNames("", 10).size());
+
+        // Towns may share a name, differing only by case
+        index.updateTown(town(6, "Oakridge"));
+        assertEquals(List.of("oakridge", "Oakridge", "OAKWOOD"), index.getNames("oak", 10));
+    }
+
+    @Test
+    @DisplayName("Test Removed Towns Are Not Matched")
+    public void testRemove() {
+        index.removeTown(3);
+        index.removeTown(99);
+        assertEquals(List.of("oakridge", "Oakvale"), index.getNames("oak", 10));
+    }
+
+    @NotNull
+    private static Town town(int id, @NotNull String name) {
+        return Town.builder().id(id).name(name).build();
+    }
+
+}